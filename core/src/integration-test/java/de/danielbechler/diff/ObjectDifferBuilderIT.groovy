@@ -19,6 +19,7 @@ package de.danielbechler.diff
 import de.danielbechler.diff.differ.Differ
 import de.danielbechler.diff.differ.DifferDispatcher
 import de.danielbechler.diff.differ.DifferFactory
+import de.danielbechler.diff.path.NodePath
 import spock.lang.Specification
 
 /**
@@ -49,4 +50,21 @@ class ObjectDifferBuilderIT extends Specification {
 		and:
 		  1 * differMock.compare(*_)
 	}
+
+	def 'Changes to the configuration do not affect previously built ObjectDiffers'() {
+		given:
+		  def objectDifferBuilder = ObjectDifferBuilder.startBuilding()
+		  def objectDiffer = objectDifferBuilder.build()
+		  def path = NodePath.startBuilding().mapKey('foo').build()
+
+		when:
+		  objectDifferBuilder.inclusion().exclude().node(path)
+		  def node = objectDiffer.compare([foo: 'working'], [foo: 'base'])
+
+		then:
+		  node.getChild(path.lastElementSelector).changed
+
+		and:
+		  objectDifferBuilder.build().compare([foo: 'working'], [foo: 'base']).untouched
+	}
 }
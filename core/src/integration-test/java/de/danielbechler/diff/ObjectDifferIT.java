@@ -19,6 +19,7 @@ package de.danielbechler.diff;
 import de.danielbechler.diff.helper.NodeAssertions;
 import de.danielbechler.diff.helper.TestGroups;
 import de.danielbechler.diff.mock.ObjectWithAccessTrackingIgnoredProperty;
+import de.danielbechler.diff.mock.ObjectWithCircularReference;
 import de.danielbechler.diff.mock.ObjectWithCollection;
 import de.danielbechler.diff.mock.ObjectWithHashCodeAndEquals;
 import de.danielbechler.diff.mock.ObjectWithIdentityAndValue;
@@ -27,8 +28,10 @@ import de.danielbechler.diff.mock.ObjectWithMethodEqualsOnlyValueProviderMethodO
 import de.danielbechler.diff.mock.ObjectWithMethodEqualsOnlyValueProviderMethodOnGetMap;
 import de.danielbechler.diff.mock.ObjectWithMethodEqualsOnlyValueProviderMethodOnGetNestedObject;
 import de.danielbechler.diff.mock.ObjectWithNestedObject;
+import de.danielbechler.diff.node.DiffListener;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.node.NodeHierarchyVisitor;
+import de.danielbechler.diff.node.Visit;
 import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.diff.selector.CollectionItemElementSelector;
 import de.danielbechler.diff.selector.MapKeyElementSelector;
@@ -47,6 +50,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static de.danielbechler.diff.helper.NodeAssertions.assertThat;
 import static de.danielbechler.diff.helper.TestGroups.INTEGRATION;
@@ -451,4 +457,167 @@ public class ObjectDifferIT
 				.child(NodePath.with("map"))
 				.hasState(DiffNode.State.CHANGED);
 	}
+
+	public void testIsEqualReturnsTrueForEqualObjectGraphs()
+	{
+		final ObjectWithNestedObject working = new ObjectWithNestedObject("1", new ObjectWithNestedObject("2"));
+		final ObjectWithNestedObject base = new ObjectWithNestedObject("1", new ObjectWithNestedObject("2"));
+
+		Assertions.assertThat(objectDiffer.isEqual(working, base)).isTrue();
+		Assertions.assertThat(objectDiffer.findFirstDifference(working, base)).isNull();
+	}
+
+	public void testIsEqualReturnsFalseForDifferentObjectGraphs()
+	{
+		final ObjectWithNestedObject working = new ObjectWithNestedObject("1", new ObjectWithNestedObject("2"));
+		final ObjectWithNestedObject base = new ObjectWithNestedObject("1", new ObjectWithNestedObject("3"));
+
+		Assertions.assertThat(objectDiffer.isEqual(working, base)).isFalse();
+	}
+
+	public void testFindFirstDifferenceReturnsPathOfFirstChangedProperty()
+	{
+		final List<ObjectWithIdentityAndValue> working = asList(new ObjectWithIdentityAndValue("a", "1"), new ObjectWithIdentityAndValue("b", "2"));
+		final List<ObjectWithIdentityAndValue> base = asList(new ObjectWithIdentityAndValue("a", "1"), new ObjectWithIdentityAndValue("b", "3"));
+
+		final NodePath firstDifference = objectDiffer.findFirstDifference(working, base);
+
+		Assertions.assertThat(firstDifference).isEqualTo(NodePath.startBuilding()
+				.collectionItem(new ObjectWithIdentityAndValue("b"))
+				.propertyName("value")
+				.build());
+	}
+
+	public void testFindFirstDifferenceAgreesWithCompare()
+	{
+		final ObjectWithNestedObject base = new ObjectWithNestedObject("1");
+		final ObjectWithNestedObject working = new ObjectWithNestedObject("1", new ObjectWithNestedObject("2", new ObjectWithNestedObject("foo")));
+
+		final NodePath firstDifference = objectDiffer.findFirstDifference(working, base);
+
+		Assertions.assertThat(firstDifference).isNotNull();
+		assertThat(objectDiffer.compare(working, base)).child(firstDifference).hasChanges();
+	}
+
+	public void testCompareWithListenerReportsTheSameChangesAsTheNodeTree()
+	{
+		final Map<String, ObjectWithNestedObject> working = new LinkedHashMap<String, ObjectWithNestedObject>();
+		working.put("a", new ObjectWithNestedObject("1", new ObjectWithNestedObject("2")));
+		working.put("b", new ObjectWithNestedObject("3"));
+		final Map<String, ObjectWithNestedObject> base = new LinkedHashMap<String, ObjectWithNestedObject>();
+		base.put("a", new ObjectWithNestedObject("1", new ObjectWithNestedObject("4")));
+		base.put("c", new ObjectWithNestedObject("5"));
+
+		final Map<NodePath, DiffNode.State> reportedChanges = new LinkedHashMap<NodePath, DiffNode.State>();
+		final List<NodePath> openPaths = new LinkedList<NodePath>();
+		objectDiffer.compare(working, base, new DiffListener()
+		{
+			public void onEnter(final NodePath path, final Class<?> type)
+			{
+				openPaths.add(0, path);
+			}
+
+			public void onChange(final NodePath path, final DiffNode.State state, final Object working, final Object base)
+			{
+				reportedChanges.put(path, state);
+			}
+
+			public void onLeave(final NodePath path)
+			{
+				Assertions.assertThat(openPaths.remove(0)).isEqualTo(path);
+			}
+		});
+
+		final Map<NodePath, DiffNode.State> expectedChanges = new HashMap<NodePath, DiffNode.State>();
+		objectDiffer.compare(working, base).visit(new DiffNode.Visitor()
+		{
+			public void node(final DiffNode node, final Visit visit)
+			{
+				if (node.hasChanges() && node.getState() != DiffNode.State.UNTOUCHED)
+				{
+					expectedChanges.put(node.getPath(), node.getState());
+				}
+			}
+		});
+		Assertions.assertThat(openPaths).isEmpty();
+		Assertions.assertThat(reportedChanges).isEqualTo(expectedChanges);
+		Assertions.assertThat(reportedChanges).containsKey(NodePath.startBuilding().mapKey("a").propertyName("object", "id").build());
+	}
+
+	public void testParallelComparisonProducesTheSameTreeAsSequentialComparison()
+	{
+		final Map<String, ObjectWithCircularReference> working = new LinkedHashMap<String, ObjectWithCircularReference>();
+		final Map<String, ObjectWithCircularReference> base = new LinkedHashMap<String, ObjectWithCircularReference>();
+		for (int i = 0; i < 20; i++)
+		{
+			final ObjectWithCircularReference workingItem = new ObjectWithCircularReference("w" + (i % 3));
+			workingItem.setReference(workingItem);
+			working.put("key" + i, workingItem);
+			final ObjectWithCircularReference baseItem = new ObjectWithCircularReference("w0");
+			baseItem.setReference(baseItem);
+			base.put("key" + (i + 2), baseItem);
+		}
+
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try
+		{
+			final ObjectDiffer parallelObjectDiffer = ObjectDifferBuilder.startBuilding()
+					.parallelism()
+					.useExecutor(executor)
+					.forkWhenAtLeast(2)
+					.forkBeansWhenAtLeast(2)
+					.and()
+					.build();
+
+			final List<String> expectedNodes = describeNodes(objectDiffer.compare(working, base));
+			for (int run = 0; run < 10; run++)
+			{
+				Assertions.assertThat(describeNodes(parallelObjectDiffer.compare(working, base))).isEqualTo(expectedNodes);
+			}
+			Assertions.assertThat(expectedNodes).contains("/{key0}/reference CIRCULAR");
+		}
+		finally
+		{
+			executor.shutdown();
+		}
+	}
+
+	public void testSmallBeansAndCollectionsAreNotComparedInParallelByDefault()
+	{
+		final List<Runnable> forkedComparisons = new ArrayList<Runnable>();
+		final ObjectDiffer parallelObjectDiffer = ObjectDifferBuilder.startBuilding()
+				.parallelism()
+				.useExecutor(new Executor()
+				{
+					public void execute(final Runnable command)
+					{
+						forkedComparisons.add(command);
+						command.run();
+					}
+				})
+				.and()
+				.build();
+		final ObjectWithCollection working = new ObjectWithCollection();
+		working.setCollection(new ArrayList<String>(asList("a", "b", "c", "d", "e", "f", "g", "h", "i", "j")));
+		final ObjectWithCollection base = new ObjectWithCollection();
+		base.setCollection(new ArrayList<String>(asList("a", "b", "c")));
+
+		final DiffNode node = parallelObjectDiffer.compare(working, base);
+
+		Assertions.assertThat(forkedComparisons).isEmpty();
+		Assertions.assertThat(describeNodes(node)).isEqualTo(describeNodes(objectDiffer.compare(working, base)));
+	}
+
+	private static List<String> describeNodes(final DiffNode rootNode)
+	{
+		final List<String> nodes = new ArrayList<String>();
+		rootNode.visit(new DiffNode.Visitor()
+		{
+			public void node(final DiffNode node, final Visit visit)
+			{
+				nodes.add(node.getPath() + " " + node.getState());
+			}
+		});
+		return nodes;
+	}
 }
@@ -35,6 +35,38 @@ class IdentityStrategyAT extends Specification {
 		}
 	}
 
+	static class ObjectWithBeanList {
+		List<Bean> items = []
+	}
+
+	static class Bean {
+		String id
+		String value
+
+		Bean(String id, String value = null) {
+			this.id = id
+			this.value = value
+		}
+
+		@Override
+		boolean equals(Object o) {
+			return o instanceof Bean && id == o.id && value == o.value
+		}
+
+		@Override
+		int hashCode() {
+			return 31 * (id != null ? id.hashCode() : 0) + (value != null ? value.hashCode() : 0)
+		}
+	}
+
+	static class ByIdIdentityStrategy implements IdentityStrategy {
+
+		@Override
+		boolean equals(Object working, Object base) {
+			return ((Bean) working).id == ((Bean) base).id
+		}
+	}
+
 	def 'configure IdentityStrategy for property of specific type'() {
 		def strategy = new NonMatchingIdentityStrategy()
 		ObjectDiffer objectDiffer = ObjectDifferBuilder.startBuilding()
@@ -65,4 +97,22 @@ class IdentityStrategyAT extends Specification {
 		then:
 		  node.untouched
 	}
+
+	def 'exclude property of collection item identified via custom IdentityStrategy'() {
+		ObjectDiffer objectDiffer = ObjectDifferBuilder.startBuilding()
+				.identity()
+				.ofCollectionItems(NodePath.with('items')).via(new ByIdIdentityStrategy())
+				.and()
+				.inclusion()
+				.exclude().node(NodePath.startBuilding().propertyName('items').collectionItem(new Bean('1')).propertyName('value').build())
+				.and().build()
+
+		def working = new ObjectWithBeanList(items: [new Bean('1', 'foo')])
+		def base = new ObjectWithBeanList(items: [new Bean('1', 'bar')])
+
+		when:
+		  def node = objectDiffer.compare(working, base)
+		then:
+		  node.untouched
+	}
 }
@@ -20,6 +20,7 @@ import de.danielbechler.diff.category.CategoryResolver;
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
 import de.danielbechler.diff.comparison.PrimitiveDefaultValueModeResolver;
 import de.danielbechler.diff.filtering.IsReturnableResolver;
+import de.danielbechler.diff.identity.IdentityStrategyResolver;
 import de.danielbechler.diff.inclusion.IsIgnoredResolver;
 import de.danielbechler.diff.introspection.IsIntrospectableResolver;
 
@@ -32,6 +33,7 @@ public interface NodeQueryService extends
 		IsIgnoredResolver,
 		IsReturnableResolver,
 		ComparisonStrategyResolver,
-		PrimitiveDefaultValueModeResolver
+		PrimitiveDefaultValueModeResolver,
+		IdentityStrategyResolver
 {
 }
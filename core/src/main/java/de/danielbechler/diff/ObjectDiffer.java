@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff;
+
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.RootAccessor;
+import de.danielbechler.diff.differ.DiffContext;
+import de.danielbechler.diff.differ.DifferDispatcher;
+import de.danielbechler.diff.node.DiffListener;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.util.Assert;
+
+/**
+ * This is the entry point for all comparisons. It determines the type of the given objects and passes them to
+ * the appropriate {@link de.danielbechler.diff.differ.Differ}.
+ *
+ * @author Daniel Bechler
+ */
+public class ObjectDiffer
+{
+	private final DifferDispatcher dispatcher;
+
+	public ObjectDiffer(final DifferDispatcher differDispatcher)
+	{
+		this.dispatcher = differDispatcher;
+	}
+
+	/**
+	 * Recursively inspects the given objects and returns a node representing their differences. Both objects
+	 * have be have the same type.
+	 *
+	 * @param working This object will be treated as the successor of the `base` object.
+	 * @param base    This object will be treated as the predecessor of the <code>working</code> object.
+	 * @return A node representing the differences between the given objects.
+	 */
+	public <T> DiffNode compare(final T working, final T base)
+	{
+		final Instances instances = Instances.of(working, base).withContext(dispatcher.newDiffContext());
+		return dispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.getInstance());
+	}
+
+	/**
+	 * Works like {@link #compare(Object, Object)}, but passes the results to the given listener while the
+	 * comparison is running, instead of collecting them in a tree of nodes. Only the nodes along the path that is
+	 * currently being compared are kept in memory.
+	 *
+	 * @param working  This object will be treated as the successor of the `base` object.
+	 * @param base     This object will be treated as the predecessor of the <code>working</code> object.
+	 * @param listener Receives the results of the comparison.
+	 */
+	public <T> void compare(final T working, final T base, final DiffListener listener)
+	{
+		Assert.notNull(listener, "listener");
+		final Instances instances = Instances.of(working, base).withContext(dispatcher.newDiffContext(listener));
+		dispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.getInstance());
+	}
+
+	/**
+	 * Works like {@link #compare(Object, Object)}, but stops as soon as the first difference has been found.
+	 *
+	 * @param working This object will be treated as the successor of the `base` object.
+	 * @param base    This object will be treated as the predecessor of the <code>working</code> object.
+	 * @return <code>true</code> if the comparison of the given objects doesn't yield any differences.
+	 */
+	public <T> boolean isEqual(final T working, final T base)
+	{
+		return findFirstDifference(working, base) == null;
+	}
+
+	/**
+	 * Works like {@link #compare(Object, Object)}, but stops as soon as the first property that has been added,
+	 * removed, changed or moved has been found.
+	 *
+	 * @param working This object will be treated as the successor of the `base` object.
+	 * @param base    This object will be treated as the predecessor of the <code>working</code> object.
+	 * @return The path of the first difference or <code>null</code> if the given objects don't differ.
+	 */
+	public <T> NodePath findFirstDifference(final T working, final T base)
+	{
+		final DiffContext context = dispatcher.newDiffContext(true);
+		final Instances instances = Instances.of(working, base).withContext(context);
+		dispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.getInstance());
+		return context.getFirstDifference();
+	}
+}
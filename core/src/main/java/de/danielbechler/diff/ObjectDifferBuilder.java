@@ -35,11 +35,14 @@ import de.danielbechler.diff.differ.PrimitiveDiffer;
 import de.danielbechler.diff.filtering.FilteringConfigurer;
 import de.danielbechler.diff.filtering.ReturnableNodeService;
 import de.danielbechler.diff.identity.IdentityService;
+import de.danielbechler.diff.identity.IdentityStrategy;
 import de.danielbechler.diff.inclusion.InclusionConfigurer;
 import de.danielbechler.diff.inclusion.InclusionService;
 import de.danielbechler.diff.introspection.IntrospectionConfigurer;
 import de.danielbechler.diff.introspection.IntrospectionService;
 import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.parallel.ParallelismConfigurer;
+import de.danielbechler.diff.parallel.ParallelismService;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -61,8 +64,8 @@ public class ObjectDifferBuilder
 	private final IdentityService identityService = new IdentityService(this);
 	private final ReturnableNodeService returnableNodeService = new ReturnableNodeService(this);
 	private final CircularReferenceService circularReferenceService = new CircularReferenceService(this);
+	private final ParallelismService parallelismService = new ParallelismService(this);
 	private final DifferConfigurer differConfigurer = new DifferConfigurerImpl();
-	private final NodeQueryService nodeQueryService = new NodeQueryServiceImpl();
 	private final Collection<DifferFactory> differFactories = new ArrayList<DifferFactory>();
 
 	private ObjectDifferBuilder()
@@ -146,34 +149,61 @@ public class ObjectDifferBuilder
 		return differConfigurer;
 	}
 
+	/**
+	 * Allows to compare the properties, items and entries of large objects in parallel, by providing an
+	 * {@link java.util.concurrent.Executor}. Everything is compared on the calling thread by default.
+	 */
+	public ParallelismConfigurer parallelism()
+	{
+		return parallelismService;
+	}
+
 	public static ObjectDiffer buildDefault()
 	{
 		return startBuilding().build();
 	}
 
+	/**
+	 * Creates a new {@link ObjectDiffer} based on a snapshot of the current configuration. Changes made to this
+	 * builder afterwards don't affect the returned instance.
+	 */
 	public ObjectDiffer build()
 	{
+		final CategoryService categories = categoryService.snapshot();
+		final IntrospectionService introspection = introspectionService.snapshot();
+		final InclusionService inclusion = inclusionService.snapshot(categories);
+		final ComparisonService comparison = comparisonService.snapshot();
+		final IdentityService identity = identityService.snapshot();
+		final ReturnableNodeService returnableNodes = returnableNodeService.snapshot();
+		final CircularReferenceService circularReferences = circularReferenceService.snapshot();
+		final ParallelismService parallelism = parallelismService.snapshot();
+		final NodeQueryService nodeQueryService = new NodeQueryServiceImpl(categories, introspection, inclusion,
+				comparison, identity, returnableNodes);
+
 		final DifferProvider differProvider = new DifferProvider();
 		final DifferDispatcher differDispatcher = new DifferDispatcher(
 				differProvider,
-				circularReferenceService,
-				circularReferenceService,
-				inclusionService,
-				returnableNodeService,
-				introspectionService);
+				circularReferences,
+				circularReferences,
+				inclusion,
+				returnableNodes,
+				introspection,
+				parallelism);
 		differProvider.push(new BeanDiffer(
 				differDispatcher,
-				introspectionService,
-				returnableNodeService,
-				comparisonService,
-				introspectionService));
-		differProvider.push(new CollectionDiffer(differDispatcher, comparisonService, identityService));
-		differProvider.push(new MapDiffer(differDispatcher, comparisonService));
-		differProvider.push(new PrimitiveDiffer(comparisonService));
-		for (final DifferFactory differFactory : differFactories)
+				introspection,
+				returnableNodes,
+				comparison,
+				introspection,
+				inclusion));
+		differProvider.push(new CollectionDiffer(differDispatcher, comparison, identity));
+		differProvider.push(new MapDiffer(differDispatcher, comparison));
+		differProvider.push(new PrimitiveDiffer(comparison));
+		for (final DifferFactory differFactory : new ArrayList<DifferFactory>(differFactories))
 		{
 			differProvider.push(differFactory.createDiffer(differDispatcher, nodeQueryService));
 		}
+		differProvider.freeze();
 		return new ObjectDiffer(differDispatcher);
 	}
 
@@ -192,8 +222,30 @@ public class ObjectDifferBuilder
 
 	}
 
-	private class NodeQueryServiceImpl implements NodeQueryService
+	private static class NodeQueryServiceImpl implements NodeQueryService
 	{
+		private final CategoryService categoryService;
+		private final IntrospectionService introspectionService;
+		private final InclusionService inclusionService;
+		private final ComparisonService comparisonService;
+		private final IdentityService identityService;
+		private final ReturnableNodeService returnableNodeService;
+
+		NodeQueryServiceImpl(final CategoryService categoryService,
+							 final IntrospectionService introspectionService,
+							 final InclusionService inclusionService,
+							 final ComparisonService comparisonService,
+							 final IdentityService identityService,
+							 final ReturnableNodeService returnableNodeService)
+		{
+			this.categoryService = categoryService;
+			this.introspectionService = introspectionService;
+			this.inclusionService = inclusionService;
+			this.comparisonService = comparisonService;
+			this.identityService = identityService;
+			this.returnableNodeService = returnableNodeService;
+		}
+
 		public Set<String> resolveCategories(final DiffNode node)
 		{
 			return categoryService.resolveCategories(node);
@@ -224,5 +276,10 @@ public class ObjectDifferBuilder
 		{
 			return comparisonService.resolvePrimitiveDefaultValueMode(node);
 		}
+
+		public IdentityStrategy resolveIdentityStrategy(final DiffNode node)
+		{
+			return identityService.resolveIdentityStrategy(node);
+		}
 	}
 }
@@ -24,6 +24,7 @@ import de.danielbechler.util.Assert;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Set;
 
 /**
  * @author Daniel Bechler
@@ -32,6 +33,7 @@ public class CollectionItemAccessor implements TypeAwareAccessor, Accessor
 {
 	private final Object referenceItem;
 	private final IdentityStrategy identityStrategy;
+	private final CollectionItemIndex itemIndex;
 
 	/**
 	 * Default implementation uses IdentityService.EQUALS_IDENTITY_STRATEGY.
@@ -51,10 +53,26 @@ public class CollectionItemAccessor implements TypeAwareAccessor, Accessor
 	 */
 	public CollectionItemAccessor(final Object referenceItem,
 								  final IdentityStrategy identityStrategy)
+	{
+		this(referenceItem, identityStrategy, null);
+	}
+
+	/**
+	 * Allows for custom IdentityStrategy and uses the given index to look up the item in indexed collections instead
+	 * of scanning them.
+	 *
+	 * @param referenceItem
+	 * @param identityStrategy
+	 * @param itemIndex
+	 */
+	public CollectionItemAccessor(final Object referenceItem,
+								  final IdentityStrategy identityStrategy,
+								  final CollectionItemIndex itemIndex)
 	{
 		Assert.notNull(identityStrategy, "identityStrategy");
 		this.referenceItem = referenceItem;
 		this.identityStrategy = identityStrategy;
+		this.itemIndex = itemIndex;
 	}
 
 	public Class<?> getType()
@@ -81,6 +99,10 @@ public class CollectionItemAccessor implements TypeAwareAccessor, Accessor
 		{
 			return null;
 		}
+		if (itemIndex != null)
+		{
+			return itemIndex.index(targetCollection).find(referenceItem);
+		}
 		for (final Object item : targetCollection)
 		{
 			if (item != null && identityStrategy.equals(item, referenceItem))
@@ -103,7 +125,10 @@ public class CollectionItemAccessor implements TypeAwareAccessor, Accessor
 		{
 			unset(target);
 		}
-		targetCollection.add(value);
+		if (targetCollection.add(value) && itemIndex != null)
+		{
+			itemIndex.added(targetCollection, value);
+		}
 	}
 
 	@SuppressWarnings("unchecked")
@@ -127,6 +152,11 @@ public class CollectionItemAccessor implements TypeAwareAccessor, Accessor
 		{
 			return;
 		}
+		if (itemIndex != null)
+		{
+			unsetIndexed(targetCollection);
+			return;
+		}
 		final Iterator<?> iterator = targetCollection.iterator();
 		while (iterator.hasNext())
 		{
@@ -138,4 +168,34 @@ public class CollectionItemAccessor implements TypeAwareAccessor, Accessor
 			}
 		}
 	}
+
+	/**
+	 * Looks up the item via the index, so removing it only requires a hash lookup for sets and a reference comparison
+	 * per item for all other collections.
+	 */
+	private void unsetIndexed(final Collection<?> targetCollection)
+	{
+		final Object item = itemIndex.index(targetCollection).find(referenceItem);
+		if (item == null)
+		{
+			return;
+		}
+		if (targetCollection instanceof Set)
+		{
+			targetCollection.remove(item);
+		}
+		else
+		{
+			final Iterator<?> iterator = targetCollection.iterator();
+			while (iterator.hasNext())
+			{
+				if (iterator.next() == item)
+				{
+					iterator.remove();
+					break;
+				}
+			}
+		}
+		itemIndex.removed(targetCollection, item);
+	}
 }
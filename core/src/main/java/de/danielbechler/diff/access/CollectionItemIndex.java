@@ -0,0 +1,100 @@
+/*
+ * Copyright 2012 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.identity.HashingIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityIndex;
+import de.danielbechler.util.WeakIdentityMap;
+
+import java.util.Collection;
+
+/**
+ * Indexes the items of collections, so that the {@link CollectionItemAccessor CollectionItemAccessors} of their items
+ * don't need to scan the whole collection on every access. That applies to the collections being compared as well as
+ * to the ones the accessors are used on later, e.g. by the {@link de.danielbechler.diff.ObjectMerger}.
+ * <p/>
+ * The accessors keep the index in sync with the changes they make. Any other change that alters the size of a
+ * collection causes its index to be rebuilt on the next access. Changes that replace items without altering the size
+ * of the collection can't be detected, so such collections need to be {@linkplain #invalidate(Object) invalidated}
+ * explicitly. The collections are only referenced weakly, so the index doesn't keep them alive.
+ *
+ * @author Daniel Bechler
+ */
+public class CollectionItemIndex
+{
+	private final HashingIdentityStrategy identityStrategy;
+	private final WeakIdentityMap<Collection<?>, IdentityIndex> identityIndexes = new WeakIdentityMap<Collection<?>, IdentityIndex>();
+
+	public CollectionItemIndex(final HashingIdentityStrategy identityStrategy)
+	{
+		this.identityStrategy = identityStrategy;
+	}
+
+	/**
+	 * Indexes the items of the given collection, unless that already happened and the collection didn't change its size
+	 * since then.
+	 *
+	 * @return The index of the given collection.
+	 */
+	public IdentityIndex index(final Collection<?> collection)
+	{
+		IdentityIndex identityIndex = identityIndexes.get(collection);
+		if (identityIndex == null || identityIndex.size() != collection.size())
+		{
+			identityIndex = new IdentityIndex(collection, identityStrategy);
+			identityIndexes.put(collection, identityIndex);
+		}
+		return identityIndex;
+	}
+
+	/**
+	 * Adds the given item to the index of the given collection, after it has been added to the collection itself.
+	 */
+	void added(final Collection<?> collection, final Object item)
+	{
+		final IdentityIndex identityIndex = identityIndexes.get(collection);
+		if (identityIndex != null)
+		{
+			identityIndex.add(item);
+		}
+	}
+
+	/**
+	 * Removes the given item from the index of the given collection, after it has been removed from the collection
+	 * itself.
+	 */
+	void removed(final Collection<?> collection, final Object item)
+	{
+		final IdentityIndex identityIndex = identityIndexes.get(collection);
+		if (identityIndex != null && !identityIndex.remove(item))
+		{
+			identityIndexes.remove(collection);
+		}
+	}
+
+	/**
+	 * Drops the index of the given collection, e.g. because its items have been replaced.
+	 */
+	public void invalidate(final Object collection)
+	{
+		identityIndexes.remove(collection);
+	}
+
+	public void clear()
+	{
+		identityIndexes.clear();
+	}
+}
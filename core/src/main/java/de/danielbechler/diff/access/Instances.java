@@ -16,6 +16,7 @@
 
 package de.danielbechler.diff.access;
 
+import de.danielbechler.diff.differ.DiffContext;
 import de.danielbechler.util.Assert;
 import de.danielbechler.util.Classes;
 import de.danielbechler.util.Collections;
@@ -28,21 +29,40 @@ import static de.danielbechler.util.Objects.isEqual;
 
 public class Instances
 {
+	private static final Object UNRESOLVED = new Object();
+
 	private final Accessor sourceAccessor;
 	private final Object working;
 	private final Object base;
-	private final Object fresh;
+	private final DiffContext context;
+	private final FreshValuePath freshValuePath;
+	/**
+	 * The fresh value, once it has been resolved. Instances never change their context, so it can't belong to
+	 * another comparison or another branch of the same one.
+	 */
+	private volatile Object fresh = UNRESOLVED;
+	private volatile Object type = UNRESOLVED;
 
 	Instances(final Accessor sourceAccessor,
 			  final Object working,
 			  final Object base,
 			  final Object fresh)
+	{
+		this(sourceAccessor, working, base, FreshValuePath.root(fresh, working), null);
+	}
+
+	private Instances(final Accessor sourceAccessor,
+					  final Object working,
+					  final Object base,
+					  final FreshValuePath freshValuePath,
+					  final DiffContext context)
 	{
 		Assert.notNull(sourceAccessor, "sourceAccessor");
 		this.sourceAccessor = sourceAccessor;
 		this.working = working;
 		this.base = base;
-		this.fresh = fresh;
+		this.freshValuePath = freshValuePath;
+		this.context = context;
 	}
 
 	public static <T> Instances of(final Accessor sourceAccessor,
@@ -53,16 +73,18 @@ public class Instances
 		return new Instances(sourceAccessor, working, base, fresh);
 	}
 
+	/**
+	 * The fresh instance is only created when it's actually needed. Instances that belong to a comparison create it
+	 * only once per comparison via {@link DiffContext#freshInstanceOf(Class)}.
+	 */
 	public static <T> Instances of(final Accessor sourceAccessor, final T working, final T base)
 	{
-		final Object fresh = (working != null) ? Classes.freshInstanceOf(working.getClass()) : null;
-		return new Instances(sourceAccessor, working, base, fresh);
+		return new Instances(sourceAccessor, working, base, UNRESOLVED);
 	}
 
 	public static <T> Instances of(final T working, final T base)
 	{
-		final Object fresh = (working != null) ? Classes.freshInstanceOf(working.getClass()) : null;
-		return new Instances(RootAccessor.getInstance(), working, base, fresh);
+		return of(RootAccessor.getInstance(), working, base);
 	}
 
 	/**
@@ -73,10 +95,34 @@ public class Instances
 		return sourceAccessor;
 	}
 
+	/**
+	 * @return The {@link DiffContext} of the comparison these instances belong to or <code>null</code>, if they
+	 * haven't been assigned to a comparison yet.
+	 */
+	public DiffContext getContext()
+	{
+		return context;
+	}
+
+	/**
+	 * @return A copy of these instances that belongs to the comparison represented by the given context. It resolves
+	 * its fresh value on its own, since the one of these instances may belong to another comparison.
+	 */
+	public Instances withContext(final DiffContext context)
+	{
+		final Instances instances = new Instances(sourceAccessor, working, base, freshValuePath, context);
+		instances.type = type;
+		return instances;
+	}
+
+	/**
+	 * @return The instances that can be reached via the given accessor. They belong to the same comparison as these
+	 * instances. The fresh value is only accessed when it's actually needed.
+	 */
 	public Instances access(final Accessor accessor)
 	{
 		Assert.notNull(accessor, "accessor");
-		return new Instances(accessor, accessor.get(working), accessor.get(base), accessor.get(fresh));
+		return new Instances(accessor, accessor.get(working), accessor.get(base), freshValuePath.child(accessor), context);
 	}
 
 	public Object getWorking()
@@ -101,6 +147,7 @@ public class Instances
 
 	public Object getFresh()
 	{
+		final Object fresh = resolveFresh();
 		if (fresh == null)
 		{
 			if (isPrimitiveNumericType())
@@ -115,6 +162,17 @@ public class Instances
 		return fresh;
 	}
 
+	private Object resolveFresh()
+	{
+		Object resolvedFresh = fresh;
+		if (resolvedFresh == UNRESOLVED)
+		{
+			resolvedFresh = freshValuePath.resolve(context);
+			fresh = resolvedFresh;
+		}
+		return resolvedFresh;
+	}
+
 	@SuppressWarnings("UnusedDeclaration")
 	public <T> T getFresh(final Class<T> type)
 	{
@@ -159,14 +217,34 @@ public class Instances
 		return Classes.isPrimitiveWrapperType(getType());
 	}
 
+	/**
+	 * @return The type of these instances. It's only resolved once, since it's needed multiple times per node.
+	 */
 	public Class<?> getType()
 	{
-		final Set<Class<?>> types = Classes.typesOf(working, base, fresh);
+		Object resolvedType = type;
+		if (resolvedType == UNRESOLVED)
+		{
+			resolvedType = resolveType();
+			type = resolvedType;
+		}
+		return (Class<?>) resolvedType;
+	}
+
+	private Class<?> resolveType()
+	{
 		final Class<?> sourceAccessorType = tryToGetTypeFromSourceAccessor();
 		if (Classes.isPrimitiveType(sourceAccessorType))
 		{
 			return sourceAccessorType;
 		}
+		if (working != null && base != null && working.getClass() == base.getClass())
+		{
+			return working.getClass();
+		}
+		final Set<Class<?>> types = working != null || base != null
+				? Classes.typesOf(working, base)
+				: Classes.typesOf(resolveFresh());
 		if (types.isEmpty())
 		{
 			return null;
@@ -213,7 +291,7 @@ public class Instances
 			}
 			else
 			{
-				final Class<?> sharedType = Classes.mostSpecificSharedType(types);
+				final Class<?> sharedType = Classes.mostSpecificSharedType(working.getClass(), base.getClass());
 				if (sharedType != null)
 				{
 					return sharedType;
@@ -263,4 +341,62 @@ public class Instances
 		return working == null && base == null;
 	}
 
+	/**
+	 * Describes how to get to the fresh value of some instances: by reading it via a chain of accessors from the
+	 * fresh value at the root. The latter has either been passed in explicitly or gets created by the {@link
+	 * DiffContext} of the instances asking for it. The path itself doesn't hold any values, so it can be shared by
+	 * instances of different comparisons.
+	 */
+	private static final class FreshValuePath
+	{
+		private final FreshValuePath parent;
+		private final Accessor accessor;
+		private final Object rootValue;
+		private final Class<?> rootType;
+
+		private FreshValuePath(final FreshValuePath parent,
+							   final Accessor accessor,
+							   final Object rootValue,
+							   final Class<?> rootType)
+		{
+			this.parent = parent;
+			this.accessor = accessor;
+			this.rootValue = rootValue;
+			this.rootType = rootType;
+		}
+
+		private static FreshValuePath root(final Object fresh, final Object working)
+		{
+			if (fresh == UNRESOLVED && working != null)
+			{
+				return new FreshValuePath(null, null, UNRESOLVED, working.getClass());
+			}
+			return new FreshValuePath(null, null, fresh == UNRESOLVED ? null : fresh, null);
+		}
+
+		private FreshValuePath child(final Accessor accessor)
+		{
+			return new FreshValuePath(this, accessor, null, null);
+		}
+
+		private Object resolve(final DiffContext context)
+		{
+			if (parent != null)
+			{
+				return accessor.get(parent.resolve(context));
+			}
+			else if (rootType == null)
+			{
+				return rootValue;
+			}
+			else if (context != null)
+			{
+				return context.freshInstanceOf(rootType);
+			}
+			else
+			{
+				return Classes.freshInstanceOf(rootType);
+			}
+		}
+	}
 }
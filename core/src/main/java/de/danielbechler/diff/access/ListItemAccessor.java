@@ -0,0 +1,148 @@
+/*
+ * Copyright 2012 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.access;
+
+import de.danielbechler.diff.selector.ListItemElementSelector;
+import de.danielbechler.util.Assert;
+
+import java.util.List;
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX;
+
+/**
+ * Accesses an item of an ordered list by its position. Reads from the compared lists use the position of the item in
+ * the respective list. Any other list (e.g. the target of a merge) is accessed by the position the item has in the
+ * working list.
+ *
+ * @author Daniel Bechler
+ */
+public class ListItemAccessor implements TypeAwareAccessor
+{
+	private final List<?> workingList;
+	private final List<?> baseList;
+	private final ListItemElementSelector elementSelector;
+
+	public ListItemAccessor(final List<?> workingList,
+							final List<?> baseList,
+							final ListItemElementSelector elementSelector)
+	{
+		Assert.notNull(elementSelector, "elementSelector");
+		this.workingList = workingList;
+		this.baseList = baseList;
+		this.elementSelector = elementSelector;
+	}
+
+	public Class<?> getType()
+	{
+		Object item = get(workingList);
+		if (item == null)
+		{
+			item = get(baseList);
+		}
+		return item != null ? item.getClass() : null;
+	}
+
+	public ListItemElementSelector getElementSelector()
+	{
+		return elementSelector;
+	}
+
+	public Object get(final Object target)
+	{
+		final List<?> targetList = objectAsList(target);
+		if (targetList == null)
+		{
+			return null;
+		}
+		final int index = indexIn(targetList);
+		if (index != NO_INDEX && index < targetList.size())
+		{
+			return targetList.get(index);
+		}
+		return null;
+	}
+
+	/**
+	 * Replaces the item at its position in the given list. Inserted items and items beyond the end of the given list
+	 * get inserted at the position they have in the working list instead. Since positions refer to the compared
+	 * lists, writing multiple items into the same list may shift the positions of the remaining ones.
+	 */
+	public void set(final Object target, final Object value)
+	{
+		final List<Object> targetList = objectAsList(target);
+		if (targetList == null)
+		{
+			return;
+		}
+		final int index = indexIn(targetList);
+		final int insertionIndex = elementSelector.getWorkingIndex();
+		if (!elementSelector.isInserted() && index != NO_INDEX && index < targetList.size())
+		{
+			targetList.set(index, value);
+		}
+		else if (insertionIndex != NO_INDEX && insertionIndex < targetList.size())
+		{
+			targetList.add(insertionIndex, value);
+		}
+		else
+		{
+			targetList.add(value);
+		}
+	}
+
+	public void unset(final Object target)
+	{
+		final List<?> targetList = objectAsList(target);
+		if (targetList == null)
+		{
+			return;
+		}
+		final int index = indexIn(targetList);
+		if (index != NO_INDEX && index < targetList.size())
+		{
+			targetList.remove(index);
+		}
+	}
+
+	private int indexIn(final List<?> targetList)
+	{
+		if (targetList == baseList)
+		{
+			return elementSelector.getBaseIndex();
+		}
+		return elementSelector.getWorkingIndex();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Object> objectAsList(final Object object)
+	{
+		if (object == null)
+		{
+			return null;
+		}
+		else if (object instanceof List)
+		{
+			return (List<Object>) object;
+		}
+		throw new IllegalArgumentException(object.getClass().toString());
+	}
+
+	@Override
+	public String toString()
+	{
+		return "list item " + elementSelector;
+	}
+}
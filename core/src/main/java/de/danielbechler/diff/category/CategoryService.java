@@ -19,31 +19,80 @@ package de.danielbechler.diff.category;
 import de.danielbechler.diff.ObjectDifferBuilder;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
-import de.danielbechler.diff.path.NodePathValueHolder;
+import de.danielbechler.diff.path.NodePathTrie;
+import de.danielbechler.diff.path.ValueNode;
 
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Collections.unmodifiableSet;
 
 /**
  *
  */
 public class CategoryService implements CategoryConfigurer, CategoryResolver
 {
-	private final NodePathValueHolder<String[]> nodePathCategories = NodePathValueHolder.of(String[].class);
-	private final Map<Class<?>, String[]> typeCategories = new HashMap<Class<?>, String[]>();
+	private static final NodePathTrie.Compiler<String[], Set<String>> ACCUMULATED_CATEGORIES = new NodePathTrie.Compiler<String[], Set<String>>()
+	{
+		public Set<String> valueFor(final ValueNode<String[]> rule)
+		{
+			final Set<String> categories = new HashSet<String>();
+			for (ValueNode<String[]> node = rule; node != null; node = node.getParent())
+			{
+				if (node.hasValue())
+				{
+					categories.addAll(asList(node.getValue()));
+				}
+			}
+			return unmodifiableSet(categories);
+		}
+
+		public Set<String> valueBelow(final ValueNode<String[]> rule)
+		{
+			return valueFor(rule);
+		}
+	};
+
+	private final ValueNode<String[]> nodePathCategoryRules;
+	private final Map<Class<?>, String[]> typeCategories;
 	private final ObjectDifferBuilder objectDifferBuilder;
+	private NodePathTrie<Set<String>> nodePathCategories;
 
 	public CategoryService(final ObjectDifferBuilder objectDifferBuilder)
 	{
 		this.objectDifferBuilder = objectDifferBuilder;
+		this.nodePathCategoryRules = new ValueNode<String[]>();
+		this.typeCategories = new HashMap<Class<?>, String[]>();
+		this.nodePathCategories = NodePathTrie.empty();
+	}
+
+	private CategoryService(final ObjectDifferBuilder objectDifferBuilder,
+							final ValueNode<String[]> nodePathCategoryRules,
+							final NodePathTrie<Set<String>> nodePathCategories,
+							final Map<Class<?>, String[]> typeCategories)
+	{
+		this.objectDifferBuilder = objectDifferBuilder;
+		this.nodePathCategoryRules = nodePathCategoryRules;
+		this.nodePathCategories = nodePathCategories;
+		this.typeCategories = typeCategories;
+	}
+
+	/**
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service.
+	 */
+	public CategoryService snapshot()
+	{
+		return new CategoryService(objectDifferBuilder,
+				nodePathCategoryRules.copy(),
+				nodePathCategories(),
+				unmodifiableMap(new HashMap<Class<?>, String[]>(typeCategories)));
 	}
 
 	public Set<String> resolveCategories(final DiffNode node)
@@ -57,13 +106,21 @@ public class CategoryService implements CategoryConfigurer, CategoryResolver
 
 	private Collection<String> categoriesFromNodePathConfiguration(final DiffNode node)
 	{
-		final Collection<String> allCategories = new HashSet<String>();
-		final List<String[]> accumulatedValues = nodePathCategories.accumulatedValuesForNodePath(node.getPath());
-		for (final String[] categoriesForElement : accumulatedValues)
+		final Set<String> categories = nodePathCategories().valueForNodePath(node.getPath());
+		if (categories != null)
+		{
+			return categories;
+		}
+		return emptySet();
+	}
+
+	private NodePathTrie<Set<String>> nodePathCategories()
+	{
+		if (nodePathCategories == null)
 		{
-			allCategories.addAll(asList(categoriesForElement));
+			nodePathCategories = NodePathTrie.compile(nodePathCategoryRules, ACCUMULATED_CATEGORIES);
 		}
-		return allCategories;
+		return nodePathCategories;
 	}
 
 	private Collection<String> categoriesFromTypeConfiguration(final DiffNode node)
@@ -91,7 +148,8 @@ public class CategoryService implements CategoryConfigurer, CategoryResolver
 		{
 			public CategoryConfigurer toBe(final String... categories)
 			{
-				nodePathCategories.put(nodePath, categories);
+				nodePathCategoryRules.getNodeForPath(nodePath).setValue(categories);
+				nodePathCategories = null;
 				return CategoryService.this;
 			}
 		};
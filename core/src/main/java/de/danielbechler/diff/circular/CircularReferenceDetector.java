@@ -119,6 +119,19 @@ public class CircularReferenceDetector
 		return stack.size();
 	}
 
+	/**
+	 * Pushes all instances known to this detector to the given one, in the same order they have been pushed to this
+	 * one. This way a comparison can continue along multiple branches, each with a detector of its own.
+	 */
+	public void copyTo(final CircularReferenceDetector detector)
+	{
+		Assert.notNull(detector, "detector");
+		for (final Entry entry : stack)
+		{
+			detector.push(entry.getInstance(), entry.getNodePath());
+		}
+	}
+
 	public static enum ReferenceMatchingMode
 	{
 		/**
@@ -46,6 +46,21 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 		this.objectDifferBuilder = objectDifferBuilder;
 	}
 
+	private CircularReferenceService(final CircularReferenceService circularReferenceService)
+	{
+		this.objectDifferBuilder = circularReferenceService.objectDifferBuilder;
+		this.circularReferenceMatchingMode = circularReferenceService.circularReferenceMatchingMode;
+		this.circularReferenceExceptionHandler = circularReferenceService.circularReferenceExceptionHandler;
+	}
+
+	/**
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service.
+	 */
+	public CircularReferenceService snapshot()
+	{
+		return new CircularReferenceService(this);
+	}
+
 	public CircularReferenceConfigurer matchCircularReferencesUsing(final CircularReferenceMatchingMode matchingMode)
 	{
 		this.circularReferenceMatchingMode = matchingMode;
@@ -67,11 +82,11 @@ public class CircularReferenceService implements CircularReferenceConfigurer, Ci
 	{
 		if (circularReferenceMatchingMode == CircularReferenceMatchingMode.EQUALS_METHOD)
 		{
-			return new CircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD);
+			return new IndexedCircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD);
 		}
 		else if (circularReferenceMatchingMode == CircularReferenceMatchingMode.EQUALITY_OPERATOR)
 		{
-			return new CircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR);
+			return new IndexedCircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR);
 		}
 		throw new IllegalStateException();
 	}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.circular;
+
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.util.Assert;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * A {@link CircularReferenceDetector} that keeps the known instances in a hash map beside the stack, so looking them
+ * up doesn't depend on the depth of the object graph. Depending on the {@link ReferenceMatchingMode} the instances
+ * are kept in an {@link IdentityHashMap} or, in case of {@link ReferenceMatchingMode#EQUALS_METHOD EQUALS_METHOD},
+ * in a regular {@link HashMap}, which requires the <code>hashCode</code> of the instances to be consistent with
+ * their <code>equals</code> method.
+ * <p/>
+ * The lookups bypass {@link #isMatch(Object, Object)}, so subclasses that need custom matching should extend the
+ * plain {@link CircularReferenceDetector} instead.
+ *
+ * @author Daniel Bechler
+ */
+public class IndexedCircularReferenceDetector extends CircularReferenceDetector
+{
+	/**
+	 * It would be better to use <code>java.util.Deque</code> instead of the linked list, but that was first
+	 * introduced in Java 6 and would break compatibility with Java 5.
+	 */
+	@SuppressWarnings("TypeMayBeWeakened")
+	private final LinkedList<Object> stack = new LinkedList<Object>();
+	private final Map<Object, NodePath> nodePathsByInstance;
+
+	public IndexedCircularReferenceDetector(final ReferenceMatchingMode referenceMatchingMode)
+	{
+		super(referenceMatchingMode);
+		if (referenceMatchingMode == ReferenceMatchingMode.EQUALS_METHOD)
+		{
+			nodePathsByInstance = new HashMap<Object, NodePath>();
+		}
+		else
+		{
+			nodePathsByInstance = new IdentityHashMap<Object, NodePath>();
+		}
+	}
+
+	@Override
+	public void push(final Object instance, final NodePath nodePath)
+	{
+		if (instance == null)
+		{
+			return;
+		}
+		if (nodePathsByInstance.containsKey(instance))
+		{
+			throw new CircularReferenceException(nodePathsByInstance.get(instance));
+		}
+		nodePathsByInstance.put(instance, nodePath);
+		stack.addLast(instance);
+	}
+
+	@Override
+	public boolean knows(final Object needle)
+	{
+		return needle != null && nodePathsByInstance.containsKey(needle);
+	}
+
+	@Override
+	public void remove(final Object instance)
+	{
+		if (instance == null)
+		{
+			return;
+		}
+		if (!stack.isEmpty() && isMatch(instance, stack.getLast()))
+		{
+			nodePathsByInstance.remove(stack.removeLast());
+		}
+		else
+		{
+			throw new IllegalArgumentException("Detected inconsistency in enter/leave sequence. Must always be LIFO.");
+		}
+	}
+
+	@Override
+	public int size()
+	{
+		return stack.size();
+	}
+
+	@Override
+	public void copyTo(final CircularReferenceDetector detector)
+	{
+		Assert.notNull(detector, "detector");
+		for (final Object instance : stack)
+		{
+			detector.push(instance, nodePathsByInstance.get(instance));
+		}
+	}
+}
@@ -17,63 +17,138 @@
 package de.danielbechler.diff.comparison;
 
 import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.access.PropertyAwareAccessor;
 import de.danielbechler.diff.introspection.ObjectDiffEqualsOnlyType;
 import de.danielbechler.diff.introspection.ObjectDiffProperty;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
-import de.danielbechler.diff.path.NodePathValueHolder;
+import de.danielbechler.diff.path.NodePathTrie;
+import de.danielbechler.diff.path.ValueNode;
 import de.danielbechler.util.Classes;
 
 import java.util.HashMap;
 import java.util.Map;
 
-public class ComparisonService implements ComparisonConfigurer, ComparisonStrategyResolver, PrimitiveDefaultValueModeResolver
+import static java.util.Collections.unmodifiableMap;
+
+public class ComparisonService implements ComparisonConfigurer, PropertyComparisonStrategyResolver, PrimitiveDefaultValueModeResolver
 {
 	private static final ComparisonStrategy COMPARABLE_COMPARISON_STRATEGY = new ComparableComparisonStrategy();
 	private static final ComparisonStrategy EQUALS_ONLY_COMPARISON_STRATEGY = new EqualsOnlyComparisonStrategy();
 
-	private final NodePathValueHolder<ComparisonStrategy> nodePathComparisonStrategies = NodePathValueHolder.of(ComparisonStrategy.class);
-	private final Map<Class<?>, ComparisonStrategy> typeComparisonStrategyMap = new HashMap<Class<?>, ComparisonStrategy>();
+	private final ValueNode<ComparisonStrategy> nodePathComparisonStrategyRules;
+	private final Map<Class<?>, ComparisonStrategy> typeComparisonStrategyMap;
 	private final ObjectDifferBuilder objectDifferBuilder;
 
+	private NodePathTrie<ComparisonStrategy> nodePathComparisonStrategies = NodePathTrie.empty();
 	private PrimitiveDefaultValueMode primitiveDefaultValueMode = PrimitiveDefaultValueMode.UNASSIGNED;
 
 	public ComparisonService(final ObjectDifferBuilder objectDifferBuilder)
 	{
 		this.objectDifferBuilder = objectDifferBuilder;
+		this.nodePathComparisonStrategyRules = new ValueNode<ComparisonStrategy>();
+		this.typeComparisonStrategyMap = new HashMap<Class<?>, ComparisonStrategy>();
+	}
+
+	private ComparisonService(final ComparisonService comparisonService)
+	{
+		this.objectDifferBuilder = comparisonService.objectDifferBuilder;
+		this.nodePathComparisonStrategyRules = comparisonService.nodePathComparisonStrategyRules.copy();
+		this.nodePathComparisonStrategies = comparisonService.nodePathComparisonStrategies();
+		this.typeComparisonStrategyMap = unmodifiableMap(new HashMap<Class<?>, ComparisonStrategy>(comparisonService.typeComparisonStrategyMap));
+		this.primitiveDefaultValueMode = comparisonService.primitiveDefaultValueMode;
+	}
+
+	/**
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service.
+	 */
+	public ComparisonService snapshot()
+	{
+		return new ComparisonService(this);
+	}
+
+	private NodePathTrie<ComparisonStrategy> nodePathComparisonStrategies()
+	{
+		if (nodePathComparisonStrategies == null)
+		{
+			nodePathComparisonStrategies = NodePathTrie.compile(nodePathComparisonStrategyRules);
+		}
+		return nodePathComparisonStrategies;
 	}
 
 	public ComparisonStrategy resolveComparisonStrategy(final DiffNode node)
 	{
-		final ComparisonStrategy comparisonStrategy = nodePathComparisonStrategies.valueForNodePath(node.getPath());
+		final ComparisonStrategy comparisonStrategy = resolveNodePathComparisonStrategy(node);
 		if (comparisonStrategy != null)
 		{
 			return comparisonStrategy;
 		}
 
 		final Class<?> valueType = node.getValueType();
+		if (isResolvedByType(valueType))
+		{
+			return resolveTypeComparisonStrategy(valueType);
+		}
+
+		ObjectDiffProperty objectDiffProperty = node.getPropertyAnnotation(ObjectDiffProperty.class);
+		if (objectDiffProperty == null)
+		{
+			// the annotation may also be placed on the backing field, in which case the getter's one takes precedence
+			objectDiffProperty = node.getFieldAnnotation(ObjectDiffProperty.class);
+		}
+		return resolveAnnotationComparisonStrategy(valueType, objectDiffProperty);
+	}
+
+	public ComparisonStrategy resolveNodePathComparisonStrategy(final DiffNode node)
+	{
+		return nodePathComparisonStrategies().valueForNodePath(node.getPath());
+	}
+
+	public ComparisonStrategy resolvePropertyComparisonStrategy(final Class<?> valueType,
+																final PropertyAwareAccessor accessor)
+	{
+		if (isResolvedByType(valueType))
+		{
+			return resolveTypeComparisonStrategy(valueType);
+		}
+
+		ObjectDiffProperty objectDiffProperty = accessor.getReadMethodAnnotation(ObjectDiffProperty.class);
+		if (objectDiffProperty == null)
+		{
+			objectDiffProperty = accessor.getFieldAnnotation(ObjectDiffProperty.class);
+		}
+		return resolveAnnotationComparisonStrategy(valueType, objectDiffProperty);
+	}
+
+	private boolean isResolvedByType(final Class<?> valueType)
+	{
+		return typeComparisonStrategyMap.containsKey(valueType) || Classes.isSimpleType(valueType);
+	}
+
+	private ComparisonStrategy resolveTypeComparisonStrategy(final Class<?> valueType)
+	{
 		if (typeComparisonStrategyMap.containsKey(valueType))
 		{
 			return typeComparisonStrategyMap.get(valueType);
 		}
 
-		if (Classes.isSimpleType(valueType))
+		// if the simple type implements comparable we use that, since its contract
+		// dictates that compareTo == zero carries the same semantics as equals
+		if (Classes.isComparableType(valueType))
 		{
-			// if the simple type implements comparable we use that, since its contract
-			// dictates that compareTo == zero carries the same semantics as equals
-			if (Classes.isComparableType(valueType))
-			{
-				return COMPARABLE_COMPARISON_STRATEGY;
-			}
-			else
-			{
-				return EQUALS_ONLY_COMPARISON_STRATEGY;
-			}
+			return COMPARABLE_COMPARISON_STRATEGY;
+		}
+		else
+		{
+			return EQUALS_ONLY_COMPARISON_STRATEGY;
 		}
+	}
 
+	private static ComparisonStrategy resolveAnnotationComparisonStrategy(final Class<?> valueType,
+																		  final ObjectDiffProperty objectDiffProperty)
+	{
 		final ObjectDiffPropertyComparisonStrategyResolver comparisonStrategyResolver = ObjectDiffPropertyComparisonStrategyResolver.instance;
 
-		final ObjectDiffProperty objectDiffProperty = node.getPropertyAnnotation(ObjectDiffProperty.class);
 		final ComparisonStrategy comparisonStrategyFromObjectDiffPropertyAnnotation = comparisonStrategyResolver.comparisonStrategyForAnnotation(objectDiffProperty);
 		if (comparisonStrategyFromObjectDiffPropertyAnnotation != null)
 		{
@@ -163,7 +238,8 @@ public class ComparisonService implements ComparisonConfigurer, ComparisonStrate
 
 		public ComparisonConfigurer toUse(final ComparisonStrategy comparisonStrategy)
 		{
-			nodePathComparisonStrategies.put(nodePath, comparisonStrategy);
+			nodePathComparisonStrategyRules.getNodeForPath(nodePath).setValue(comparisonStrategy);
+			nodePathComparisonStrategies = null;
 			return ComparisonService.this;
 		}
 	}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.comparison;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.node.DiffNode;
+
+/**
+ * A {@link ComparisonStrategyResolver} that resolves the strategies configured for node paths separately from all
+ * others. The latter only depend on the type of a value and the property it has been read from, so they can be
+ * resolved once per property and type, instead of once per node.
+ *
+ * @author Daniel Bechler
+ */
+public interface PropertyComparisonStrategyResolver extends ComparisonStrategyResolver
+{
+	/**
+	 * @return The comparison strategy configured for the path of the given node or <code>null</code>.
+	 */
+	ComparisonStrategy resolveNodePathComparisonStrategy(DiffNode node);
+
+	/**
+	 * @param valueType The type of the value to compare.
+	 * @param accessor  The accessor used to read the value.
+	 * @return The comparison strategy for the value, unless one has been configured for the path of its node, or
+	 * <code>null</code> if the value should be introspected.
+	 */
+	ComparisonStrategy resolvePropertyComparisonStrategy(Class<?> valueType, PropertyAwareAccessor accessor);
+}
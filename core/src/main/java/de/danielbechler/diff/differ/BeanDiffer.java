@@ -0,0 +1,230 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.comparison.PropertyComparisonStrategyResolver;
+import de.danielbechler.diff.filtering.IsReturnableResolver;
+import de.danielbechler.diff.inclusion.PropertyInclusionResolver;
+import de.danielbechler.diff.introspection.IsIntrospectableResolver;
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.diff.introspection.TypeInfoResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.WeakIdentityMap;
+
+/**
+ * Used to find differences between objects that were not handled by one of the other (specialized) {@link
+ * Differ Differs}.
+ *
+ * @author Daniel Bechler
+ */
+public final class BeanDiffer implements Differ
+{
+	private final IsIntrospectableResolver isIntrospectableResolver;
+	private final IsReturnableResolver isReturnableResolver;
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+	private final DifferDispatcher differDispatcher;
+	private final TypeInfoResolver typeInfoResolver;
+	private final PropertyInclusionResolver propertyInclusionResolver;
+	private final WeakIdentityMap<TypeInfo, BeanPlan> beanPlans = new WeakIdentityMap<TypeInfo, BeanPlan>();
+
+	public BeanDiffer(final DifferDispatcher differDispatcher,
+					  final IsIntrospectableResolver introspectableResolver,
+					  final IsReturnableResolver returnableResolver,
+					  final ComparisonStrategyResolver comparisonStrategyResolver,
+					  final TypeInfoResolver typeInfoResolver)
+	{
+		this(differDispatcher, introspectableResolver, returnableResolver, comparisonStrategyResolver, typeInfoResolver, null);
+	}
+
+	/**
+	 * @param propertyInclusionResolver Optional resolver used to decide once per type which properties are ignored,
+	 *                                  instead of asking the {@link DifferDispatcher} to do so for every single
+	 *                                  property node.
+	 */
+	public BeanDiffer(final DifferDispatcher differDispatcher,
+					  final IsIntrospectableResolver introspectableResolver,
+					  final IsReturnableResolver returnableResolver,
+					  final ComparisonStrategyResolver comparisonStrategyResolver,
+					  final TypeInfoResolver typeInfoResolver,
+					  final PropertyInclusionResolver propertyInclusionResolver)
+	{
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(introspectableResolver, "introspectableResolver");
+		this.isIntrospectableResolver = introspectableResolver;
+
+		Assert.notNull(returnableResolver, "returnableResolver");
+		this.isReturnableResolver = returnableResolver;
+
+		Assert.notNull(comparisonStrategyResolver, "comparisonStrategyResolver");
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+
+		Assert.notNull(typeInfoResolver, "typeInfoResolver");
+		this.typeInfoResolver = typeInfoResolver;
+
+		this.propertyInclusionResolver = propertyInclusionResolver;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		return !type.isPrimitive() && !type.isArray();
+	}
+
+	public final DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		return compare(parentNode, instances, null);
+	}
+
+	/**
+	 * @param step The planned property the instances have been read from or <code>null</code>.
+	 */
+	DiffNode compare(final DiffNode parentNode, final Instances instances, final PropertyStep step)
+	{
+		final DiffNode beanNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		if (instances.areNull() || instances.areSame())
+		{
+			beanNode.setState(DiffNode.State.UNTOUCHED);
+		}
+		else if (instances.hasBeenAdded())
+		{
+			compareUsingAppropriateMethod(beanNode, instances, step);
+			beanNode.setState(DiffNode.State.ADDED);
+		}
+		else if (instances.hasBeenRemoved())
+		{
+			compareUsingAppropriateMethod(beanNode, instances, step);
+			beanNode.setState(DiffNode.State.REMOVED);
+		}
+		else
+		{
+			compareUsingAppropriateMethod(beanNode, instances, step);
+		}
+		return beanNode;
+	}
+
+	private void compareUsingAppropriateMethod(final DiffNode beanNode, final Instances instances, final PropertyStep step)
+	{
+		final ComparisonStrategy comparisonStrategy = comparisonStrategyOf(beanNode, step);
+		if (comparisonStrategy != null)
+		{
+			comparisonStrategy.compare(beanNode, instances.getType(), instances.getWorking(), instances.getBase());
+		}
+		else if (isIntrospectableResolver.isIntrospectable(beanNode))
+		{
+			compareUsingIntrospection(beanNode, instances);
+		}
+	}
+
+	private ComparisonStrategy comparisonStrategyOf(final DiffNode beanNode, final PropertyStep step)
+	{
+		if (step != null && comparisonStrategyResolver instanceof PropertyComparisonStrategyResolver)
+		{
+			final PropertyComparisonStrategyResolver resolver = (PropertyComparisonStrategyResolver) comparisonStrategyResolver;
+			final ComparisonStrategy nodePathComparisonStrategy = resolver.resolveNodePathComparisonStrategy(beanNode);
+			if (nodePathComparisonStrategy != null)
+			{
+				return nodePathComparisonStrategy;
+			}
+			return step.comparisonStrategyFor(beanNode.getValueType(), resolver);
+		}
+		return comparisonStrategyResolver.resolveComparisonStrategy(beanNode);
+	}
+
+	private void compareUsingIntrospection(final DiffNode beanNode, final Instances beanInstances)
+	{
+		final TypeInfo typeInfo = typeInfoResolver.typeInfoForNode(beanNode);
+		beanNode.setValueTypeInfo(typeInfo);
+		final PropertyStep[] propertySteps = planOf(typeInfo);
+		if (differDispatcher.isBeanForkable(beanInstances, propertySteps.length))
+		{
+			differDispatcher.dispatchForked(beanNode, beanInstances, propertySteps);
+			return;
+		}
+		for (final PropertyStep propertyStep : propertySteps)
+		{
+			final DiffNode propertyNode = differDispatcher.dispatch(beanNode, beanInstances, propertyStep);
+			if (isReturnableResolver.isReturnable(propertyNode))
+			{
+				DifferDispatcher.attach(beanNode, propertyNode, beanInstances.getContext());
+			}
+		}
+	}
+
+	/**
+	 * The plan is compiled once per {@link TypeInfo} and cached without locking. Since the cache only holds weak
+	 * references to the type infos, the plan goes away along with its type info. It gets compiled again, if the
+	 * properties of the type info or the ignored properties resolved for it have changed in the meantime.
+	 * <p/>
+	 * The steps of the plan remember the {@link Differ} and {@link ComparisonStrategy} of their properties, which
+	 * assumes that the configuration of the resolvers doesn't change anymore. That's the case for the ones passed in
+	 * by the {@link de.danielbechler.diff.ObjectDifferBuilder}.
+	 */
+	private PropertyStep[] planOf(final TypeInfo typeInfo)
+	{
+		final boolean[] ignoredProperties = ignoredPropertiesOf(typeInfo);
+		final BeanPlan cachedBeanPlan = beanPlans.get(typeInfo);
+		if (cachedBeanPlan != null && cachedBeanPlan.isUpToDate(typeInfo, ignoredProperties))
+		{
+			return cachedBeanPlan.steps;
+		}
+		final BeanPlan beanPlan = new BeanPlan(typeInfo, ignoredProperties);
+		beanPlans.put(typeInfo, beanPlan);
+		return beanPlan.steps;
+	}
+
+	private boolean[] ignoredPropertiesOf(final TypeInfo typeInfo)
+	{
+		if (propertyInclusionResolver != null)
+		{
+			return propertyInclusionResolver.resolveIgnoredProperties(typeInfo);
+		}
+		return null;
+	}
+
+	/**
+	 * Must not reference its {@link TypeInfo}, since that is the key it is cached by.
+	 */
+	private static final class BeanPlan
+	{
+		private final PropertyStep[] steps;
+		private final boolean[] ignoredProperties;
+
+		private BeanPlan(final TypeInfo typeInfo, final boolean[] ignoredProperties)
+		{
+			final PropertyAwareAccessor[] accessors = typeInfo.getAccessors().toArray(new PropertyAwareAccessor[typeInfo.getAccessors().size()]);
+			final boolean resolvedIgnoredProperties = ignoredProperties != null && ignoredProperties.length == accessors.length;
+			this.steps = new PropertyStep[accessors.length];
+			for (int i = 0; i < accessors.length; i++)
+			{
+				final Boolean ignored = resolvedIgnoredProperties ? Boolean.valueOf(ignoredProperties[i]) : null;
+				this.steps[i] = new PropertyStep(accessors[i], ignored);
+			}
+			this.ignoredProperties = ignoredProperties;
+		}
+
+		private boolean isUpToDate(final TypeInfo typeInfo, final boolean[] ignoredProperties)
+		{
+			return this.ignoredProperties == ignoredProperties && steps.length == typeInfo.getAccessors().size();
+		}
+	}
+}
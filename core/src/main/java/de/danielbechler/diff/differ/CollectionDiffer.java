@@ -18,17 +18,22 @@ package de.danielbechler.diff.differ;
 
 import de.danielbechler.diff.access.Accessor;
 import de.danielbechler.diff.access.CollectionItemAccessor;
+import de.danielbechler.diff.access.CollectionItemIndex;
 import de.danielbechler.diff.access.Instances;
 import de.danielbechler.diff.comparison.ComparisonStrategy;
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.identity.HashingIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityIndex;
 import de.danielbechler.diff.identity.IdentityStrategy;
 import de.danielbechler.diff.identity.IdentityStrategyResolver;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.util.Assert;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 
 /**
  * Used to find differences between {@link Collection Collections}.
@@ -69,16 +74,28 @@ public final class CollectionDiffer implements Differ
 		{
 			collectionNode.setChildIdentityStrategy(identityStrategy);
 		}
+		final CollectionItemIndex itemIndex = newItemIndex(identityStrategy);
+		compare(collectionNode, collectionInstances, identityStrategy, itemIndex);
+		return collectionNode;
+	}
+
+	private void compare(final DiffNode collectionNode,
+						 final Instances collectionInstances,
+						 final IdentityStrategy identityStrategy,
+						 final CollectionItemIndex itemIndex)
+	{
 		if (collectionInstances.hasBeenAdded())
 		{
 			final Collection addedItems = collectionInstances.getWorking(Collection.class);
-			compareItems(collectionNode, collectionInstances, addedItems, identityStrategy);
+			indexItems(itemIndex, addedItems);
+			compareItems(collectionNode, collectionInstances, addedItems, identityStrategy, itemIndex);
 			collectionNode.setState(DiffNode.State.ADDED);
 		}
 		else if (collectionInstances.hasBeenRemoved())
 		{
 			final Collection<?> removedItems = collectionInstances.getBase(Collection.class);
-			compareItems(collectionNode, collectionInstances, removedItems, identityStrategy);
+			indexItems(itemIndex, removedItems);
+			compareItems(collectionNode, collectionInstances, removedItems, identityStrategy, itemIndex);
 			collectionNode.setState(DiffNode.State.REMOVED);
 		}
 		else if (collectionInstances.areSame())
@@ -90,14 +107,35 @@ public final class CollectionDiffer implements Differ
 			final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(collectionNode);
 			if (comparisonStrategy == null)
 			{
-				compareInternally(collectionNode, collectionInstances, identityStrategy);
+				compareInternally(collectionNode, collectionInstances, identityStrategy, itemIndex);
 			}
 			else
 			{
 				compareUsingComparisonStrategy(collectionNode, collectionInstances, comparisonStrategy);
 			}
 		}
-		return collectionNode;
+	}
+
+	/**
+	 * The item index allows the {@link CollectionItemAccessor CollectionItemAccessors} to find their items without
+	 * scanning the whole collection, but requires an identity strategy that supports hashing. It is shared by the
+	 * accessors of all items, so it keeps serving them after the comparison, e.g. while merging.
+	 */
+	private static CollectionItemIndex newItemIndex(final IdentityStrategy identityStrategy)
+	{
+		if (identityStrategy instanceof HashingIdentityStrategy)
+		{
+			return new CollectionItemIndex((HashingIdentityStrategy) identityStrategy);
+		}
+		return null;
+	}
+
+	private static void indexItems(final CollectionItemIndex itemIndex, final Collection<?> items)
+	{
+		if (itemIndex != null)
+		{
+			itemIndex.index(items);
+		}
 	}
 
 	private static DiffNode newNode(final DiffNode parentNode,
@@ -110,35 +148,95 @@ public final class CollectionDiffer implements Differ
 
 	private void compareItems(final DiffNode collectionNode,
 							  final Instances collectionInstances,
-							  final Iterable<?> items,
-							  final IdentityStrategy identityStrategy)
+							  final Collection<?> items,
+							  final IdentityStrategy identityStrategy,
+							  final CollectionItemIndex itemIndex)
 	{
+		if (items.size() > 1 && differDispatcher.isForkable(collectionInstances, items.size()))
+		{
+			final Accessor[] itemAccessors = new Accessor[items.size()];
+			int i = 0;
+			for (final Object item : items)
+			{
+				itemAccessors[i++] = new CollectionItemAccessor(item, identityStrategy, itemIndex);
+			}
+			differDispatcher.dispatchForked(collectionNode, collectionInstances, itemAccessors);
+			return;
+		}
 		for (final Object item : items)
 		{
-			final Accessor itemAccessor = new CollectionItemAccessor(item, identityStrategy);
+			final Accessor itemAccessor = new CollectionItemAccessor(item, identityStrategy, itemIndex);
 			differDispatcher.dispatch(collectionNode, collectionInstances, itemAccessor);
 		}
 	}
 
 	private void compareInternally(final DiffNode collectionNode,
 								   final Instances collectionInstances,
-								   final IdentityStrategy identityStrategy)
+								   final IdentityStrategy identityStrategy,
+								   final CollectionItemIndex itemIndex)
 	{
 		final Collection<?> working = collectionInstances.getWorking(Collection.class);
 		final Collection<?> base = collectionInstances.getBase(Collection.class);
 
-		final Iterable<?> added = new LinkedList<Object>(working);
-		final Iterable<?> removed = new LinkedList<Object>(base);
-		final Iterable<?> known = new LinkedList<Object>(base);
+		if (itemIndex != null)
+		{
+			compareUsingItemIndex(collectionNode, collectionInstances, working, base, identityStrategy, itemIndex);
+			return;
+		}
+
+		final Collection<?> added = new LinkedList<Object>(working);
+		final Collection<?> removed = new LinkedList<Object>(base);
+		final Collection<?> known = new LinkedList<Object>(base);
 
 		remove(added, base, identityStrategy);
 		remove(removed, working, identityStrategy);
 		remove(known, added, identityStrategy);
 		remove(known, removed, identityStrategy);
 
-		compareItems(collectionNode, collectionInstances, added, identityStrategy);
-		compareItems(collectionNode, collectionInstances, removed, identityStrategy);
-		compareItems(collectionNode, collectionInstances, known, identityStrategy);
+		compareItems(collectionNode, collectionInstances, added, identityStrategy, null);
+		compareItems(collectionNode, collectionInstances, removed, identityStrategy, null);
+		compareItems(collectionNode, collectionInstances, known, identityStrategy, null);
+	}
+
+	/**
+	 * Partitions the items just like {@link #compareInternally} does, but matches them via hash lookups, which makes
+	 * it run in linear instead of quadratic time.
+	 */
+	private void compareUsingItemIndex(final DiffNode collectionNode,
+									   final Instances collectionInstances,
+									   final Collection<?> working,
+									   final Collection<?> base,
+									   final IdentityStrategy identityStrategy,
+									   final CollectionItemIndex itemIndex)
+	{
+		final IdentityIndex workingIndex = itemIndex.index(working);
+		final IdentityIndex baseIndex = itemIndex.index(base);
+
+		final List<Object> added = new ArrayList<Object>();
+		for (final Object item : working)
+		{
+			if (!baseIndex.contains(item))
+			{
+				added.add(item);
+			}
+		}
+		final List<Object> removed = new ArrayList<Object>();
+		final List<Object> known = new ArrayList<Object>();
+		for (final Object item : base)
+		{
+			if (workingIndex.contains(item))
+			{
+				known.add(item);
+			}
+			else
+			{
+				removed.add(item);
+			}
+		}
+
+		compareItems(collectionNode, collectionInstances, added, identityStrategy, itemIndex);
+		compareItems(collectionNode, collectionInstances, removed, identityStrategy, itemIndex);
+		compareItems(collectionNode, collectionInstances, known, identityStrategy, itemIndex);
 	}
 
 	private static void compareUsingComparisonStrategy(final DiffNode collectionNode,
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2012 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.circular.CircularReferenceDetector;
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory;
+import de.danielbechler.diff.node.DiffListener;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.Classes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the state of a single comparison, like the instances that are currently being compared. A new context is
+ * created for every call to {@link de.danielbechler.diff.ObjectDiffer#compare(Object, Object)} and travels along
+ * with the {@link de.danielbechler.diff.access.Instances Instances} that get passed to each {@link Differ}. This way
+ * comparisons don't depend on the thread they are running on and nested comparisons don't interfere with each other.
+ *
+ * @author Daniel Bechler
+ */
+public class DiffContext
+{
+	private final CircularReferenceDetectorFactory circularReferenceDetectorFactory;
+	private final CircularReferenceDetector workingCircularReferenceDetector;
+	private final CircularReferenceDetector baseCircularReferenceDetector;
+	private final boolean stopAtFirstDifference;
+	private final DiffListener listener;
+	private final Map<Class<?>, Object> freshInstances = new HashMap<Class<?>, Object>();
+	private NodePath firstDifference;
+
+	public DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory)
+	{
+		this(circularReferenceDetectorFactory, false, null);
+	}
+
+	/**
+	 * @param stopAtFirstDifference Whether the comparison should be cut short as soon as the first difference has
+	 *                              been found.
+	 */
+	public DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+					   final boolean stopAtFirstDifference)
+	{
+		this(circularReferenceDetectorFactory, stopAtFirstDifference, null);
+	}
+
+	/**
+	 * @param listener Receives the results of the comparison instead of the {@link DiffNode} tree.
+	 */
+	public DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+					   final DiffListener listener)
+	{
+		this(circularReferenceDetectorFactory, false, listener);
+		Assert.notNull(listener, "listener");
+	}
+
+	private DiffContext(final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+						final boolean stopAtFirstDifference,
+						final DiffListener listener)
+	{
+		Assert.notNull(circularReferenceDetectorFactory, "circularReferenceDetectorFactory");
+		this.circularReferenceDetectorFactory = circularReferenceDetectorFactory;
+		this.workingCircularReferenceDetector = circularReferenceDetectorFactory.createCircularReferenceDetector();
+		this.baseCircularReferenceDetector = circularReferenceDetectorFactory.createCircularReferenceDetector();
+		this.stopAtFirstDifference = stopAtFirstDifference;
+		this.listener = listener;
+	}
+
+	/**
+	 * @return The detector that keeps track of the working instances on the current path.
+	 */
+	public CircularReferenceDetector getWorkingCircularReferenceDetector()
+	{
+		return workingCircularReferenceDetector;
+	}
+
+	/**
+	 * @return The detector that keeps track of the base instances on the current path.
+	 */
+	public CircularReferenceDetector getBaseCircularReferenceDetector()
+	{
+		return baseCircularReferenceDetector;
+	}
+
+	/**
+	 * Creates a context for a branch of the comparison that continues on another thread. The new context knows the
+	 * same instances as this one, so circular references back to the current path are still detected, but any
+	 * instances remembered from now on are only known to the context they have been remembered by.
+	 *
+	 * @throws IllegalStateException if this context stops at the first difference or passes the results to a
+	 *                               listener, since those depend on the order in which the nodes are compared.
+	 */
+	public DiffContext fork()
+	{
+		if (stopAtFirstDifference || listener != null)
+		{
+			throw new IllegalStateException("Only contexts that build a node tree can be forked");
+		}
+		final DiffContext branch = new DiffContext(circularReferenceDetectorFactory);
+		workingCircularReferenceDetector.copyTo(branch.workingCircularReferenceDetector);
+		baseCircularReferenceDetector.copyTo(branch.baseCircularReferenceDetector);
+		return branch;
+	}
+
+	/**
+	 * Creates the fresh (default) instance of the given type only once per comparison. It is never shared with other
+	 * comparisons or other branches of this one, since (lazily initializing) getters may modify it.
+	 *
+	 * @return The fresh instance of the given type or <code>null</code>, if it has no default constructor.
+	 */
+	public Object freshInstanceOf(final Class<?> type)
+	{
+		if (freshInstances.containsKey(type))
+		{
+			return freshInstances.get(type);
+		}
+		final Object freshInstance = Classes.freshInstanceOf(type);
+		freshInstances.put(type, freshInstance);
+		return freshInstance;
+	}
+
+	public boolean isStopAtFirstDifference()
+	{
+		return stopAtFirstDifference;
+	}
+
+	/**
+	 * @return <code>true</code> if the comparison should stop at the first difference and that difference has
+	 * already been found.
+	 */
+	public boolean isStopped()
+	{
+		return firstDifference != null;
+	}
+
+	/**
+	 * Remembers the path of the given node, if it is the first one that has been added, removed, changed or moved.
+	 * Does nothing unless this context has been created to stop at the first difference.
+	 */
+	public void recordDifference(final DiffNode node)
+	{
+		if (stopAtFirstDifference && firstDifference == null && isDifference(node.getState()))
+		{
+			firstDifference = node.getPath();
+		}
+	}
+
+	static boolean isDifference(final DiffNode.State state)
+	{
+		return state == DiffNode.State.ADDED
+				|| state == DiffNode.State.REMOVED
+				|| state == DiffNode.State.CHANGED
+				|| state == DiffNode.State.MOVED;
+	}
+
+	/**
+	 * @return The path of the first difference or <code>null</code> if none has been found (yet).
+	 */
+	public NodePath getFirstDifference()
+	{
+		return firstDifference;
+	}
+
+	/**
+	 * @return The listener that receives the results of the comparison or <code>null</code>, if the comparison
+	 * builds a {@link DiffNode} tree instead.
+	 */
+	public DiffListener getListener()
+	{
+		return listener;
+	}
+
+	/**
+	 * @return <code>true</code> if the nodes created during the comparison are supposed to be added to their
+	 * parents. This is not the case when the results are passed to a {@link DiffListener}.
+	 */
+	public boolean isRetainingNodes()
+	{
+		return listener == null;
+	}
+}
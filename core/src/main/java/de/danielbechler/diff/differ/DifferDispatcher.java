@@ -0,0 +1,700 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Accessor;
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.introspection.PropertyReadException;
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory;
+import de.danielbechler.diff.circular.CircularReferenceExceptionHandler;
+import de.danielbechler.diff.filtering.IsReturnableResolver;
+import de.danielbechler.diff.inclusion.IsIgnoredResolver;
+import de.danielbechler.diff.introspection.PropertyAccessExceptionHandler;
+import de.danielbechler.diff.introspection.PropertyAccessExceptionHandlerResolver;
+import de.danielbechler.diff.node.DiffListener;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.parallel.ParallelismResolver;
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.diff.selector.ListItemElementSelector;
+import de.danielbechler.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+import static de.danielbechler.diff.circular.CircularReferenceDetector.CircularReferenceException;
+
+/**
+ * @author Daniel Bechler
+ */
+public class DifferDispatcher
+{
+	private static final Logger logger = LoggerFactory.getLogger(DifferDispatcher.class);
+	private final DifferProvider differProvider;
+	private final CircularReferenceDetectorFactory circularReferenceDetectorFactory;
+	private final CircularReferenceExceptionHandler circularReferenceExceptionHandler;
+	private final IsIgnoredResolver isIgnoredResolver;
+	private final IsReturnableResolver isReturnableResolver;
+	private final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver;
+	private final ParallelismResolver parallelismResolver;
+	private final ThreadLocal<DiffContext> detachedContexts = new ThreadLocal<DiffContext>();
+
+	public DifferDispatcher(final DifferProvider differProvider,
+							final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+							final CircularReferenceExceptionHandler circularReferenceExceptionHandler,
+							final IsIgnoredResolver ignoredResolver,
+							final IsReturnableResolver returnableResolver,
+							final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver)
+	{
+		this(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, ignoredResolver,
+				returnableResolver, propertyAccessExceptionHandlerResolver, null);
+	}
+
+	/**
+	 * @param parallelismResolver Decides whether the children of a node may be compared in parallel. May be
+	 *                            <code>null</code>, in which case everything is compared on the calling thread.
+	 */
+	public DifferDispatcher(final DifferProvider differProvider,
+							final CircularReferenceDetectorFactory circularReferenceDetectorFactory,
+							final CircularReferenceExceptionHandler circularReferenceExceptionHandler,
+							final IsIgnoredResolver ignoredResolver,
+							final IsReturnableResolver returnableResolver,
+							final PropertyAccessExceptionHandlerResolver propertyAccessExceptionHandlerResolver,
+							final ParallelismResolver parallelismResolver)
+	{
+		Assert.notNull(differProvider, "differFactory");
+		this.differProvider = differProvider;
+
+		Assert.notNull(ignoredResolver, "ignoredResolver");
+		this.isIgnoredResolver = ignoredResolver;
+
+		this.circularReferenceDetectorFactory = circularReferenceDetectorFactory;
+		this.circularReferenceExceptionHandler = circularReferenceExceptionHandler;
+		this.isReturnableResolver = returnableResolver;
+		this.propertyAccessExceptionHandlerResolver = propertyAccessExceptionHandlerResolver;
+		this.parallelismResolver = parallelismResolver;
+	}
+
+	/**
+	 * @return A fresh context for a new comparison.
+	 */
+	public DiffContext newDiffContext()
+	{
+		return new DiffContext(circularReferenceDetectorFactory);
+	}
+
+	/**
+	 * @param stopAtFirstDifference Whether comparisons using this context should stop dispatching as soon as the
+	 *                              first difference has been found.
+	 */
+	public DiffContext newDiffContext(final boolean stopAtFirstDifference)
+	{
+		return new DiffContext(circularReferenceDetectorFactory, stopAtFirstDifference);
+	}
+
+	/**
+	 * @param listener Receives the results of comparisons using this context, instead of a {@link DiffNode} tree.
+	 */
+	public DiffContext newDiffContext(final DiffListener listener)
+	{
+		return new DiffContext(circularReferenceDetectorFactory, listener);
+	}
+
+	/**
+	 * Resets the instance memory of the calling thread. It is only used for instances that don't belong to a
+	 * comparison (e.g. because a custom {@link Differ} created them from scratch). Comparisons started via the
+	 * {@link de.danielbechler.diff.ObjectDiffer} keep their memory in their own {@link DiffContext}.
+	 */
+	public final void resetInstanceMemory()
+	{
+		detachedContexts.set(newDiffContext());
+	}
+
+	/**
+	 * Removes the instance memory of the calling thread.
+	 *
+	 * @see #resetInstanceMemory()
+	 */
+	public final void clearInstanceMemory()
+	{
+		detachedContexts.remove();
+	}
+
+	private DiffContext detachedContext()
+	{
+		DiffContext context = detachedContexts.get();
+		if (context == null)
+		{
+			context = newDiffContext();
+			detachedContexts.set(context);
+		}
+		return context;
+	}
+
+	/**
+	 * Delegates the call to an appropriate {@link Differ}. Instances that don't belong to a comparison yet (e.g.
+	 * because a custom {@link Differ} created them from scratch) use the instance memory of the calling thread.
+	 *
+	 * @return A node representing the difference between the given {@link Instances}.
+	 */
+	public DiffNode dispatch(final DiffNode parentNode,
+							 final Instances parentInstances,
+							 final Accessor accessor)
+	{
+		return dispatch(parentNode, parentInstances, accessor, null);
+	}
+
+	/**
+	 * Works like {@link #dispatch(DiffNode, Instances, Accessor)}, but uses what the given step of a bean plan
+	 * already knows about the accessed property, instead of resolving it again for every node.
+	 */
+	DiffNode dispatch(final DiffNode parentNode,
+					  final Instances parentInstances,
+					  final PropertyStep step)
+	{
+		Assert.notNull(step, "step");
+		return dispatch(parentNode, parentInstances, step.accessor, step);
+	}
+
+	private DiffNode dispatch(final DiffNode parentNode,
+							  final Instances parentInstances,
+							  final Accessor accessor,
+							  final PropertyStep step)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+		Assert.notNull(accessor, "accessor");
+
+		final DiffContext context = parentInstances.getContext();
+		if (context != null && context.isStopped())
+		{
+			return new DiffNode(parentNode, accessor, null);
+		}
+		final DiffNode node = dispatchDetached(parentNode, parentInstances, accessor, step, context);
+		if (parentNode != null && isReturnableResolver.isReturnable(node))
+		{
+			attach(parentNode, node, context);
+		}
+		return node;
+	}
+
+	/**
+	 * Compares the given instances just like {@link #dispatch(DiffNode, Instances, Accessor)}, but doesn't add the
+	 * resulting node to its parent.
+	 */
+	private DiffNode dispatchDetached(final DiffNode parentNode,
+									  final Instances parentInstances,
+									  final Accessor accessor,
+									  final PropertyStep step,
+									  final DiffContext context)
+	{
+		final DiffNode node;
+		if (context == null)
+		{
+			final DiffContext detachedContext = detachedContext();
+			node = compare(parentNode, parentInstances.withContext(detachedContext), accessor, step, detachedContext);
+			if (parentNode == null)
+			{
+				resetInstanceMemory();
+			}
+		}
+		else
+		{
+			node = compare(parentNode, parentInstances, accessor, step, context);
+		}
+		if (context != null && context.isStopAtFirstDifference() && isReturnableResolver.isReturnable(node))
+		{
+			context.recordDifference(node);
+		}
+		return node;
+	}
+
+	/**
+	 * @param elementCount The number of items or entries of the collection or map represented by the given
+	 *                     instances.
+	 * @return Whether {@link #dispatchForked(DiffNode, Instances, Accessor[])} should be used to compare
+	 * the children. That's only the case if an {@link Executor} has been configured, the number of children reaches
+	 * the configured threshold and the comparison builds a regular node tree.
+	 */
+	public boolean isForkable(final Instances parentInstances, final int elementCount)
+	{
+		return !isParallelismDisabled()
+				&& isForkable(parentInstances, elementCount, parallelismResolver.getForkThreshold());
+	}
+
+	/**
+	 * Works like {@link #isForkable(Instances, int)} for the properties of a bean, which have a threshold of their
+	 * own.
+	 */
+	boolean isBeanForkable(final Instances beanInstances, final int propertyCount)
+	{
+		return !isParallelismDisabled()
+				&& isForkable(beanInstances, propertyCount, parallelismResolver.getBeanForkThreshold());
+	}
+
+	private boolean isForkable(final Instances parentInstances, final int elementCount, final int forkThreshold)
+	{
+		final DiffContext context = parentInstances.getContext();
+		return context != null
+				&& context.isRetainingNodes()
+				&& !context.isStopAtFirstDifference()
+				&& elementCount >= Math.max(2, forkThreshold)
+				&& parallelismResolver.getMaxPartitionCount() >= 2;
+	}
+
+	private boolean isParallelismDisabled()
+	{
+		return parallelismResolver == null || parallelismResolver.getExecutor() == null;
+	}
+
+	/**
+	 * Dispatches the given accessors by splitting them into contiguous partitions, which are compared concurrently
+	 * using the configured {@link Executor}. The last partition is always compared on the calling thread. Each
+	 * partition gets a {@link DiffContext#fork() fork} of the current context, so circular references are detected
+	 * just like they would be, if everything happened sequentially. Once all partitions are done, the resulting
+	 * nodes are added to the parent node in the order of the given accessors.
+	 *
+	 * @return The nodes for each accessor, in the same order.
+	 */
+	public DiffNode[] dispatchForked(final DiffNode parentNode,
+									 final Instances parentInstances,
+									 final Accessor[] accessors)
+	{
+		Assert.notNull(accessors, "accessors");
+		return dispatchForked(parentNode, parentInstances, accessors, null);
+	}
+
+	/**
+	 * Works like {@link #dispatchForked(DiffNode, Instances, Accessor[])} for the steps of a bean plan.
+	 */
+	DiffNode[] dispatchForked(final DiffNode parentNode,
+							  final Instances parentInstances,
+							  final PropertyStep[] steps)
+	{
+		Assert.notNull(steps, "steps");
+		final Accessor[] accessors = new Accessor[steps.length];
+		for (int i = 0; i < steps.length; i++)
+		{
+			accessors[i] = steps[i].accessor;
+		}
+		return dispatchForked(parentNode, parentInstances, accessors, steps);
+	}
+
+	private DiffNode[] dispatchForked(final DiffNode parentNode,
+									  final Instances parentInstances,
+									  final Accessor[] accessors,
+									  final PropertyStep[] steps)
+	{
+		Assert.notNull(parentInstances, "parentInstances");
+
+		final DiffContext context = parentInstances.getContext();
+		final DiffNode[] nodes = new DiffNode[accessors.length];
+		if (parentNode != null)
+		{
+			// the path gets cached lazily, so it needs to be resolved before other threads start asking for it
+			parentNode.getPath();
+		}
+
+		final int partitionCount = Math.min(accessors.length, parallelismResolver.getMaxPartitionCount());
+		final FutureTask<?>[] tasks = new FutureTask<?>[partitionCount - 1];
+		final Executor executor = parallelismResolver.getExecutor();
+		boolean joined = false;
+		try
+		{
+			for (int partition = 0; partition < tasks.length; partition++)
+			{
+				final int from = partitionStart(partition, partitionCount, accessors.length);
+				final int to = partitionStart(partition + 1, partitionCount, accessors.length);
+				final DiffContext branch = context.fork();
+				final Runnable comparison = new Runnable()
+				{
+					public void run()
+					{
+						dispatchRange(parentNode, parentInstances.withContext(branch), accessors, steps, nodes, from, to);
+					}
+				};
+				tasks[partition] = new FutureTask<Object>(comparison, null);
+				try
+				{
+					executor.execute(tasks[partition]);
+				}
+				catch (final RejectedExecutionException e)
+				{
+					logger.debug("Executor rejected comparison of partition {}. Comparing it on the calling thread.", partition);
+				}
+			}
+			dispatchRange(parentNode, parentInstances, accessors, steps, nodes,
+					partitionStart(partitionCount - 1, partitionCount, accessors.length), accessors.length);
+			for (final FutureTask<?> task : tasks)
+			{
+				join(task);
+			}
+			joined = true;
+		}
+		finally
+		{
+			if (!joined)
+			{
+				// nobody is going to wait for the remaining partitions anymore, so the ones that haven't been
+				// started yet don't need to run at all
+				for (final FutureTask<?> task : tasks)
+				{
+					if (task != null)
+					{
+						task.cancel(false);
+					}
+				}
+			}
+		}
+
+		for (final DiffNode node : nodes)
+		{
+			if (parentNode != null && isReturnableResolver.isReturnable(node))
+			{
+				attach(parentNode, node, context);
+			}
+		}
+		return nodes;
+	}
+
+	private static int partitionStart(final int partition, final int partitionCount, final int elementCount)
+	{
+		return (int) ((long) partition * elementCount / partitionCount);
+	}
+
+	private void dispatchRange(final DiffNode parentNode,
+							   final Instances parentInstances,
+							   final Accessor[] accessors,
+							   final PropertyStep[] steps,
+							   final DiffNode[] nodes,
+							   final int from,
+							   final int to)
+	{
+		final DiffContext context = parentInstances.getContext();
+		for (int i = from; i < to; i++)
+		{
+			final PropertyStep step = steps != null ? steps[i] : null;
+			nodes[i] = dispatchDetached(parentNode, parentInstances, accessors[i], step, context);
+		}
+	}
+
+	private static void join(final FutureTask<?> task)
+	{
+		// runs the task on the calling thread, in case the executor didn't get to it yet (or rejected it)
+		task.run();
+		try
+		{
+			task.get();
+		}
+		catch (final InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a parallel comparison to finish", e);
+		}
+		catch (final ExecutionException e)
+		{
+			final Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException)
+			{
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error)
+			{
+				throw (Error) cause;
+			}
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	/**
+	 * Adds the given node to its parent, unless the context doesn't retain nodes. In that case only the effect the
+	 * child has on the state of its parent is applied.
+	 */
+	static void attach(final DiffNode parentNode, final DiffNode node, final DiffContext context)
+	{
+		if (context == null || context.isRetainingNodes())
+		{
+			parentNode.addChild(node);
+		}
+		else if (parentNode.isUntouched() && node.hasChanges())
+		{
+			parentNode.setState(DiffNode.State.CHANGED);
+		}
+	}
+
+	private DiffNode compare(final DiffNode parentNode,
+							 final Instances parentInstances,
+							 final Accessor accessor,
+							 final PropertyStep step,
+							 final DiffContext context)
+	{
+		final Boolean ignored = step != null ? step.ignored : null;
+		// the node is only created up front if it is needed to resolve the inclusion, otherwise it is created
+		// lazily, since most properties end up being compared by a differ that creates a node of its own
+		DiffNode node = null;
+		if (ignored == null)
+		{
+			node = new DiffNode(parentNode, accessor, null);
+		}
+		if (ignored != null ? ignored : isIgnoredResolver.isIgnored(node))
+		{
+			if (node == null)
+			{
+				node = new DiffNode(parentNode, accessor, null);
+			}
+			node.setState(DiffNode.State.IGNORED);
+			return node;
+		}
+
+		final Instances accessedInstances;
+		if (accessor instanceof PropertyAwareAccessor)
+		{
+			final PropertyAwareAccessor propertyAwareAccessor = (PropertyAwareAccessor) accessor;
+			try
+			{
+				accessedInstances = parentInstances.access(accessor);
+			}
+			catch (final PropertyReadException e)
+			{
+				if (node == null)
+				{
+					node = new DiffNode(parentNode, accessor, null);
+				}
+				node.setState(DiffNode.State.INACCESSIBLE);
+				final Class<?> parentType = parentInstances.getType();
+				final String propertyName = propertyAwareAccessor.getPropertyName();
+				final PropertyAccessExceptionHandler exceptionHandler = propertyAccessExceptionHandlerResolver
+						.resolvePropertyAccessExceptionHandler(parentType, propertyName);
+				if (exceptionHandler != null)
+				{
+					exceptionHandler.onPropertyReadException(e, node);
+				}
+				return node;
+			}
+		}
+		else
+		{
+			accessedInstances = parentInstances.access(accessor);
+		}
+
+		if (accessedInstances.areNull())
+		{
+			if (node == null)
+			{
+				return new DiffNode(parentNode, accessedInstances.getSourceAccessor(), accessedInstances.getType());
+			}
+			node.setType(accessedInstances.getType());
+			return node;
+		}
+		else if (context.getListener() != null)
+		{
+			return compareAndNotify(parentNode, accessedInstances, step, context.getListener());
+		}
+		else
+		{
+			return compareWithCircularReferenceTracking(parentNode, accessedInstances, step);
+		}
+	}
+
+	private DiffNode compareAndNotify(final DiffNode parentNode,
+									  final Instances instances,
+									  final PropertyStep step,
+									  final DiffListener listener)
+	{
+		final NodePath nodePath = nodePathOf(parentNode, instances);
+		listener.onEnter(nodePath, instances.getType());
+		final DiffNode node = compareWithCircularReferenceTracking(parentNode, instances, step);
+		if (DiffContext.isDifference(node.getState()) && isReturnableResolver.isReturnable(node))
+		{
+			listener.onChange(nodePath, node.getState(), instances.getWorking(), instances.getBase());
+		}
+		listener.onLeave(nodePath);
+		return node;
+	}
+
+	private DiffNode compareWithCircularReferenceTracking(final DiffNode parentNode,
+														  final Instances instances,
+														  final PropertyStep step)
+	{
+		DiffNode node = null;
+		try
+		{
+			// the instances carry the context, so the deprecated hooks still get called for subclasses overriding them
+			rememberInstances(parentNode, instances);
+			try
+			{
+				node = compare(parentNode, instances, step);
+				markIfMoved(node);
+			}
+			finally
+			{
+				if (node != null)
+				{
+					forgetInstances(parentNode, instances);
+				}
+			}
+		}
+		catch (final CircularReferenceException e)
+		{
+			node = newCircularNode(parentNode, instances, e.getNodePath());
+			circularReferenceExceptionHandler.onCircularReferenceException(node);
+		}
+		return node;
+	}
+
+	/**
+	 * Items of ordered lists that only changed their position end up in state {@link DiffNode.State#MOVED MOVED}.
+	 * This needs to be decided before anyone gets to see the node, be it the parent, the listener or the search for
+	 * the first difference.
+	 */
+	private static void markIfMoved(final DiffNode node)
+	{
+		if (node == null)
+		{
+			return;
+		}
+		final ElementSelector elementSelector = node.getElementSelector();
+		if (elementSelector instanceof ListItemElementSelector
+				&& ((ListItemElementSelector) elementSelector).isMoved()
+				&& node.isUntouched()
+				&& !node.hasChildren())
+		{
+			node.setState(DiffNode.State.MOVED);
+		}
+	}
+
+	private DiffNode compare(final DiffNode parentNode, final Instances instances, final PropertyStep step)
+	{
+		final Differ differ;
+		if (step != null)
+		{
+			differ = step.differFor(instances.getType(), differProvider);
+		}
+		else
+		{
+			differ = differProvider.retrieveDifferForType(instances.getType());
+		}
+		if (differ == null)
+		{
+			throw new IllegalStateException("Couldn't create Differ for type '" + instances.getType() +
+					"'. This mustn't happen, as there should always be a fallback differ.");
+		}
+		if (step != null && differ instanceof BeanDiffer)
+		{
+			return ((BeanDiffer) differ).compare(parentNode, instances, step);
+		}
+		return differ.compare(parentNode, instances);
+	}
+
+	private static NodePath nodePathOf(final DiffNode parentNode, final Instances instances)
+	{
+		if (parentNode != null)
+		{
+			final NodePath parentPath = parentNode.getPath();
+			final ElementSelector elementSelector = instances.getSourceAccessor().getElementSelector();
+			return NodePath.startBuildingFrom(parentPath).element(elementSelector).build();
+		}
+		else
+		{
+			return NodePath.withRoot();
+		}
+	}
+
+	/**
+	 * @deprecated Override {@link #forgetInstances(DiffNode, Instances, DiffContext)} instead.
+	 */
+	@Deprecated
+	protected void forgetInstances(final DiffNode parentNode, final Instances instances)
+	{
+		forgetInstances(parentNode, instances, instances.getContext());
+	}
+
+	protected void forgetInstances(final DiffNode parentNode, final Instances instances, final DiffContext context)
+	{
+		if (logger.isDebugEnabled())
+		{
+			final NodePath nodePath = nodePathOf(parentNode, instances);
+			logger.debug("[ {} ] Forgetting --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
+		}
+		context.getWorkingCircularReferenceDetector().remove(instances.getWorking());
+		context.getBaseCircularReferenceDetector().remove(instances.getBase());
+	}
+
+	/**
+	 * @deprecated Override {@link #rememberInstances(DiffNode, Instances, DiffContext)} instead.
+	 */
+	@Deprecated
+	protected void rememberInstances(final DiffNode parentNode, final Instances instances)
+	{
+		rememberInstances(parentNode, instances, instances.getContext());
+	}
+
+	protected void rememberInstances(final DiffNode parentNode, final Instances instances, final DiffContext context)
+	{
+		final NodePath nodePath = nodePathOf(parentNode, instances);
+		logger.debug("[ {} ] Remembering --- WORKING: {} <=> BASE: {}", nodePath, instances.getWorking(), instances.getBase());
+
+		transactionalPushToCircularReferenceDetectors(nodePath, instances, context);
+	}
+
+	private static void transactionalPushToCircularReferenceDetectors(final NodePath nodePath,
+																	   final Instances instances,
+																	   final DiffContext context)
+	{
+		context.getWorkingCircularReferenceDetector().push(instances.getWorking(), nodePath);
+
+		// TODO This needs to be solved more elegantly. If the push for one of these detectors fails,
+		// we need to make sure to revert the push to the other one, if it already happened.
+		try
+		{
+			context.getBaseCircularReferenceDetector().push(instances.getBase(), nodePath);
+		}
+		catch (final CircularReferenceException e)
+		{
+			context.getWorkingCircularReferenceDetector().remove(instances.getWorking()); // rollback
+			throw e;
+		}
+	}
+
+	private static DiffNode findNodeMatchingPropertyPath(final DiffNode node, final NodePath nodePath)
+	{
+		if (node == null)
+		{
+			return null;
+		}
+		if (node.matches(nodePath))
+		{
+			return node;
+		}
+		return findNodeMatchingPropertyPath(node.getParentNode(), nodePath);
+	}
+
+	private static DiffNode newCircularNode(final DiffNode parentNode,
+											final Instances instances,
+											final NodePath circleStartPath)
+	{
+		final DiffNode node = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		node.setState(DiffNode.State.CIRCULAR);
+		node.setCircleStartPath(circleStartPath);
+		node.setCircleStartNode(findNodeMatchingPropertyPath(parentNode, circleStartPath));
+		return node;
+	}
+}
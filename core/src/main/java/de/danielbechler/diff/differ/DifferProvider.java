@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.util.WeakIdentityMap;
+
+/**
+ * Keeps track of the available {@link Differ Differs} and finds the right one for a given type. Differs that have
+ * been pushed later take precedence. The differ resolved for a type gets cached until the next push, without keeping
+ * the type alive. Once the provider has been frozen, no more differs can be pushed.
+ *
+ * @author Daniel Bechler
+ */
+public class DifferProvider
+{
+	private static final Differ[] NO_DIFFERS = new Differ[0];
+
+	private final WeakIdentityMap<Class<?>, Differ> differsByType = new WeakIdentityMap<Class<?>, Differ>();
+	private volatile Differ[] differs = NO_DIFFERS;
+	private volatile boolean frozen;
+
+	public synchronized void push(final Differ differ)
+	{
+		if (frozen)
+		{
+			throw new IllegalStateException("Differs cannot be pushed once the DifferProvider has been frozen");
+		}
+		final Differ[] newDiffers = new Differ[differs.length + 1];
+		newDiffers[0] = differ;
+		System.arraycopy(differs, 0, newDiffers, 1, differs.length);
+		differs = newDiffers;
+		differsByType.clear();
+	}
+
+	/**
+	 * Prevents further changes to the chain of differs.
+	 */
+	public void freeze()
+	{
+		frozen = true;
+	}
+
+	public boolean isFrozen()
+	{
+		return frozen;
+	}
+
+	public Differ retrieveDifferForType(final Class<?> type)
+	{
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Missing 'type'");
+		}
+		final Differ cachedDiffer = differsByType.get(type);
+		if (cachedDiffer != null)
+		{
+			return cachedDiffer;
+		}
+		final Differ[] differs = this.differs;
+		for (final Differ differ : differs)
+		{
+			if (differ.accepts(type))
+			{
+				if (differs == this.differs)
+				{
+					differsByType.put(type, differ);
+				}
+				return differ;
+			}
+		}
+		throw new IllegalStateException("Couldn't find a differ for type: " + type.getName());
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.NodeQueryService;
+import de.danielbechler.diff.access.Accessor;
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.ListItemAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.identity.EqualsIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityStrategy;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.selector.ListItemElementSelector;
+import de.danielbechler.util.Assert;
+
+import java.util.Collections;
+import java.util.List;
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX;
+
+/**
+ * Used to find differences between {@link List Lists}, when the order of their items matters. Other than the {@link
+ * CollectionDiffer}, which treats lists like bags, this differ matches the items by their position and reports
+ * insertions, deletions and moves via {@link ListItemElementSelector ListItemElementSelectors}. Items that changed
+ * their position but are otherwise identical end up in state {@link DiffNode.State#MOVED MOVED}.
+ * <p/>
+ * This differ isn't active by default. It can be registered via {@link ListDifferFactory}.
+ *
+ * @author Daniel Bechler
+ */
+public final class ListDiffer implements Differ
+{
+	private final DifferDispatcher differDispatcher;
+	private final NodeQueryService nodeQueryService;
+
+	public ListDiffer(final DifferDispatcher differDispatcher, final NodeQueryService nodeQueryService)
+	{
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+
+		Assert.notNull(nodeQueryService, "nodeQueryService");
+		this.nodeQueryService = nodeQueryService;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		return List.class.isAssignableFrom(type);
+	}
+
+	public DiffNode compare(final DiffNode parentNode, final Instances listInstances)
+	{
+		final DiffNode listNode = new DiffNode(parentNode, listInstances.getSourceAccessor(), listInstances.getType());
+		final IdentityStrategy identityStrategy = resolveIdentityStrategy(listNode);
+		final List<?> working = listInstances.getWorking(List.class);
+		final List<?> base = listInstances.getBase(List.class);
+		if (listInstances.hasBeenAdded())
+		{
+			compareItems(listNode, listInstances, working, Collections.emptyList(), identityStrategy);
+			listNode.setState(DiffNode.State.ADDED);
+		}
+		else if (listInstances.hasBeenRemoved())
+		{
+			compareItems(listNode, listInstances, Collections.emptyList(), base, identityStrategy);
+			listNode.setState(DiffNode.State.REMOVED);
+		}
+		else if (listInstances.areSame())
+		{
+			listNode.setState(DiffNode.State.UNTOUCHED);
+		}
+		else
+		{
+			final ComparisonStrategy comparisonStrategy = nodeQueryService.resolveComparisonStrategy(listNode);
+			if (comparisonStrategy == null)
+			{
+				compareItems(listNode, listInstances, working, base, identityStrategy);
+			}
+			else
+			{
+				comparisonStrategy.compare(listNode, listInstances.getType(), working, base);
+			}
+		}
+		return listNode;
+	}
+
+	private IdentityStrategy resolveIdentityStrategy(final DiffNode listNode)
+	{
+		final IdentityStrategy identityStrategy = nodeQueryService.resolveIdentityStrategy(listNode);
+		if (identityStrategy != null)
+		{
+			listNode.setChildIdentityStrategy(identityStrategy);
+			return identityStrategy;
+		}
+		return EqualsIdentityStrategy.getInstance();
+	}
+
+	/**
+	 * Dispatches the items in the order of the working list, followed by the items that have been deleted from the
+	 * base list.
+	 */
+	private void compareItems(final DiffNode listNode,
+							  final Instances listInstances,
+							  final List<?> working,
+							  final List<?> base,
+							  final IdentityStrategy identityStrategy)
+	{
+		final ListItemMatcher matcher = new ListItemMatcher(base, working, identityStrategy);
+		for (int workingIndex = 0; workingIndex < working.size(); workingIndex++)
+		{
+			final int baseIndex = matcher.baseIndexOf(workingIndex);
+			final boolean moved = baseIndex != NO_INDEX && matcher.isMoved(baseIndex);
+			compareItem(listNode, listInstances, working, base, new ListItemElementSelector(baseIndex, workingIndex, moved));
+		}
+		for (int baseIndex = 0; baseIndex < base.size(); baseIndex++)
+		{
+			if (matcher.workingIndexOf(baseIndex) == NO_INDEX)
+			{
+				compareItem(listNode, listInstances, working, base, new ListItemElementSelector(baseIndex, NO_INDEX, false));
+			}
+		}
+		if (listNode.isUntouched() && listNode.hasChanges())
+		{
+			listNode.setState(DiffNode.State.CHANGED);
+		}
+	}
+
+	private void compareItem(final DiffNode listNode,
+							 final Instances listInstances,
+							 final List<?> working,
+							 final List<?> base,
+							 final ListItemElementSelector elementSelector)
+	{
+		final Accessor itemAccessor = new ListItemAccessor(working, base, elementSelector);
+		differDispatcher.dispatch(listNode, listInstances, itemAccessor);
+	}
+}
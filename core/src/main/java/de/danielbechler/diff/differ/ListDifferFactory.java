@@ -1,5 +1,5 @@
 /*
- * Copyright 2013 Daniel Bechler
+ * Copyright 2015 Daniel Bechler
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,37 +13,24 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
 package de.danielbechler.diff.differ;
 
-import java.util.LinkedList;
-import java.util.List;
+import de.danielbechler.diff.NodeQueryService;
 
 /**
+ * Registers the {@link ListDiffer}, which takes the order of list items into account:
+ * <pre>
+ * ObjectDifferBuilder.startBuilding()
+ *     .differs().register(new ListDifferFactory())
+ *     .build();
+ * </pre>
+ *
  * @author Daniel Bechler
  */
-public class DifferProvider
+public class ListDifferFactory implements DifferFactory
 {
-	private final List<Differ> differs = new LinkedList<Differ>();
-
-	public void push(final Differ differ)
-	{
-		differs.add(0, differ);
-	}
-
-	public Differ retrieveDifferForType(final Class<?> type)
+	public Differ createDiffer(final DifferDispatcher differDispatcher, final NodeQueryService nodeQueryService)
 	{
-		if (type == null)
-		{
-			throw new IllegalArgumentException("Missing 'type'");
-		}
-		for (final Differ differ : differs)
-		{
-			if (differ.accepts(type))
-			{
-				return differ;
-			}
-		}
-		throw new IllegalStateException("Couldn't find a differ for type: " + type.getName());
+		return new ListDiffer(differDispatcher, nodeQueryService);
 	}
 }
@@ -0,0 +1,321 @@
+/*
+ * Copyright 2015 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.identity.HashingIdentityStrategy;
+import de.danielbechler.diff.identity.IdentityIndex;
+import de.danielbechler.diff.identity.IdentityStrategy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX;
+
+/**
+ * Matches the items of two versions of a list, so that the number of insertions and deletions needed to get from
+ * the base to the working version is minimal. This is done via the linear space variant of the O(ND) difference
+ * algorithm by Eugene W. Myers, so it's fast for lists with few differences. Inserted items that match deleted ones
+ * are paired up afterwards and reported as moves.
+ *
+ * @author Daniel Bechler
+ */
+final class ListItemMatcher
+{
+	private final Object[] baseItems;
+	private final Object[] workingItems;
+	private final IdentityStrategy identityStrategy;
+	private final int[] baseToWorking;
+	private final int[] workingToBase;
+	private final boolean[] moved;
+
+	private int[] baseCandidates;
+	private int[] workingCandidates;
+
+	ListItemMatcher(final List<?> base, final List<?> working, final IdentityStrategy identityStrategy)
+	{
+		this.baseItems = base.toArray();
+		this.workingItems = working.toArray();
+		this.identityStrategy = identityStrategy;
+		this.baseToWorking = new int[baseItems.length];
+		this.workingToBase = new int[workingItems.length];
+		this.moved = new boolean[baseItems.length];
+		Arrays.fill(baseToWorking, NO_INDEX);
+		Arrays.fill(workingToBase, NO_INDEX);
+		selectCandidates();
+		matchCandidates(0, baseCandidates.length, 0, workingCandidates.length);
+		matchMovedItems();
+	}
+
+	/**
+	 * @return The position of the matching item in the working list or {@link
+	 * de.danielbechler.diff.selector.ListItemElementSelector#NO_INDEX NO_INDEX}, if the item has been deleted.
+	 */
+	int workingIndexOf(final int baseIndex)
+	{
+		return baseToWorking[baseIndex];
+	}
+
+	/**
+	 * @return The position of the matching item in the base list or {@link
+	 * de.danielbechler.diff.selector.ListItemElementSelector#NO_INDEX NO_INDEX}, if the item has been inserted.
+	 */
+	int baseIndexOf(final int workingIndex)
+	{
+		return workingToBase[workingIndex];
+	}
+
+	boolean isMoved(final int baseIndex)
+	{
+		return moved[baseIndex];
+	}
+
+	/**
+	 * Items without any counterpart in the other list can't be matched anyway. When hashing is available, they are
+	 * excluded upfront, which keeps the costs low even for lists that have nothing in common.
+	 */
+	private void selectCandidates()
+	{
+		if (identityStrategy instanceof HashingIdentityStrategy)
+		{
+			final HashingIdentityStrategy hashingIdentityStrategy = (HashingIdentityStrategy) identityStrategy;
+			baseCandidates = itemsContainedIn(baseItems, new IdentityIndex(Arrays.asList(workingItems), hashingIdentityStrategy));
+			workingCandidates = itemsContainedIn(workingItems, new IdentityIndex(Arrays.asList(baseItems), hashingIdentityStrategy));
+		}
+		else
+		{
+			baseCandidates = allIndexes(baseItems.length);
+			workingCandidates = allIndexes(workingItems.length);
+		}
+	}
+
+	private static int[] itemsContainedIn(final Object[] items, final IdentityIndex identityIndex)
+	{
+		final int[] indexes = new int[items.length];
+		int count = 0;
+		for (int i = 0; i < items.length; i++)
+		{
+			if (identityIndex.contains(items[i]))
+			{
+				indexes[count++] = i;
+			}
+		}
+		final int[] containedIndexes = new int[count];
+		System.arraycopy(indexes, 0, containedIndexes, 0, count);
+		return containedIndexes;
+	}
+
+	private static int[] allIndexes(final int length)
+	{
+		final int[] indexes = new int[length];
+		for (int i = 0; i < length; i++)
+		{
+			indexes[i] = i;
+		}
+		return indexes;
+	}
+
+	private boolean isMatch(final int baseCandidate, final int workingCandidate)
+	{
+		return identityStrategy.equals(workingItems[workingCandidates[workingCandidate]], baseItems[baseCandidates[baseCandidate]]);
+	}
+
+	private void match(final int baseCandidate, final int workingCandidate)
+	{
+		final int baseIndex = baseCandidates[baseCandidate];
+		final int workingIndex = workingCandidates[workingCandidate];
+		baseToWorking[baseIndex] = workingIndex;
+		workingToBase[workingIndex] = baseIndex;
+	}
+
+	private void matchCandidates(int baseStart, int baseEnd, int workingStart, int workingEnd)
+	{
+		while (baseStart < baseEnd && workingStart < workingEnd && isMatch(baseStart, workingStart))
+		{
+			match(baseStart++, workingStart++);
+		}
+		while (baseStart < baseEnd && workingStart < workingEnd && isMatch(baseEnd - 1, workingEnd - 1))
+		{
+			match(--baseEnd, --workingEnd);
+		}
+		if (baseStart == baseEnd || workingStart == workingEnd)
+		{
+			return;
+		}
+		// Once the common prefix and suffix are gone, at least two edits remain. The middle snake splits them
+		// between both halves, so each recursion deals with fewer edits.
+		final int[] snake = findMiddleSnake(baseStart, baseEnd, workingStart, workingEnd);
+		final int snakeStartX = snake[0];
+		final int snakeStartY = snake[1];
+		final int snakeEndX = snake[2];
+		final int snakeEndY = snake[3];
+		matchCandidates(baseStart, snakeStartX, workingStart, snakeStartY);
+		for (int x = snakeStartX, y = snakeStartY; x < snakeEndX; x++, y++)
+		{
+			match(x, y);
+		}
+		matchCandidates(snakeEndX, baseEnd, snakeEndY, workingEnd);
+	}
+
+	/**
+	 * @return The absolute start and end coordinates of the middle snake as <code>{startX, startY, endX,
+	 * endY}</code>.
+	 */
+	private int[] findMiddleSnake(final int baseStart, final int baseEnd, final int workingStart, final int workingEnd)
+	{
+		final int n = baseEnd - baseStart;
+		final int m = workingEnd - workingStart;
+		final int delta = n - m;
+		final boolean odd = (delta & 1) != 0;
+		final int max = (n + m + 1) / 2;
+		final int offset = max + 1;
+		final int[] forward = new int[2 * max + 3];
+		final int[] backward = new int[2 * max + 3];
+		for (int d = 0; d <= max; d++)
+		{
+			for (int k = -d; k <= d; k += 2)
+			{
+				int x;
+				if (k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1]))
+				{
+					x = forward[offset + k + 1];
+				}
+				else
+				{
+					x = forward[offset + k - 1] + 1;
+				}
+				int y = x - k;
+				final int startX = x;
+				final int startY = y;
+				while (x < n && y < m && isMatch(baseStart + x, workingStart + y))
+				{
+					x++;
+					y++;
+				}
+				forward[offset + k] = x;
+				final int reverseK = delta - k;
+				if (odd && reverseK >= -(d - 1) && reverseK <= d - 1 && x + backward[offset + reverseK] >= n)
+				{
+					return new int[]{baseStart + startX, workingStart + startY, baseStart + x, workingStart + y};
+				}
+			}
+			for (int k = -d; k <= d; k += 2)
+			{
+				int x;
+				if (k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1]))
+				{
+					x = backward[offset + k + 1];
+				}
+				else
+				{
+					x = backward[offset + k - 1] + 1;
+				}
+				int y = x - k;
+				final int startX = x;
+				final int startY = y;
+				while (x < n && y < m && isMatch(baseEnd - 1 - x, workingEnd - 1 - y))
+				{
+					x++;
+					y++;
+				}
+				backward[offset + k] = x;
+				final int forwardK = delta - k;
+				if (!odd && forwardK >= -d && forwardK <= d && x + forward[offset + forwardK] >= n)
+				{
+					return new int[]{baseEnd - x, workingEnd - y, baseEnd - startX, workingEnd - startY};
+				}
+			}
+		}
+		throw new IllegalStateException("Failed to find middle snake");
+	}
+
+	/**
+	 * Base items that have already been paired up keep their index in <code>baseToWorking</code>, which is how they
+	 * are told apart from the ones still waiting for a match. So no candidate ever needs to be removed.
+	 */
+	private void matchMovedItems()
+	{
+		if (identityStrategy instanceof HashingIdentityStrategy)
+		{
+			matchMovedItems((HashingIdentityStrategy) identityStrategy);
+			return;
+		}
+		final List<Integer> deletedIndexes = new ArrayList<Integer>();
+		for (int i = 0; i < baseItems.length; i++)
+		{
+			if (baseToWorking[i] == NO_INDEX)
+			{
+				deletedIndexes.add(i);
+			}
+		}
+		int unmatchedCount = deletedIndexes.size();
+		for (int j = 0; j < workingItems.length && unmatchedCount > 0; j++)
+		{
+			if (workingToBase[j] == NO_INDEX && matchMovedItem(j, deletedIndexes))
+			{
+				unmatchedCount--;
+			}
+		}
+	}
+
+	private void matchMovedItems(final HashingIdentityStrategy hashingIdentityStrategy)
+	{
+		final Map<Integer, List<Integer>> deletedIndexesByHash = new HashMap<Integer, List<Integer>>();
+		for (int i = 0; i < baseItems.length; i++)
+		{
+			if (baseToWorking[i] == NO_INDEX)
+			{
+				final Integer hashCode = hashingIdentityStrategy.hashCode(baseItems[i]);
+				List<Integer> deletedIndexes = deletedIndexesByHash.get(hashCode);
+				if (deletedIndexes == null)
+				{
+					deletedIndexes = new ArrayList<Integer>(1);
+					deletedIndexesByHash.put(hashCode, deletedIndexes);
+				}
+				deletedIndexes.add(i);
+			}
+		}
+		for (int j = 0; j < workingItems.length; j++)
+		{
+			if (workingToBase[j] == NO_INDEX)
+			{
+				final List<Integer> deletedIndexes = deletedIndexesByHash.get(hashingIdentityStrategy.hashCode(workingItems[j]));
+				if (deletedIndexes != null)
+				{
+					matchMovedItem(j, deletedIndexes);
+				}
+			}
+		}
+	}
+
+	private boolean matchMovedItem(final int workingIndex, final List<Integer> deletedIndexes)
+	{
+		for (int i = 0, size = deletedIndexes.size(); i < size; i++)
+		{
+			final int baseIndex = deletedIndexes.get(i);
+			if (baseToWorking[baseIndex] == NO_INDEX && identityStrategy.equals(workingItems[workingIndex], baseItems[baseIndex]))
+			{
+				baseToWorking[baseIndex] = workingIndex;
+				workingToBase[workingIndex] = baseIndex;
+				moved[baseIndex] = true;
+				return true;
+			}
+		}
+		return false;
+	}
+}
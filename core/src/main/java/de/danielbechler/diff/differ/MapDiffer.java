@@ -0,0 +1,235 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.Accessor;
+import de.danielbechler.diff.access.Instances;
+import de.danielbechler.diff.access.MapEntryAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.comparison.ComparisonStrategyResolver;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * Used to find differences between {@link Map Maps}
+ *
+ * @author Daniel Bechler
+ */
+public final class MapDiffer implements Differ
+{
+	private final ComparisonStrategyResolver comparisonStrategyResolver;
+	private final DifferDispatcher differDispatcher;
+
+	public MapDiffer(final DifferDispatcher differDispatcher, final ComparisonStrategyResolver comparisonStrategyResolver)
+	{
+		Assert.notNull(differDispatcher, "differDispatcher");
+		this.differDispatcher = differDispatcher;
+		this.comparisonStrategyResolver = comparisonStrategyResolver;
+	}
+
+	public boolean accepts(final Class<?> type)
+	{
+		if (type != null)
+		{
+			return Map.class.isAssignableFrom(type);
+		}
+		return false;
+	}
+
+	public final DiffNode compare(final DiffNode parentNode, final Instances instances)
+	{
+		final DiffNode mapNode = new DiffNode(parentNode, instances.getSourceAccessor(), instances.getType());
+		if (instances.hasBeenAdded())
+		{
+			compareEntries(mapNode, instances, instances.getWorking(Map.class).keySet());
+			mapNode.setState(DiffNode.State.ADDED);
+		}
+		else if (instances.hasBeenRemoved())
+		{
+			compareEntries(mapNode, instances, instances.getBase(Map.class).keySet());
+			mapNode.setState(DiffNode.State.REMOVED);
+		}
+		else if (instances.areSame())
+		{
+			mapNode.setState(DiffNode.State.UNTOUCHED);
+		}
+		else
+		{
+			final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolveComparisonStrategy(mapNode);
+			if (comparisonStrategy == null)
+			{
+				compareEntries(mapNode, instances, instances.getWorking(Map.class), instances.getBase(Map.class));
+			}
+			else
+			{
+				comparisonStrategy.compare(mapNode, instances.getType(), instances.getWorking(Map.class), instances.getBase(Map.class));
+			}
+		}
+		return mapNode;
+	}
+
+	/**
+	 * Dispatches the added entries first, followed by the removed and finally the known ones.
+	 */
+	private void compareEntries(final DiffNode mapNode,
+								final Instances mapInstances,
+								final Map<?, ?> working,
+								final Map<?, ?> base)
+	{
+		final List<Object> addedKeys = new ArrayList<Object>();
+		final List<Object> removedKeys = new ArrayList<Object>();
+		final List<Object> knownKeys = new ArrayList<Object>();
+		if (haveCompatibleOrder(working, base))
+		{
+			partitionSortedKeys((SortedMap<?, ?>) working, (SortedMap<?, ?>) base, addedKeys, removedKeys, knownKeys);
+		}
+		else
+		{
+			partitionKeys(working, base, addedKeys, removedKeys, knownKeys);
+		}
+		compareEntries(mapNode, mapInstances, addedKeys);
+		compareEntries(mapNode, mapInstances, removedKeys);
+		compareEntries(mapNode, mapInstances, knownKeys);
+	}
+
+	private static void partitionKeys(final Map<?, ?> working,
+									  final Map<?, ?> base,
+									  final Collection<Object> addedKeys,
+									  final Collection<Object> removedKeys,
+									  final Collection<Object> knownKeys)
+	{
+		for (final Object key : working.keySet())
+		{
+			if (base.containsKey(key))
+			{
+				knownKeys.add(key);
+			}
+			else
+			{
+				addedKeys.add(key);
+			}
+		}
+		for (final Object key : base.keySet())
+		{
+			if (!working.containsKey(key))
+			{
+				removedKeys.add(key);
+			}
+		}
+	}
+
+	/**
+	 * Two sorted maps can be partitioned by walking both key sets side by side, as long as they agree on the order
+	 * of their keys.
+	 */
+	private static boolean haveCompatibleOrder(final Map<?, ?> working, final Map<?, ?> base)
+	{
+		if (working instanceof SortedMap && base instanceof SortedMap)
+		{
+			final Comparator<?> workingComparator = ((SortedMap<?, ?>) working).comparator();
+			final Comparator<?> baseComparator = ((SortedMap<?, ?>) base).comparator();
+			return workingComparator == null ? baseComparator == null : workingComparator.equals(baseComparator);
+		}
+		return false;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void partitionSortedKeys(final SortedMap<?, ?> working,
+											final SortedMap<?, ?> base,
+											final Collection<Object> addedKeys,
+											final Collection<Object> removedKeys,
+											final Collection<Object> knownKeys)
+	{
+		final Comparator<Object> comparator = (Comparator<Object>) working.comparator();
+		final Iterator<?> workingKeys = working.keySet().iterator();
+		final Iterator<?> baseKeys = base.keySet().iterator();
+		// null is a legal key for maps with a comparator, so it can't be used to tell when an iterator is exhausted
+		boolean hasWorkingKey = workingKeys.hasNext();
+		boolean hasBaseKey = baseKeys.hasNext();
+		Object workingKey = hasWorkingKey ? workingKeys.next() : null;
+		Object baseKey = hasBaseKey ? baseKeys.next() : null;
+		while (hasWorkingKey && hasBaseKey)
+		{
+			final int comparison = comparator != null
+					? comparator.compare(workingKey, baseKey)
+					: ((Comparable<Object>) workingKey).compareTo(baseKey);
+			if (comparison < 0)
+			{
+				addedKeys.add(workingKey);
+				hasWorkingKey = workingKeys.hasNext();
+				workingKey = hasWorkingKey ? workingKeys.next() : null;
+			}
+			else if (comparison > 0)
+			{
+				removedKeys.add(baseKey);
+				hasBaseKey = baseKeys.hasNext();
+				baseKey = hasBaseKey ? baseKeys.next() : null;
+			}
+			else
+			{
+				knownKeys.add(workingKey);
+				hasWorkingKey = workingKeys.hasNext();
+				workingKey = hasWorkingKey ? workingKeys.next() : null;
+				hasBaseKey = baseKeys.hasNext();
+				baseKey = hasBaseKey ? baseKeys.next() : null;
+			}
+		}
+		if (hasWorkingKey)
+		{
+			addedKeys.add(workingKey);
+			while (workingKeys.hasNext())
+			{
+				addedKeys.add(workingKeys.next());
+			}
+		}
+		if (hasBaseKey)
+		{
+			removedKeys.add(baseKey);
+			while (baseKeys.hasNext())
+			{
+				removedKeys.add(baseKeys.next());
+			}
+		}
+	}
+
+	private void compareEntries(final DiffNode mapNode, final Instances mapInstances, final Collection<?> keys)
+	{
+		if (keys.size() > 1 && differDispatcher.isForkable(mapInstances, keys.size()))
+		{
+			final Accessor[] entryAccessors = new Accessor[keys.size()];
+			int i = 0;
+			for (final Object key : keys)
+			{
+				entryAccessors[i++] = new MapEntryAccessor(key);
+			}
+			differDispatcher.dispatchForked(mapNode, mapInstances, entryAccessors);
+			return;
+		}
+		for (final Object key : keys)
+		{
+			differDispatcher.dispatch(mapNode, mapInstances, new MapEntryAccessor(key));
+		}
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.comparison.ComparisonStrategy;
+import de.danielbechler.diff.comparison.PropertyComparisonStrategyResolver;
+
+/**
+ * One property of a compiled bean plan. Besides the accessor and whether the property is ignored, it remembers the
+ * {@link Differ} and {@link ComparisonStrategy} resolved for the type of the last value read from it. Properties
+ * almost always hold values of the same type, so both are usually resolved only once per property.
+ * <p/>
+ * The remembered results are replaced atomically, so steps can be shared by concurrent comparisons.
+ *
+ * @author Daniel Bechler
+ */
+final class PropertyStep
+{
+	final PropertyAwareAccessor accessor;
+	/**
+	 * Whether the property is ignored or <code>null</code> if that needs to be resolved for each node.
+	 */
+	final Boolean ignored;
+
+	private volatile Resolved<Differ> differ;
+	private volatile Resolved<ComparisonStrategy> comparisonStrategy;
+
+	PropertyStep(final PropertyAwareAccessor accessor, final Boolean ignored)
+	{
+		this.accessor = accessor;
+		this.ignored = ignored;
+	}
+
+	/**
+	 * The differ only gets remembered once the provider has been frozen, since it may change until then.
+	 */
+	Differ differFor(final Class<?> valueType, final DifferProvider differProvider)
+	{
+		final Resolved<Differ> resolved = this.differ;
+		if (resolved != null && resolved.type == valueType)
+		{
+			return resolved.value;
+		}
+		final Differ differ = differProvider.retrieveDifferForType(valueType);
+		if (differProvider.isFrozen())
+		{
+			this.differ = new Resolved<Differ>(valueType, differ);
+		}
+		return differ;
+	}
+
+	/**
+	 * @return The strategy for values of the given type, unless one has been configured for the path of the node.
+	 * Those need to be resolved via {@link PropertyComparisonStrategyResolver#resolveNodePathComparisonStrategy}
+	 * first.
+	 */
+	ComparisonStrategy comparisonStrategyFor(final Class<?> valueType,
+											 final PropertyComparisonStrategyResolver comparisonStrategyResolver)
+	{
+		final Resolved<ComparisonStrategy> resolved = this.comparisonStrategy;
+		if (resolved != null && resolved.type == valueType)
+		{
+			return resolved.value;
+		}
+		final ComparisonStrategy comparisonStrategy = comparisonStrategyResolver.resolvePropertyComparisonStrategy(valueType, accessor);
+		this.comparisonStrategy = new Resolved<ComparisonStrategy>(valueType, comparisonStrategy);
+		return comparisonStrategy;
+	}
+
+	private static final class Resolved<T>
+	{
+		private final Class<?> type;
+		private final T value;
+
+		private Resolved(final Class<?> type, final T value)
+		{
+			this.type = type;
+			this.value = value;
+		}
+	}
+}
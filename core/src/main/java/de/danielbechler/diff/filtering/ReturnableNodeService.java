@@ -27,6 +27,7 @@ import java.util.Set;
 
 import static de.danielbechler.util.Collections.filteredCopyOf;
 import static java.util.Arrays.asList;
+import static java.util.Collections.unmodifiableMap;
 
 /**
  * @author Daniel Bechler
@@ -46,10 +47,25 @@ public class ReturnableNodeService implements FilteringConfigurer, IsReturnableR
 		this.stateFilterSettings.put(DiffNode.State.CIRCULAR, true);
 		this.stateFilterSettings.put(DiffNode.State.ADDED, true);
 		this.stateFilterSettings.put(DiffNode.State.REMOVED, true);
+		this.stateFilterSettings.put(DiffNode.State.MOVED, true);
 		this.stateFilterSettings.put(DiffNode.State.CHANGED, true);
 		assertDefaultValuesForAllAvailableStates();
 	}
 
+	private ReturnableNodeService(final ReturnableNodeService returnableNodeService)
+	{
+		this.objectDifferBuilder = returnableNodeService.objectDifferBuilder;
+		this.stateFilterSettings = unmodifiableMap(new EnumMap<DiffNode.State, Boolean>(returnableNodeService.stateFilterSettings));
+	}
+
+	/**
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service.
+	 */
+	public ReturnableNodeService snapshot()
+	{
+		return new ReturnableNodeService(this);
+	}
+
 	private void assertDefaultValuesForAllAvailableStates()
 	{
 		final List<DiffNode.State> availableStates = asList(DiffNode.State.values());
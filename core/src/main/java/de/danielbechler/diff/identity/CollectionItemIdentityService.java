@@ -16,23 +16,43 @@
 
 package de.danielbechler.diff.identity;
 
-import de.danielbechler.diff.inclusion.ValueNode;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.path.NodePathTrie;
+import de.danielbechler.diff.path.ValueNode;
 
 class CollectionItemIdentityService implements IdentityStrategyResolver
 {
-	private final ValueNode<IdentityStrategy> nodePathIdentityStrategies;
+	private final ValueNode<IdentityStrategy> nodePathIdentityStrategyRules;
 	private final TypePropertyIdentityStrategyResolver typePropertyIdentityStrategyResolver;
 	private final IdentityConfigurer identityConfigurer;
+	private NodePathTrie<IdentityStrategy> nodePathIdentityStrategies;
 
 	public CollectionItemIdentityService(final IdentityConfigurer identityConfigurer)
 	{
 		this.identityConfigurer = identityConfigurer;
-		this.nodePathIdentityStrategies = new ValueNode<IdentityStrategy>();
+		this.nodePathIdentityStrategyRules = new ValueNode<IdentityStrategy>();
+		this.nodePathIdentityStrategies = NodePathTrie.empty();
 		this.typePropertyIdentityStrategyResolver = new TypePropertyIdentityStrategyResolver();
 	}
 
+	private CollectionItemIdentityService(final CollectionItemIdentityService collectionItemIdentityService,
+										  final IdentityConfigurer identityConfigurer)
+	{
+		this.identityConfigurer = identityConfigurer;
+		this.nodePathIdentityStrategyRules = collectionItemIdentityService.nodePathIdentityStrategyRules.copy();
+		this.nodePathIdentityStrategies = collectionItemIdentityService.nodePathIdentityStrategies();
+		this.typePropertyIdentityStrategyResolver = collectionItemIdentityService.typePropertyIdentityStrategyResolver.copy();
+	}
+
+	/**
+	 * @return A copy of this service, which is unaffected by any further changes to this one.
+	 */
+	CollectionItemIdentityService copy(final IdentityConfigurer identityConfigurer)
+	{
+		return new CollectionItemIdentityService(this, identityConfigurer);
+	}
+
 	public IdentityStrategy resolveIdentityStrategy(final DiffNode node)
 	{
 		IdentityStrategy identityStrategy = typePropertyIdentityStrategyResolver.resolve(node);
@@ -40,7 +60,7 @@ class CollectionItemIdentityService implements IdentityStrategyResolver
 		{
 			return identityStrategy;
 		}
-		identityStrategy = nodePathIdentityStrategies.getNodeForPath(node.getPath()).getValue();
+		identityStrategy = nodePathIdentityStrategies().valueForNodePath(node.getPath());
 		if (identityStrategy != null)
 		{
 			return identityStrategy;
@@ -48,6 +68,15 @@ class CollectionItemIdentityService implements IdentityStrategyResolver
 		return EqualsIdentityStrategy.getInstance();
 	}
 
+	private NodePathTrie<IdentityStrategy> nodePathIdentityStrategies()
+	{
+		if (nodePathIdentityStrategies == null)
+		{
+			nodePathIdentityStrategies = NodePathTrie.compile(nodePathIdentityStrategyRules);
+		}
+		return nodePathIdentityStrategies;
+	}
+
 	public IdentityConfigurer.OfCollectionItems ofCollectionItems(final NodePath nodePath)
 	{
 		return new OfCollectionItemsByNodePath(nodePath);
@@ -69,7 +98,8 @@ class CollectionItemIdentityService implements IdentityStrategyResolver
 
 		public IdentityConfigurer via(final IdentityStrategy identityStrategy)
 		{
-			nodePathIdentityStrategies.getNodeForPath(nodePath).setValue(identityStrategy);
+			nodePathIdentityStrategyRules.getNodeForPath(nodePath).setValue(identityStrategy);
+			nodePathIdentityStrategies = null;
 			return identityConfigurer;
 		}
 	}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2015 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.identity;
+
+/**
+ * An {@link IdentityStrategy} that is also able to compute hash codes for the items it compares. This allows the
+ * {@linkplain de.danielbechler.diff.differ.CollectionDiffer} to match the items of large collections via hash
+ * lookups instead of comparing every item with every other one. Strategies that don't implement this interface are
+ * still supported, but will be matched the slow way.
+ *
+ * @author Daniel Bechler
+ */
+public interface HashingIdentityStrategy extends IdentityStrategy
+{
+	/**
+	 * Contract: items that are considered equal by {@linkplain #equals(Object, Object)} must have the same hash code.
+	 *
+	 * @param item The item to compute the hash code for. May be <code>null</code>.
+	 * @return The hash code of the given item.
+	 */
+	int hashCode(Object item);
+}
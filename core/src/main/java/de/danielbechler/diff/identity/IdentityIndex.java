@@ -0,0 +1,163 @@
+/*
+ * Copyright 2015 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.identity;
+
+import de.danielbechler.util.Assert;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Groups a number of items into buckets by the hash codes of a {@link HashingIdentityStrategy}, so that finding the
+ * item matching a given one only requires identity checks against the few items sharing its hash code. Just like the
+ * linear scans it replaces, the index never passes <code>null</code> to the identity strategy: <code>null</code> items
+ * only match a <code>null</code> needle.
+ *
+ * @author Daniel Bechler
+ */
+public class IdentityIndex
+{
+	private final HashingIdentityStrategy identityStrategy;
+	private final Map<Integer, List<Object>> buckets;
+	private int nullCount;
+	private int size;
+
+	public IdentityIndex(final Iterable<?> items, final HashingIdentityStrategy identityStrategy)
+	{
+		Assert.notNull(items, "items");
+		Assert.notNull(identityStrategy, "identityStrategy");
+		this.identityStrategy = identityStrategy;
+		this.buckets = new HashMap<Integer, List<Object>>();
+		for (final Object item : items)
+		{
+			add(item);
+		}
+	}
+
+	/**
+	 * Adds the given item to the index, e.g. because it has been added to the indexed collection.
+	 */
+	public void add(final Object item)
+	{
+		if (item == null)
+		{
+			nullCount++;
+		}
+		else
+		{
+			final Integer hashCode = identityStrategy.hashCode(item);
+			List<Object> bucket = buckets.get(hashCode);
+			if (bucket == null)
+			{
+				bucket = new ArrayList<Object>(1);
+				buckets.put(hashCode, bucket);
+			}
+			bucket.add(item);
+		}
+		size++;
+	}
+
+	/**
+	 * Removes the given instance from the index, e.g. because it has been removed from the indexed collection.
+	 *
+	 * @return <code>true</code> if the given instance was part of the index.
+	 */
+	public boolean remove(final Object item)
+	{
+		if (item == null)
+		{
+			if (nullCount == 0)
+			{
+				return false;
+			}
+			nullCount--;
+			size--;
+			return true;
+		}
+		final List<Object> bucket = bucketOf(item);
+		if (bucket != null)
+		{
+			for (int i = 0; i < bucket.size(); i++)
+			{
+				if (bucket.get(i) == item)
+				{
+					bucket.remove(i);
+					size--;
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return The number of indexed items.
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @return <code>true</code> if any of the indexed items is considered equal to the given one.
+	 */
+	public boolean contains(final Object needle)
+	{
+		if (needle == null)
+		{
+			return nullCount > 0;
+		}
+		return indexInBucket(bucketOf(needle), needle) >= 0;
+	}
+
+	/**
+	 * @param needle The item to look for. It will be passed as first argument to {@linkplain
+	 *               IdentityStrategy#equals(Object, Object)}.
+	 * @return The first non-null indexed item that is considered equal to the given one or <code>null</code>.
+	 */
+	public Object find(final Object needle)
+	{
+		if (needle == null)
+		{
+			return null;
+		}
+		final List<Object> bucket = bucketOf(needle);
+		final int index = indexInBucket(bucket, needle);
+		return index >= 0 ? bucket.get(index) : null;
+	}
+
+	private List<Object> bucketOf(final Object needle)
+	{
+		return buckets.get(identityStrategy.hashCode(needle));
+	}
+
+	private int indexInBucket(final List<Object> bucket, final Object needle)
+	{
+		if (bucket != null)
+		{
+			for (int i = 0; i < bucket.size(); i++)
+			{
+				if (identityStrategy.equals(needle, bucket.get(i)))
+				{
+					return i;
+				}
+			}
+		}
+		return -1;
+	}
+}
@@ -22,12 +22,27 @@ import de.danielbechler.diff.path.NodePath;
 
 public class IdentityService implements IdentityConfigurer, IdentityStrategyResolver
 {
-	private final CollectionItemIdentityService collectionItemIdentityService = new CollectionItemIdentityService(this);
+	private final CollectionItemIdentityService collectionItemIdentityService;
 	private final ObjectDifferBuilder objectDifferBuilder;
 
 	public IdentityService(final ObjectDifferBuilder objectDifferBuilder)
 	{
 		this.objectDifferBuilder = objectDifferBuilder;
+		this.collectionItemIdentityService = new CollectionItemIdentityService(this);
+	}
+
+	private IdentityService(final IdentityService identityService)
+	{
+		this.objectDifferBuilder = identityService.objectDifferBuilder;
+		this.collectionItemIdentityService = identityService.collectionItemIdentityService.copy(this);
+	}
+
+	/**
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service.
+	 */
+	public IdentityService snapshot()
+	{
+		return new IdentityService(this);
 	}
 
 	public OfCollectionItems ofCollectionItems(final NodePath nodePath)
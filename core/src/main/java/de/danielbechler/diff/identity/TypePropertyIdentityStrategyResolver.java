@@ -22,9 +22,29 @@ import de.danielbechler.util.Assert;
 import java.util.HashMap;
 import java.util.Map;
 
+import static java.util.Collections.unmodifiableMap;
+
 public class TypePropertyIdentityStrategyResolver
 {
-	private final Map<PropertyId, IdentityStrategy> strategies = new HashMap<PropertyId, IdentityStrategy>();
+	private final Map<PropertyId, IdentityStrategy> strategies;
+
+	public TypePropertyIdentityStrategyResolver()
+	{
+		this(new HashMap<PropertyId, IdentityStrategy>());
+	}
+
+	private TypePropertyIdentityStrategyResolver(final Map<PropertyId, IdentityStrategy> strategies)
+	{
+		this.strategies = strategies;
+	}
+
+	/**
+	 * @return A copy of this resolver, which is unaffected by any further changes to this one.
+	 */
+	public TypePropertyIdentityStrategyResolver copy()
+	{
+		return new TypePropertyIdentityStrategyResolver(unmodifiableMap(new HashMap<PropertyId, IdentityStrategy>(strategies)));
+	}
 
 	public IdentityStrategy resolve(final DiffNode node)
 	{
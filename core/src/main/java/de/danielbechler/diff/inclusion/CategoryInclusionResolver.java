@@ -27,11 +27,12 @@ import java.util.Set;
 import static de.danielbechler.diff.inclusion.Inclusion.DEFAULT;
 import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED;
 import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
+import static java.util.Collections.unmodifiableMap;
 
 class CategoryInclusionResolver implements InclusionResolver
 {
 	private final CategoryResolver categoryResolver;
-	private final Map<String, Inclusion> categoryInclusions = new HashMap<String, Inclusion>();
+	private final Map<String, Inclusion> categoryInclusions;
 	private boolean containsIncluded;
 	private boolean containsExcluded;
 
@@ -39,6 +40,26 @@ class CategoryInclusionResolver implements InclusionResolver
 	{
 		Assert.notNull(categoryResolver, "categoryResolver");
 		this.categoryResolver = categoryResolver;
+		this.categoryInclusions = new HashMap<String, Inclusion>();
+	}
+
+	private CategoryInclusionResolver(final CategoryInclusionResolver categoryInclusionResolver,
+									  final CategoryResolver categoryResolver)
+	{
+		Assert.notNull(categoryResolver, "categoryResolver");
+		this.categoryResolver = categoryResolver;
+		this.categoryInclusions = unmodifiableMap(new HashMap<String, Inclusion>(categoryInclusionResolver.categoryInclusions));
+		this.containsIncluded = categoryInclusionResolver.containsIncluded;
+		this.containsExcluded = categoryInclusionResolver.containsExcluded;
+	}
+
+	/**
+	 * @param categoryResolver The resolver the copy should use to determine the categories of a node.
+	 * @return A copy of this resolver, which is unaffected by any further changes to this one.
+	 */
+	CategoryInclusionResolver copy(final CategoryResolver categoryResolver)
+	{
+		return new CategoryInclusionResolver(this, categoryResolver);
 	}
 
 	public Inclusion getInclusion(final DiffNode node)
@@ -17,29 +17,36 @@
 package de.danielbechler.diff.inclusion;
 
 import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.access.PropertyAwareAccessor;
 import de.danielbechler.diff.category.CategoryResolver;
+import de.danielbechler.diff.instantiation.TypeInfo;
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.util.Assert;
+import de.danielbechler.util.WeakIdentityMap;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
 
 import static de.danielbechler.diff.inclusion.Inclusion.DEFAULT;
 import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED;
 import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
+import static java.util.Collections.unmodifiableCollection;
 
 @SuppressWarnings("OverlyComplexAnonymousInnerClass")
-public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
+public class InclusionService implements InclusionConfigurer, IsIgnoredResolver, PropertyInclusionResolver
 {
 	private final ObjectDifferBuilder rootConfiguration;
 	private final CategoryResolver categoryResolver;
-	private final Collection<InclusionResolver> inclusionResolvers = new LinkedList<InclusionResolver>();
+	private final Collection<InclusionResolver> inclusionResolvers;
 	private TypeInclusionResolver typeInclusionResolver;
 	private TypePropertyConfigInclusionResolver typePropertyConfigInclusionResolver;
 	private CategoryInclusionResolver categoryInclusionResolver;
 	private NodePathInclusionResolver nodePathInclusionResolver;
 	private PropertyNameInclusionResolver propertyNameInclusionResolver;
+	private boolean hasCustomInclusionResolvers;
+	private final WeakIdentityMap<TypeInfo, boolean[]> ignoredPropertiesCache = new WeakIdentityMap<TypeInfo, boolean[]>();
 
 	public InclusionService(final CategoryResolver categoryResolver, final ObjectDifferBuilder rootConfiguration)
 	{
@@ -47,9 +54,64 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 		Assert.notNull(categoryResolver, "categoryResolver");
 		this.rootConfiguration = rootConfiguration;
 		this.categoryResolver = categoryResolver;
+		this.inclusionResolvers = new LinkedList<InclusionResolver>();
 		addAlwaysOnInclusionResolvers();
 	}
 
+	private InclusionService(final InclusionService inclusionService, final CategoryResolver categoryResolver)
+	{
+		this.rootConfiguration = inclusionService.rootConfiguration;
+		this.categoryResolver = categoryResolver;
+		final Collection<InclusionResolver> inclusionResolvers = new ArrayList<InclusionResolver>(inclusionService.inclusionResolvers.size());
+		for (final InclusionResolver inclusionResolver : inclusionService.inclusionResolvers)
+		{
+			if (inclusionResolver == inclusionService.typeInclusionResolver)
+			{
+				typeInclusionResolver = inclusionService.typeInclusionResolver.copy();
+				inclusionResolvers.add(typeInclusionResolver);
+			}
+			else if (inclusionResolver == inclusionService.typePropertyConfigInclusionResolver)
+			{
+				typePropertyConfigInclusionResolver = inclusionService.typePropertyConfigInclusionResolver.copy();
+				inclusionResolvers.add(typePropertyConfigInclusionResolver);
+			}
+			else if (inclusionResolver == inclusionService.categoryInclusionResolver)
+			{
+				categoryInclusionResolver = inclusionService.categoryInclusionResolver.copy(categoryResolver);
+				inclusionResolvers.add(categoryInclusionResolver);
+			}
+			else if (inclusionResolver == inclusionService.nodePathInclusionResolver)
+			{
+				nodePathInclusionResolver = inclusionService.nodePathInclusionResolver.copy();
+				inclusionResolvers.add(nodePathInclusionResolver);
+			}
+			else if (inclusionResolver == inclusionService.propertyNameInclusionResolver)
+			{
+				propertyNameInclusionResolver = inclusionService.propertyNameInclusionResolver.copy();
+				inclusionResolvers.add(propertyNameInclusionResolver);
+			}
+			else
+			{
+				inclusionResolvers.add(inclusionResolver);
+			}
+		}
+		this.inclusionResolvers = unmodifiableCollection(inclusionResolvers);
+		this.hasCustomInclusionResolvers = inclusionService.hasCustomInclusionResolvers;
+	}
+
+	/**
+	 * Custom {@link InclusionResolver InclusionResolvers} are shared with the copy, since their state is beyond the
+	 * control of this service.
+	 *
+	 * @param categoryResolver The resolver the copy should use to determine the categories of a node.
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service.
+	 */
+	public InclusionService snapshot(final CategoryResolver categoryResolver)
+	{
+		Assert.notNull(categoryResolver, "categoryResolver");
+		return new InclusionService(this, categoryResolver);
+	}
+
 	private void addAlwaysOnInclusionResolvers()
 	{
 		inclusionResolvers.add(new TypePropertyAnnotationInclusionResolver());
@@ -90,6 +152,55 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 		return false;
 	}
 
+	/**
+	 * Resolves the inclusion of all properties of the given type up front, as long as none of the configured
+	 * resolvers depends on the position of a property within the object graph (i.e. node paths, categories, property
+	 * names or custom {@link InclusionResolver InclusionResolvers}).
+	 */
+	public boolean[] resolveIgnoredProperties(final TypeInfo typeInfo)
+	{
+		Assert.notNull(typeInfo, "typeInfo");
+		if (hasPositionDependentInclusionResolvers())
+		{
+			return null;
+		}
+		// cached per type info without locking; concurrent computations yield the same result
+		final boolean[] cachedIgnoredProperties = ignoredPropertiesCache.get(typeInfo);
+		if (cachedIgnoredProperties != null && cachedIgnoredProperties.length == typeInfo.getAccessors().size())
+		{
+			return cachedIgnoredProperties;
+		}
+		final boolean[] ignoredProperties = computeIgnoredProperties(typeInfo);
+		ignoredPropertiesCache.put(typeInfo, ignoredProperties);
+		return ignoredProperties;
+	}
+
+	private boolean hasPositionDependentInclusionResolvers()
+	{
+		return hasCustomInclusionResolvers
+				|| categoryInclusionResolver != null
+				|| nodePathInclusionResolver != null
+				|| propertyNameInclusionResolver != null;
+	}
+
+	private boolean[] computeIgnoredProperties(final TypeInfo typeInfo)
+	{
+		final DiffNode beanNode = DiffNode.newRootNodeWithType(typeInfo.getType());
+		beanNode.setValueTypeInfo(typeInfo);
+		final boolean[] ignoredProperties = new boolean[typeInfo.getAccessors().size()];
+		int index = 0;
+		for (final PropertyAwareAccessor propertyAccessor : typeInfo.getAccessors())
+		{
+			ignoredProperties[index++] = isIgnored(new DiffNode(beanNode, propertyAccessor, null));
+		}
+		return ignoredProperties;
+	}
+
+	private void invalidateIgnoredProperties()
+	{
+		ignoredPropertiesCache.clear();
+	}
+
 	private static Inclusion getInclusion(final DiffNode node, final InclusionResolver inclusionResolver)
 	{
 		final Inclusion inclusion = inclusionResolver.getInclusion(node);
@@ -150,6 +261,7 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 			inclusionResolvers.add(categoryInclusionResolver);
 		}
 		categoryInclusionResolver.setInclusion(category, inclusion);
+		invalidateIgnoredProperties();
 	}
 
 	void setTypeInclusion(final Inclusion inclusion, final Class<?> type)
@@ -160,6 +272,7 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 			inclusionResolvers.add(typeInclusionResolver);
 		}
 		typeInclusionResolver.setInclusion(type, inclusion);
+		invalidateIgnoredProperties();
 	}
 
 	void setNodePathInclusion(final Inclusion inclusion, final NodePath nodePath)
@@ -170,6 +283,7 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 			inclusionResolvers.add(nodePathInclusionResolver);
 		}
 		nodePathInclusionResolver.setInclusion(nodePath, inclusion);
+		invalidateIgnoredProperties();
 	}
 
 	void setPropertyNameInclusion(final Inclusion inclusion, final String propertyName)
@@ -180,6 +294,7 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 			inclusionResolvers.add(propertyNameInclusionResolver);
 		}
 		propertyNameInclusionResolver.setInclusion(propertyName, inclusion);
+		invalidateIgnoredProperties();
 	}
 
 	private void setPropertyNameOfTypeInclusion(final Inclusion inclusion, final Class<?> type, final String... propertyNames)
@@ -195,6 +310,7 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 			}
 			typePropertyConfigInclusionResolver.setInclusion(type, propertyName, inclusion);
 		}
+		invalidateIgnoredProperties();
 	}
 
 	CategoryInclusionResolver newCategoryInclusionResolver()
@@ -272,6 +388,8 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 	{
 		Assert.notNull(inclusionResolver, "inclusionResolver");
 		inclusionResolvers.add(inclusionResolver);
+		hasCustomInclusionResolvers = true;
+		invalidateIgnoredProperties();
 		return this;
 	}
 
@@ -279,4 +397,4 @@ public class InclusionService implements InclusionConfigurer, IsIgnoredResolver
 	{
 		return rootConfiguration;
 	}
-}
\ No newline at end of file
+}
@@ -18,6 +18,8 @@ package de.danielbechler.diff.inclusion;
 
 import de.danielbechler.diff.node.DiffNode;
 import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.path.NodePathTrie;
+import de.danielbechler.diff.path.ValueNode;
 
 import static de.danielbechler.diff.inclusion.Inclusion.DEFAULT;
 import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED;
@@ -25,9 +27,51 @@ import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
 
 class NodePathInclusionResolver implements InclusionResolver
 {
-	private final ValueNode<Inclusion> inclusions = new ValueNode<Inclusion>();
+	private static final NodePathTrie.Compiler<Inclusion, Inclusion> RESOLVED_INCLUSIONS = new NodePathTrie.Compiler<Inclusion, Inclusion>()
+	{
+		public Inclusion valueFor(final ValueNode<Inclusion> rule)
+		{
+			return resolveInclusion(rule);
+		}
+
+		public Inclusion valueBelow(final ValueNode<Inclusion> rule)
+		{
+			// A node without a rule of its own can only inherit the inclusion of its closest parent with one
+			final ValueNode<Inclusion> parentWithInclusion = rule.hasValue() ? rule : rule.getClosestParentWithValue();
+			if (parentWithInclusion != null)
+			{
+				return resolveInclusion(parentWithInclusion);
+			}
+			return DEFAULT;
+		}
+	};
+
+	private final ValueNode<Inclusion> inclusions;
 	private boolean containsIncluded;
 	private boolean containsExcluded;
+	private NodePathTrie<Inclusion> resolvedInclusions;
+
+	NodePathInclusionResolver()
+	{
+		this.inclusions = new ValueNode<Inclusion>();
+		this.resolvedInclusions = NodePathTrie.empty();
+	}
+
+	private NodePathInclusionResolver(final NodePathInclusionResolver nodePathInclusionResolver)
+	{
+		this.inclusions = nodePathInclusionResolver.inclusions.copy();
+		this.resolvedInclusions = nodePathInclusionResolver.resolvedInclusions();
+		this.containsIncluded = nodePathInclusionResolver.containsIncluded;
+		this.containsExcluded = nodePathInclusionResolver.containsExcluded;
+	}
+
+	/**
+	 * @return A copy of this resolver, which is unaffected by any further changes to this one.
+	 */
+	NodePathInclusionResolver copy()
+	{
+		return new NodePathInclusionResolver(this);
+	}
 
 	public Inclusion getInclusion(final DiffNode node)
 	{
@@ -35,7 +79,17 @@ class NodePathInclusionResolver implements InclusionResolver
 		{
 			return DEFAULT;
 		}
-		return resolveInclusion(inclusions.getNodeForPath(node.getPath()));
+		final Inclusion inclusion = resolvedInclusions().valueForNodePath(node.getPath());
+		return inclusion != null ? inclusion : DEFAULT;
+	}
+
+	private NodePathTrie<Inclusion> resolvedInclusions()
+	{
+		if (resolvedInclusions == null)
+		{
+			resolvedInclusions = NodePathTrie.compile(inclusions, RESOLVED_INCLUSIONS);
+		}
+		return resolvedInclusions;
 	}
 
 	public boolean enablesStrictIncludeMode()
@@ -53,9 +107,10 @@ class NodePathInclusionResolver implements InclusionResolver
 		inclusions.getNodeForPath(nodePath).setValue(inclusion);
 		containsIncluded = inclusions.containsValue(INCLUDED);
 		containsExcluded = inclusions.containsValue(EXCLUDED);
+		resolvedInclusions = null;
 	}
 
-	private Inclusion resolveInclusion(final ValueNode<Inclusion> inclusionNode)
+	private static Inclusion resolveInclusion(final ValueNode<Inclusion> inclusionNode)
 	{
 		// When the node has been explicitly excluded it's clear what to do
 		if (inclusionNode.getValue() == EXCLUDED)
@@ -83,7 +138,7 @@ class NodePathInclusionResolver implements InclusionResolver
 		return DEFAULT;
 	}
 
-	private Inclusion resolveParentInclusion(final ValueNode<Inclusion> inclusionNode)
+	private static Inclusion resolveParentInclusion(final ValueNode<Inclusion> inclusionNode)
 	{
 		final ValueNode<Inclusion> parentWithInclusion = inclusionNode.getClosestParentWithValue();
 		if (parentWithInclusion != null)
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.inclusion;
+
+import de.danielbechler.diff.instantiation.TypeInfo;
+
+/**
+ * Resolves the inclusion of all properties of a type at once, so that it doesn't need to be resolved again for every
+ * instance of that type.
+ *
+ * @author Daniel Bechler
+ */
+public interface PropertyInclusionResolver
+{
+	/**
+	 * @return One flag per accessor of the given {@link TypeInfo} (in the order of {@link TypeInfo#getAccessors()})
+	 * telling whether the corresponding property is ignored or <code>null</code>, if that depends on the position of
+	 * the property within the object graph and needs to be resolved for every node.
+	 */
+	boolean[] resolveIgnoredProperties(TypeInfo typeInfo);
+}
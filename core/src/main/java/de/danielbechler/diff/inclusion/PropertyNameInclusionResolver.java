@@ -24,13 +24,34 @@ import java.util.Map;
 import static de.danielbechler.diff.inclusion.Inclusion.DEFAULT;
 import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED;
 import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
+import static java.util.Collections.unmodifiableMap;
 
 class PropertyNameInclusionResolver implements InclusionResolver
 {
-	private final Map<String, Inclusion> propertyNameInclusions = new HashMap<String, Inclusion>();
+	private final Map<String, Inclusion> propertyNameInclusions;
 	private boolean containsIncluded;
 	private boolean containsExcluded;
 
+	PropertyNameInclusionResolver()
+	{
+		this.propertyNameInclusions = new HashMap<String, Inclusion>();
+	}
+
+	private PropertyNameInclusionResolver(final PropertyNameInclusionResolver propertyNameInclusionResolver)
+	{
+		this.propertyNameInclusions = unmodifiableMap(new HashMap<String, Inclusion>(propertyNameInclusionResolver.propertyNameInclusions));
+		this.containsIncluded = propertyNameInclusionResolver.containsIncluded;
+		this.containsExcluded = propertyNameInclusionResolver.containsExcluded;
+	}
+
+	/**
+	 * @return A copy of this resolver, which is unaffected by any further changes to this one.
+	 */
+	PropertyNameInclusionResolver copy()
+	{
+		return new PropertyNameInclusionResolver(this);
+	}
+
 	public Inclusion getInclusion(final DiffNode node)
 	{
 		if (node != null && !isInactive())
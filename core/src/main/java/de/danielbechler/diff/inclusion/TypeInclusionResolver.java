@@ -24,13 +24,34 @@ import java.util.Map;
 import static de.danielbechler.diff.inclusion.Inclusion.DEFAULT;
 import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED;
 import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
+import static java.util.Collections.unmodifiableMap;
 
 class TypeInclusionResolver implements InclusionResolver
 {
-	private final Map<Class<?>, Inclusion> typeInclusions = new HashMap<Class<?>, Inclusion>();
+	private final Map<Class<?>, Inclusion> typeInclusions;
 	private boolean containsIncluded;
 	private boolean containsExcluded;
 
+	TypeInclusionResolver()
+	{
+		this.typeInclusions = new HashMap<Class<?>, Inclusion>();
+	}
+
+	private TypeInclusionResolver(final TypeInclusionResolver typeInclusionResolver)
+	{
+		this.typeInclusions = unmodifiableMap(new HashMap<Class<?>, Inclusion>(typeInclusionResolver.typeInclusions));
+		this.containsIncluded = typeInclusionResolver.containsIncluded;
+		this.containsExcluded = typeInclusionResolver.containsExcluded;
+	}
+
+	/**
+	 * @return A copy of this resolver, which is unaffected by any further changes to this one.
+	 */
+	TypeInclusionResolver copy()
+	{
+		return new TypeInclusionResolver(this);
+	}
+
 	public Inclusion getInclusion(final DiffNode node)
 	{
 		if (isInactive())
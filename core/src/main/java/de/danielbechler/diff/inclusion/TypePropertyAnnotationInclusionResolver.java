@@ -38,7 +38,11 @@ class TypePropertyAnnotationInclusionResolver implements InclusionResolver
 
 	public Inclusion getInclusion(final DiffNode node)
 	{
-		final ObjectDiffProperty propertyAnnotation = node.getPropertyAnnotation(ObjectDiffProperty.class);
+		ObjectDiffProperty propertyAnnotation = node.getPropertyAnnotation(ObjectDiffProperty.class);
+		if (propertyAnnotation == null)
+		{
+			propertyAnnotation = node.getFieldAnnotation(ObjectDiffProperty.class);
+		}
 		if (propertyAnnotation != null)
 		{
 			if (propertyAnnotation.inclusion() == INCLUDED || propertyAnnotation.inclusion() == EXCLUDED)
@@ -61,7 +65,11 @@ class TypePropertyAnnotationInclusionResolver implements InclusionResolver
 	{
 		for (final PropertyAwareAccessor accessor : getSiblingAccessors(node))
 		{
-			final ObjectDiffProperty annotation = accessor.getReadMethodAnnotation(ObjectDiffProperty.class);
+			ObjectDiffProperty annotation = accessor.getReadMethodAnnotation(ObjectDiffProperty.class);
+			if (annotation == null)
+			{
+				annotation = accessor.getFieldAnnotation(ObjectDiffProperty.class);
+			}
 			if (annotation != null && annotation.inclusion() == INCLUDED)
 			{
 				return true;
@@ -25,13 +25,32 @@ import java.util.Map;
 import static de.danielbechler.diff.inclusion.Inclusion.DEFAULT;
 import static de.danielbechler.diff.inclusion.Inclusion.EXCLUDED;
 import static de.danielbechler.diff.inclusion.Inclusion.INCLUDED;
+import static java.util.Collections.unmodifiableMap;
 
 /**
  * Created by Daniel Bechler.
  */
 class TypePropertyConfigInclusionResolver implements InclusionResolver
 {
-	private final Map<PropertyId, Inclusion> inclusions = new HashMap<PropertyId, Inclusion>();
+	private final Map<PropertyId, Inclusion> inclusions;
+
+	TypePropertyConfigInclusionResolver()
+	{
+		this.inclusions = new HashMap<PropertyId, Inclusion>();
+	}
+
+	private TypePropertyConfigInclusionResolver(final TypePropertyConfigInclusionResolver typePropertyConfigInclusionResolver)
+	{
+		this.inclusions = unmodifiableMap(new HashMap<PropertyId, Inclusion>(typePropertyConfigInclusionResolver.inclusions));
+	}
+
+	/**
+	 * @return A copy of this resolver, which is unaffected by any further changes to this one.
+	 */
+	TypePropertyConfigInclusionResolver copy()
+	{
+		return new TypePropertyConfigInclusionResolver(this);
+	}
 
 	public Inclusion getInclusion(final DiffNode node)
 	{
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.util.Assert;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Resolves the accessors of a given type by looking at the fields declared along its class hierarchy instead of
+ * its getters and setters. Static, transient and synthetic fields are skipped and fields of subclasses shadow
+ * equally named fields of their superclasses. This is meant for plain data holders and can be activated for
+ * selected types via {@link IntrospectionConfigurer#ofType(Class)}.
+ *
+ * @author Daniel Bechler
+ */
+public class FieldIntrospector implements Introspector
+{
+	public TypeInfo introspect(final Class<?> type)
+	{
+		Assert.notNull(type, "type");
+		final TypeInfo typeInfo = new TypeInfo(type);
+		final Set<String> propertyNames = new HashSet<String>();
+		for (Class<?> declaringType = type; declaringType != null && declaringType != Object.class; declaringType = declaringType.getSuperclass())
+		{
+			for (final Field field : declaringType.getDeclaredFields())
+			{
+				if (!shouldSkip(field) && propertyNames.add(field.getName()))
+				{
+					typeInfo.addPropertyAccessor(new FieldAccessor(field));
+				}
+			}
+		}
+		return typeInfo;
+	}
+
+	private static boolean shouldSkip(final Field field)
+	{
+		final int modifiers = field.getModifiers();
+		if (Modifier.isStatic(modifiers))
+		{
+			return true;
+		}
+		if (Modifier.isTransient(modifiers)) // includes Groovy's metaClass
+		{
+			return true;
+		}
+		if (field.isSynthetic()) // e.g. references to outer classes
+		{
+			return true;
+		}
+		return false;
+	}
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.access.PropertyAwareAccessor;
+import de.danielbechler.diff.selector.BeanPropertyElementSelector;
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.Exceptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Annotation;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Base class for the property accessors generated for types marked with {@link GenerateDiffAccessors}. Subclasses
+ * read and write the property via direct method calls. Only the rarely needed annotation metadata is resolved via
+ * reflection, lazily on first request.
+ *
+ * @author Daniel Bechler
+ */
+public abstract class GeneratedPropertyAccessor implements PropertyAwareAccessor
+{
+	private static final Logger logger = LoggerFactory.getLogger(GeneratedPropertyAccessor.class);
+
+	private final Class<?> declaringType;
+	private final String propertyName;
+	private final Class<?> type;
+	private final String readMethodName;
+	private final String writeMethodName;
+	private volatile PropertyAwareAccessor reflectiveAccessor;
+
+	protected GeneratedPropertyAccessor(final Class<?> declaringType,
+										final String propertyName,
+										final Class<?> type,
+										final String readMethodName,
+										final String writeMethodName)
+	{
+		Assert.notNull(declaringType, "declaringType");
+		Assert.notNull(propertyName, "propertyName");
+		Assert.notNull(type, "type");
+		Assert.notNull(readMethodName, "readMethodName");
+		this.declaringType = declaringType;
+		this.propertyName = propertyName;
+		this.type = type;
+		this.readMethodName = readMethodName;
+		this.writeMethodName = writeMethodName;
+	}
+
+	/**
+	 * Reads the property value from the given (non-null) target. Any exception thrown by the getter gets wrapped in a
+	 * {@link PropertyReadException}.
+	 */
+	protected abstract Object read(Object target) throws Exception;
+
+	/**
+	 * Writes the given value to the given (non-null) target. Only called for properties with a write method, so
+	 * accessors of read-only properties don't need to override it. Any exception thrown by the setter gets wrapped in a
+	 * {@link PropertyWriteException}.
+	 */
+	protected void write(final Object target, final Object value) throws Exception
+	{
+		throw new UnsupportedOperationException("Property '" + propertyName + "' has no write method");
+	}
+
+	public String getPropertyName()
+	{
+		return propertyName;
+	}
+
+	public Class<?> getType()
+	{
+		return type;
+	}
+
+	public BeanPropertyElementSelector getElementSelector()
+	{
+		return new BeanPropertyElementSelector(propertyName);
+	}
+
+	public Object get(final Object target)
+	{
+		if (target == null)
+		{
+			return null;
+		}
+		try
+		{
+			return read(target);
+		}
+		catch (final Exception cause)
+		{
+			throw new PropertyReadException(propertyName, target.getClass(), cause);
+		}
+	}
+
+	public void set(final Object target, final Object value)
+	{
+		if (target == null)
+		{
+			logger.info("Couldn't set new value '{}' for property '{}' " +
+					"because the target object is null", value, propertyName);
+		}
+		else if (writeMethodName == null)
+		{
+			logger.debug("No setter found for property '{}'", propertyName);
+			tryToReplaceContentOfCollectionTypes(target, value);
+		}
+		else
+		{
+			try
+			{
+				write(target, value);
+			}
+			catch (final Exception cause)
+			{
+				throw new PropertyWriteException(propertyName, target.getClass(), value, cause);
+			}
+		}
+	}
+
+	/**
+	 * Mirrors the {@link PropertyAccessor}, which replaces the content of collections and maps that can't be set.
+	 */
+	@SuppressWarnings("unchecked")
+	private void tryToReplaceContentOfCollectionTypes(final Object target, final Object value)
+	{
+		if (Collection.class.isAssignableFrom(type))
+		{
+			if (PropertyAccessor.tryToReplaceCollectionContent((Collection<Object>) get(target), (Collection<Object>) value))
+			{
+				return;
+			}
+		}
+		if (Map.class.isAssignableFrom(type))
+		{
+			if (PropertyAccessor.tryToReplaceMapContent((Map<Object, Object>) get(target), (Map<Object, Object>) value))
+			{
+				return;
+			}
+		}
+		logger.info("Couldn't set new value '{}' for property '{}'", value, propertyName);
+	}
+
+	public void unset(final Object target)
+	{
+		set(target, null);
+	}
+
+	public Set<String> getCategoriesFromAnnotation()
+	{
+		return reflectiveAccessor().getCategoriesFromAnnotation();
+	}
+
+	public boolean isExcludedByAnnotation()
+	{
+		return reflectiveAccessor().isExcludedByAnnotation();
+	}
+
+	public Set<Annotation> getFieldAnnotations()
+	{
+		return reflectiveAccessor().getFieldAnnotations();
+	}
+
+	public <T extends Annotation> T getFieldAnnotation(final Class<T> annotationClass)
+	{
+		return reflectiveAccessor().getFieldAnnotation(annotationClass);
+	}
+
+	public Set<Annotation> getReadMethodAnnotations()
+	{
+		return reflectiveAccessor().getReadMethodAnnotations();
+	}
+
+	public <T extends Annotation> T getReadMethodAnnotation(final Class<T> annotationClass)
+	{
+		return reflectiveAccessor().getReadMethodAnnotation(annotationClass);
+	}
+
+	private PropertyAwareAccessor reflectiveAccessor()
+	{
+		PropertyAwareAccessor accessor = reflectiveAccessor;
+		if (accessor == null)
+		{
+			try
+			{
+				accessor = new PropertyAccessor(propertyName,
+						declaringType.getMethod(readMethodName),
+						writeMethodName != null ? declaringType.getMethod(writeMethodName, type) : null);
+			}
+			catch (final NoSuchMethodException e)
+			{
+				throw Exceptions.escalate(e);
+			}
+			reflectiveAccessor = accessor;
+		}
+		return accessor;
+	}
+
+	@Override
+	public String toString()
+	{
+		final StringBuilder sb = new StringBuilder("GeneratedPropertyAccessor{");
+		sb.append("propertyName='").append(propertyName).append('\'');
+		sb.append(", type=").append(type.getCanonicalName());
+		sb.append(", source=").append(declaringType.getCanonicalName());
+		sb.append(", hasWriteMethod=").append(writeMethodName != null);
+		sb.append('}');
+		return sb.toString();
+	}
+}
@@ -52,6 +52,27 @@ public interface IntrospectionConfigurer
 
 	IntrospectionConfigurer handlePropertyAccessExceptionsUsing(PropertyAccessExceptionHandler exceptionHandler);
 
+	/**
+	 * The results of the introspection are cached per type and introspector, so every type only needs to be
+	 * introspected once. This method discards the cached results for the given type, in case it needs to be
+	 * introspected again (e.g. because a custom introspector decides differently from now on). The cache is shared
+	 * with the {@link de.danielbechler.diff.ObjectDiffer ObjectDiffers} that have already been built, so they
+	 * introspect the type again as well.
+	 *
+	 * @param type The type whose cached introspection results should be discarded.
+	 */
+	IntrospectionConfigurer invalidateCachedTypeInfo(Class<?> type);
+
+	/**
+	 * Discards the cached introspection results of all types.
+	 */
+	IntrospectionConfigurer invalidateCachedTypeInfos();
+
+	/**
+	 * @return The hit and miss statistics of the cache holding the introspection results.
+	 */
+	TypeInfoCacheStatistics getTypeInfoCacheStatistics();
+
 	Of ofType(Class<?> type);
 
 	Of ofNode(NodePath path);
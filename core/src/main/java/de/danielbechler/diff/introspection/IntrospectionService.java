@@ -0,0 +1,286 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.diff.instantiation.InstanceFactory;
+import de.danielbechler.diff.instantiation.PublicNoArgsConstructorInstanceFactory;
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.diff.node.DiffNode;
+import de.danielbechler.diff.path.NodePath;
+import de.danielbechler.diff.path.NodePathTrie;
+import de.danielbechler.diff.path.ValueNode;
+import de.danielbechler.util.Assert;
+import de.danielbechler.util.Classes;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * @author Daniel Bechler
+ */
+public class IntrospectionService implements IntrospectionConfigurer, IsIntrospectableResolver, TypeInfoResolver, PropertyAccessExceptionHandlerResolver
+{
+	private final Map<Class<?>, Introspector> typeIntrospectorMap;
+	private final Map<Class<?>, Introspector> registeredTypeIntrospectorMap;
+	private final Map<Class<?>, IntrospectionMode> typeIntrospectionModeMap;
+	private final ValueNode<Introspector> nodePathIntrospectorRules;
+	private final ValueNode<IntrospectionMode> nodePathIntrospectionModeRules;
+	private final TypeInfoCache typeInfoCache;
+	private final ObjectDifferBuilder objectDifferBuilder;
+	private Introspector defaultIntrospector = new StandardIntrospector();
+	private InstanceFactory instanceFactory = new PublicNoArgsConstructorInstanceFactory();
+	private PropertyAccessExceptionHandler defaultPropertyAccessExceptionHandler = new DefaultPropertyAccessExceptionHandler();
+	private NodePathTrie<Introspector> nodePathIntrospectors = NodePathTrie.empty();
+	private NodePathTrie<IntrospectionMode> nodePathIntrospectionModes = NodePathTrie.empty();
+
+	public IntrospectionService(final ObjectDifferBuilder objectDifferBuilder)
+	{
+		this(objectDifferBuilder, TypeIntrospectorLoader.forCurrentContext());
+	}
+
+	IntrospectionService(final ObjectDifferBuilder objectDifferBuilder, final TypeIntrospectorLoader typeIntrospectorLoader)
+	{
+		this.objectDifferBuilder = objectDifferBuilder;
+		this.registeredTypeIntrospectorMap = typeIntrospectorLoader.load();
+		this.typeIntrospectorMap = new HashMap<Class<?>, Introspector>();
+		this.typeIntrospectionModeMap = new HashMap<Class<?>, IntrospectionMode>();
+		this.nodePathIntrospectorRules = new ValueNode<Introspector>();
+		this.nodePathIntrospectionModeRules = new ValueNode<IntrospectionMode>();
+		this.typeInfoCache = new TypeInfoCache();
+	}
+
+	private IntrospectionService(final IntrospectionService introspectionService)
+	{
+		this.objectDifferBuilder = introspectionService.objectDifferBuilder;
+		this.registeredTypeIntrospectorMap = introspectionService.registeredTypeIntrospectorMap;
+		this.typeIntrospectorMap = unmodifiableMap(new HashMap<Class<?>, Introspector>(introspectionService.typeIntrospectorMap));
+		this.typeIntrospectionModeMap = unmodifiableMap(new HashMap<Class<?>, IntrospectionMode>(introspectionService.typeIntrospectionModeMap));
+		this.nodePathIntrospectorRules = introspectionService.nodePathIntrospectorRules.copy();
+		this.nodePathIntrospectionModeRules = introspectionService.nodePathIntrospectionModeRules.copy();
+		this.nodePathIntrospectors = introspectionService.nodePathIntrospectors();
+		this.nodePathIntrospectionModes = introspectionService.nodePathIntrospectionModes();
+		this.defaultIntrospector = introspectionService.defaultIntrospector;
+		this.instanceFactory = introspectionService.instanceFactory;
+		this.defaultPropertyAccessExceptionHandler = introspectionService.defaultPropertyAccessExceptionHandler;
+		this.typeInfoCache = introspectionService.typeInfoCache;
+	}
+
+	/**
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service. It
+	 * shares the {@link TypeInfo} cache with this service, so invalidating cached type infos and the cache statistics
+	 * also apply to the copies.
+	 */
+	public IntrospectionService snapshot()
+	{
+		return new IntrospectionService(this);
+	}
+
+	public boolean isIntrospectable(final DiffNode node)
+	{
+		final Class<?> nodeType = node.getValueType();
+		if (nodeType == null)
+		{
+			return false;
+		}
+		else if (!Classes.isIntrospectableType(nodeType))
+		{
+			return false;
+		}
+		else if (nodePathIntrospectionModes().valueForNodePath(node.getPath()) == IntrospectionMode.DISABLED)
+		{
+			return false;
+		}
+		else if (typeIntrospectionModeMap.get(nodeType) == IntrospectionMode.DISABLED)
+		{
+			return false;
+		}
+		return true;
+	}
+
+	public PropertyAccessExceptionHandler resolvePropertyAccessExceptionHandler(final Class<?> parentType, final String propertyName)
+	{
+		return defaultPropertyAccessExceptionHandler;
+	}
+
+	public TypeInfo typeInfoForNode(final DiffNode node)
+	{
+		final Class<?> beanType = node.getValueType();
+		final Introspector introspector = introspectorForNode(node);
+		final TypeInfo cachedTypeInfo = typeInfoCache.get(beanType, introspector, instanceFactory);
+		if (cachedTypeInfo != null)
+		{
+			return cachedTypeInfo;
+		}
+		final TypeInfo typeInfo = introspector.introspect(beanType);
+		typeInfo.setInstanceFactory(instanceFactory);
+		return typeInfoCache.put(beanType, introspector, instanceFactory, typeInfo);
+	}
+
+	public Introspector introspectorForNode(final DiffNode node)
+	{
+		final Introspector typeIntrospector = typeIntrospectorMap.get(node.getValueType());
+		if (typeIntrospector != null)
+		{
+			return typeIntrospector;
+		}
+
+		final Introspector nodePathIntrospector = nodePathIntrospectors().valueForNodePath(node.getPath());
+		if (nodePathIntrospector != null)
+		{
+			return nodePathIntrospector;
+		}
+
+		final Introspector registeredTypeIntrospector = registeredTypeIntrospectorMap.get(node.getValueType());
+		if (registeredTypeIntrospector != null)
+		{
+			return registeredTypeIntrospector;
+		}
+
+		return defaultIntrospector;
+	}
+
+	public IntrospectionConfigurer setInstanceFactory(final InstanceFactory instanceFactory)
+	{
+		Assert.notNull(instanceFactory, "instanceFactory");
+		this.instanceFactory = new InstanceFactoryFallbackDecorator(instanceFactory);
+		return this;
+	}
+
+	public IntrospectionConfigurer setDefaultIntrospector(final Introspector introspector)
+	{
+		Assert.notNull(introspector, "The default introspector must not be null");
+		defaultIntrospector = introspector;
+		return this;
+	}
+
+	public IntrospectionConfigurer handlePropertyAccessExceptionsUsing(final PropertyAccessExceptionHandler exceptionHandler)
+	{
+		Assert.notNull(exceptionHandler, "exceptionHandler");
+		defaultPropertyAccessExceptionHandler = exceptionHandler;
+		return this;
+	}
+
+	public IntrospectionConfigurer invalidateCachedTypeInfo(final Class<?> type)
+	{
+		Assert.notNull(type, "type");
+		typeInfoCache.invalidate(type);
+		return this;
+	}
+
+	public IntrospectionConfigurer invalidateCachedTypeInfos()
+	{
+		typeInfoCache.invalidateAll();
+		return this;
+	}
+
+	public TypeInfoCacheStatistics getTypeInfoCacheStatistics()
+	{
+		return typeInfoCache;
+	}
+
+	public Of ofType(final Class<?> type)
+	{
+		return new Of()
+		{
+			public IntrospectionConfigurer toUse(final Introspector introspector)
+			{
+				typeIntrospectorMap.put(type, introspector);
+				return IntrospectionService.this;
+			}
+
+			public IntrospectionConfigurer toBeEnabled()
+			{
+				typeIntrospectionModeMap.put(type, IntrospectionMode.ENABLED);
+				return IntrospectionService.this;
+			}
+
+			public IntrospectionConfigurer toBeDisabled()
+			{
+				typeIntrospectionModeMap.put(type, IntrospectionMode.DISABLED);
+				return IntrospectionService.this;
+			}
+		};
+	}
+
+	private void setNodePathIntrospector(final NodePath path, final Introspector introspector)
+	{
+		nodePathIntrospectorRules.getNodeForPath(path).setValue(introspector);
+		nodePathIntrospectors = null;
+	}
+
+	private NodePathTrie<Introspector> nodePathIntrospectors()
+	{
+		if (nodePathIntrospectors == null)
+		{
+			nodePathIntrospectors = NodePathTrie.compile(nodePathIntrospectorRules);
+		}
+		return nodePathIntrospectors;
+	}
+
+	private void setNodePathIntrospectionMode(final NodePath path, final IntrospectionMode introspectionMode)
+	{
+		nodePathIntrospectionModeRules.getNodeForPath(path).setValue(introspectionMode);
+		nodePathIntrospectionModes = null;
+	}
+
+	private NodePathTrie<IntrospectionMode> nodePathIntrospectionModes()
+	{
+		if (nodePathIntrospectionModes == null)
+		{
+			nodePathIntrospectionModes = NodePathTrie.compile(nodePathIntrospectionModeRules);
+		}
+		return nodePathIntrospectionModes;
+	}
+
+	public Of ofNode(final NodePath path)
+	{
+		return new Of()
+		{
+			public IntrospectionConfigurer toUse(final Introspector introspector)
+			{
+				setNodePathIntrospector(path, introspector);
+				return IntrospectionService.this;
+			}
+
+			public IntrospectionConfigurer toBeEnabled()
+			{
+				setNodePathIntrospectionMode(path, IntrospectionMode.ENABLED);
+				return IntrospectionService.this;
+			}
+
+			public IntrospectionConfigurer toBeDisabled()
+			{
+				setNodePathIntrospectionMode(path, IntrospectionMode.DISABLED);
+				return IntrospectionService.this;
+			}
+		};
+	}
+
+	public ObjectDifferBuilder and()
+	{
+		return objectDifferBuilder;
+	}
+
+	public enum IntrospectionMode
+	{
+		ENABLED,
+		DISABLED
+	}
+}
@@ -26,6 +26,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
@@ -36,11 +37,14 @@ import static java.util.Arrays.asList;
 public class PropertyAccessor implements PropertyAwareAccessor
 {
 	private static final Logger logger = LoggerFactory.getLogger(PropertyAccessor.class);
+	private static final Object[] NO_ARGUMENTS = new Object[0];
 
 	private final String propertyName;
 	private final Class<?> type;
 	private final Method readMethod;
 	private final Method writeMethod;
+	private final Map<Class<? extends Annotation>, Annotation> readMethodAnnotations;
+	private final Map<Class<? extends Annotation>, Annotation> fieldAnnotations;
 
 	public PropertyAccessor(final String propertyName, final Method readMethod, final Method writeMethod)
 	{
@@ -50,6 +54,22 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		this.readMethod = makeAccessible(readMethod);
 		this.writeMethod = makeAccessible(writeMethod);
 		this.type = this.readMethod.getReturnType();
+		this.readMethodAnnotations = indexByType(asList(readMethod.getAnnotations()));
+		this.fieldAnnotations = indexByType(getFieldAnnotations(readMethod.getDeclaringClass()));
+	}
+
+	/**
+	 * The annotations get indexed once, since they are consulted by the inclusion and comparison resolvers for every
+	 * node of the property.
+	 */
+	private static Map<Class<? extends Annotation>, Annotation> indexByType(final Collection<Annotation> annotations)
+	{
+		final Map<Class<? extends Annotation>, Annotation> annotationsByType = new LinkedHashMap<Class<? extends Annotation>, Annotation>(annotations.size());
+		for (final Annotation annotation : annotations)
+		{
+			annotationsByType.put(annotation.annotationType(), annotation);
+		}
+		return annotationsByType;
 	}
 
 	private static Method makeAccessible(final Method method)
@@ -64,7 +84,7 @@ public class PropertyAccessor implements PropertyAwareAccessor
 
 	public final Set<String> getCategoriesFromAnnotation()
 	{
-		final ObjectDiffProperty annotation = readMethod.getAnnotation(ObjectDiffProperty.class);
+		final ObjectDiffProperty annotation = getObjectDiffPropertyAnnotation();
 		if (annotation != null)
 		{
 			return new TreeSet<String>(asList(annotation.categories()));
@@ -74,10 +94,24 @@ public class PropertyAccessor implements PropertyAwareAccessor
 
 	public boolean isExcludedByAnnotation()
 	{
-		final ObjectDiffProperty annotation = readMethod.getAnnotation(ObjectDiffProperty.class);
+		final ObjectDiffProperty annotation = getObjectDiffPropertyAnnotation();
 		return annotation != null && annotation.excluded();
 	}
 
+	/**
+	 * @return The {@link ObjectDiffProperty} annotation of the getter or, if the getter isn't annotated, the one of
+	 * the backing field.
+	 */
+	private ObjectDiffProperty getObjectDiffPropertyAnnotation()
+	{
+		final ObjectDiffProperty annotation = getReadMethodAnnotation(ObjectDiffProperty.class);
+		if (annotation != null)
+		{
+			return annotation;
+		}
+		return getFieldAnnotation(ObjectDiffProperty.class);
+	}
+
 	public String getPropertyName()
 	{
 		return this.propertyName;
@@ -114,7 +148,7 @@ public class PropertyAccessor implements PropertyAwareAccessor
 	 */
 	public Set<Annotation> getFieldAnnotations()
 	{
-		return getFieldAnnotations(readMethod.getDeclaringClass());
+		return new LinkedHashSet<Annotation>(fieldAnnotations.values());
 	}
 
 	/**
@@ -123,17 +157,7 @@ public class PropertyAccessor implements PropertyAwareAccessor
 	 */
 	public <T extends Annotation> T getFieldAnnotation(final Class<T> annotationClass)
 	{
-		final Set<? extends Annotation> annotations = getFieldAnnotations();
-		assert (annotations != null) : "Something is wrong here. " +
-				"The contract of getReadAnnotations() guarantees a non-null return value.";
-		for (final Annotation annotation : annotations)
-		{
-			if (annotationClass.isAssignableFrom(annotation.annotationType()))
-			{
-				return annotationClass.cast(annotation);
-			}
-		}
-		return null;
+		return annotationClass.cast(fieldAnnotations.get(annotationClass));
 	}
 
 	/**
@@ -141,22 +165,12 @@ public class PropertyAccessor implements PropertyAwareAccessor
 	 */
 	public Set<Annotation> getReadMethodAnnotations()
 	{
-		return new LinkedHashSet<Annotation>(asList(readMethod.getAnnotations()));
+		return new LinkedHashSet<Annotation>(readMethodAnnotations.values());
 	}
 
 	public <T extends Annotation> T getReadMethodAnnotation(final Class<T> annotationClass)
 	{
-		final Set<? extends Annotation> annotations = getReadMethodAnnotations();
-		assert (annotations != null) : "Something is wrong here. " +
-				"The contract of getReadAnnotations() guarantees a non-null return value.";
-		for (final Annotation annotation : annotations)
-		{
-			if (annotationClass.isAssignableFrom(annotation.annotationType()))
-			{
-				return annotationClass.cast(annotation);
-			}
-		}
-		return null;
+		return annotationClass.cast(readMethodAnnotations.get(annotationClass));
 	}
 
 	public BeanPropertyElementSelector getElementSelector()
@@ -172,7 +186,7 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		}
 		try
 		{
-			return readMethod.invoke(target);
+			return readMethod.invoke(target, NO_ARGUMENTS);
 		}
 		catch (final Exception cause)
 		{
@@ -235,8 +249,8 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		}
 	}
 
-	private static boolean tryToReplaceCollectionContent(final Collection<Object> target,
-														 final Collection<Object> value)
+	static boolean tryToReplaceCollectionContent(final Collection<Object> target,
+												 final Collection<Object> value)
 	{
 		if (target == null)
 		{
@@ -255,8 +269,8 @@ public class PropertyAccessor implements PropertyAwareAccessor
 		}
 	}
 
-	private static boolean tryToReplaceMapContent(final Map<Object, Object> target,
-												  final Map<Object, Object> value)
+	static boolean tryToReplaceMapContent(final Map<Object, Object> target,
+										  final Map<Object, Object> value)
 	{
 		if (target == null)
 		{
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+import de.danielbechler.diff.instantiation.InstanceFactory;
+import de.danielbechler.diff.instantiation.TypeInfo;
+import de.danielbechler.util.WeakIdentityMap;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe cache for the {@link TypeInfo TypeInfos} produced by {@link Introspector Introspectors}. Since a
+ * {@link TypeInfo} also serves as factory for new instances, they are cached per introspector and {@link
+ * InstanceFactory}, so configurations with different factories can share the same cache. Lookups
+ * don't lock, so a cache shared by concurrent comparisons doesn't turn into a bottleneck. The cached information is
+ * only softly reachable, so the cache doesn't grow beyond what the available memory allows. The types themselves are
+ * only weakly referenced, so their class loaders can be unloaded once the soft references have been cleared.
+ *
+ * @author Daniel Bechler
+ */
+class TypeInfoCache implements TypeInfoCacheStatistics
+{
+	private final WeakIdentityMap<Class<?>, SoftTypeInfos> typeInfos = new WeakIdentityMap<Class<?>, SoftTypeInfos>();
+	private final ReferenceQueue<ConcurrentMap<Key, TypeInfo>> clearedTypeInfos = new ReferenceQueue<ConcurrentMap<Key, TypeInfo>>();
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+
+	/**
+	 * @return The cached {@link TypeInfo} produced by the given introspector for the given instance factory or
+	 * <code>null</code>.
+	 */
+	public TypeInfo get(final Class<?> type, final Introspector introspector, final InstanceFactory instanceFactory)
+	{
+		purgeClearedTypeInfos();
+		final SoftTypeInfos reference = typeInfos.get(type);
+		final ConcurrentMap<Key, TypeInfo> typeInfosByIntrospector = dereference(reference);
+		if (reference != null && typeInfosByIntrospector == null)
+		{
+			typeInfos.remove(type, reference);
+		}
+		final TypeInfo typeInfo = typeInfosByIntrospector != null ? typeInfosByIntrospector.get(new Key(introspector, instanceFactory)) : null;
+		if (typeInfo != null)
+		{
+			hitCount.incrementAndGet();
+		}
+		else
+		{
+			missCount.incrementAndGet();
+		}
+		return typeInfo;
+	}
+
+	/**
+	 * Caches the given {@link TypeInfo}, unless another thread has been faster.
+	 *
+	 * @return The {@link TypeInfo} that ended up in the cache.
+	 */
+	public TypeInfo put(final Class<?> type,
+						final Introspector introspector,
+						final InstanceFactory instanceFactory,
+						final TypeInfo typeInfo)
+	{
+		final TypeInfo existingTypeInfo = typeInfosOf(type).putIfAbsent(new Key(introspector, instanceFactory), typeInfo);
+		return existingTypeInfo != null ? existingTypeInfo : typeInfo;
+	}
+
+	private ConcurrentMap<Key, TypeInfo> typeInfosOf(final Class<?> type)
+	{
+		while (true)
+		{
+			final SoftTypeInfos reference = typeInfos.get(type);
+			final ConcurrentMap<Key, TypeInfo> existingTypeInfos = dereference(reference);
+			if (existingTypeInfos != null)
+			{
+				return existingTypeInfos;
+			}
+			final ConcurrentMap<Key, TypeInfo> typeInfosByIntrospector = new ConcurrentHashMap<Key, TypeInfo>(2);
+			final SoftTypeInfos newReference = new SoftTypeInfos(type, typeInfosByIntrospector, clearedTypeInfos);
+			if (reference == null ? typeInfos.putIfAbsent(type, newReference) == null : typeInfos.replace(type, reference, newReference))
+			{
+				return typeInfosByIntrospector;
+			}
+		}
+	}
+
+	public void invalidate(final Class<?> type)
+	{
+		typeInfos.remove(type);
+	}
+
+	public void invalidateAll()
+	{
+		typeInfos.clear();
+	}
+
+	/**
+	 * Removes the entries whose type infos have been cleared by the garbage collector, unless they have already been
+	 * replaced.
+	 */
+	private void purgeClearedTypeInfos()
+	{
+		Reference<? extends ConcurrentMap<Key, TypeInfo>> reference;
+		while ((reference = clearedTypeInfos.poll()) != null)
+		{
+			final SoftTypeInfos clearedReference = (SoftTypeInfos) reference;
+			final Class<?> type = clearedReference.type.get();
+			if (type != null)
+			{
+				typeInfos.remove(type, clearedReference);
+			}
+		}
+	}
+
+	private static ConcurrentMap<Key, TypeInfo> dereference(final Reference<ConcurrentMap<Key, TypeInfo>> reference)
+	{
+		return reference != null ? reference.get() : null;
+	}
+
+	public long getHitCount()
+	{
+		return hitCount.get();
+	}
+
+	public long getMissCount()
+	{
+		return missCount.get();
+	}
+
+	/**
+	 * @return The number of types whose type infos haven't been cleared by the garbage collector yet.
+	 */
+	public int getSize()
+	{
+		purgeClearedTypeInfos();
+		int size = 0;
+		for (final SoftTypeInfos reference : typeInfos.values())
+		{
+			if (reference.get() != null)
+			{
+				size++;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Only references its type weakly, since the cache must not keep the type alive.
+	 */
+	private static final class SoftTypeInfos extends SoftReference<ConcurrentMap<Key, TypeInfo>>
+	{
+		private final WeakReference<Class<?>> type;
+
+		private SoftTypeInfos(final Class<?> type,
+							  final ConcurrentMap<Key, TypeInfo> typeInfos,
+							  final ReferenceQueue<ConcurrentMap<Key, TypeInfo>> queue)
+		{
+			super(typeInfos, queue);
+			this.type = new WeakReference<Class<?>>(type);
+		}
+	}
+
+	private static final class Key
+	{
+		private final Introspector introspector;
+		private final InstanceFactory instanceFactory;
+
+		private Key(final Introspector introspector, final InstanceFactory instanceFactory)
+		{
+			this.introspector = introspector;
+			this.instanceFactory = instanceFactory;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			if (!(o instanceof Key))
+			{
+				return false;
+			}
+			final Key key = (Key) o;
+			return introspector.equals(key.introspector) && instanceFactory.equals(key.instanceFactory);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return 31 * introspector.hashCode() + instanceFactory.hashCode();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection;
+
+/**
+ * Provides insight into the effectiveness of the cache that holds the results of previous introspections.
+ *
+ * @author Daniel Bechler
+ */
+public interface TypeInfoCacheStatistics
+{
+	/**
+	 * @return The number of lookups that could be served from the cache.
+	 */
+	long getHitCount();
+
+	/**
+	 * @return The number of lookups that required an actual introspection.
+	 */
+	long getMissCount();
+
+	/**
+	 * @return The number of types that currently have cached introspection results.
+	 */
+	int getSize();
+}
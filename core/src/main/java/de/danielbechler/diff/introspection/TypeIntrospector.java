@@ -1,5 +1,5 @@
 /*
- * Copyright 2012 Daniel Bechler
+ * Copyright 2014 Daniel Bechler
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,23 +13,20 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  */
-
-package de.danielbechler.diff.node;
+package de.danielbechler.diff.introspection;
 
 /**
+ * An {@link Introspector} dedicated to one specific type. Implementations listed in
+ * <code>META-INF/services/de.danielbechler.diff.introspection.TypeIntrospector</code> are discovered and registered
+ * automatically by the {@link IntrospectionService}.
+ *
  * @author Daniel Bechler
+ * @see GenerateDiffAccessors
  */
-final class StopVisitationException extends RuntimeException
+public interface TypeIntrospector extends Introspector
 {
-	private static final long serialVersionUID = 1L;
-
-	public StopVisitationException()
-	{
-	}
-
-	@Override
-	public Throwable fillInStackTrace()
-	{
-		return null;
-	}
+	/**
+	 * @return The type this introspector is responsible for.
+	 */
+	Class<?> getType();
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.introspection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Discovers the {@link TypeIntrospector TypeIntrospectors} registered via
+ * <code>META-INF/services/de.danielbechler.diff.introspection.TypeIntrospector</code>. The lookup follows the format
+ * of <code>java.util.ServiceLoader</code>, which is not available in Java 5.
+ * <p/>
+ * Scanning the class path is expensive, so the registered class names are only looked up once per
+ * <code>ClassLoader</code>. Only the names get cached, because the introspector classes would keep their
+ * <code>ClassLoader</code> from being garbage collected.
+ *
+ * @author Daniel Bechler
+ */
+class TypeIntrospectorLoader
+{
+	static final String SERVICE_RESOURCE = "META-INF/services/" + TypeIntrospector.class.getName();
+
+	private static final Logger logger = LoggerFactory.getLogger(TypeIntrospectorLoader.class);
+	private static final Map<ClassLoader, Set<String>> classNamesByClassLoader = Collections.synchronizedMap(new WeakHashMap<ClassLoader, Set<String>>());
+
+	private final ClassLoader classLoader;
+
+	TypeIntrospectorLoader(final ClassLoader classLoader)
+	{
+		this.classLoader = classLoader;
+	}
+
+	static TypeIntrospectorLoader forCurrentContext()
+	{
+		final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+		if (contextClassLoader != null)
+		{
+			return new TypeIntrospectorLoader(contextClassLoader);
+		}
+		return new TypeIntrospectorLoader(TypeIntrospectorLoader.class.getClassLoader());
+	}
+
+	/**
+	 * @return The discovered introspectors by the type they are responsible for. Registrations that can't be
+	 * instantiated are skipped with a warning.
+	 */
+	public Map<Class<?>, Introspector> load()
+	{
+		final Map<Class<?>, Introspector> introspectors = new LinkedHashMap<Class<?>, Introspector>();
+		for (final String className : findClassNames())
+		{
+			try
+			{
+				final TypeIntrospector introspector = Class.forName(className, true, classLoader)
+						.asSubclass(TypeIntrospector.class)
+						.newInstance();
+				introspectors.put(introspector.getType(), introspector);
+			}
+			catch (final Exception e)
+			{
+				logger.warn("Failed to instantiate registered TypeIntrospector '" + className + "'", e);
+			}
+			catch (final LinkageError e)
+			{
+				logger.warn("Failed to load registered TypeIntrospector '" + className + "'", e);
+			}
+		}
+		return introspectors;
+	}
+
+	private Set<String> findClassNames()
+	{
+		Set<String> classNames = classNamesByClassLoader.get(classLoader);
+		if (classNames == null)
+		{
+			classNames = Collections.unmodifiableSet(scanClassNames());
+			classNamesByClassLoader.put(classLoader, classNames);
+		}
+		return classNames;
+	}
+
+	private Set<String> scanClassNames()
+	{
+		final Set<String> classNames = new LinkedHashSet<String>();
+		try
+		{
+			final Enumeration<URL> resources = classLoader.getResources(SERVICE_RESOURCE);
+			while (resources.hasMoreElements())
+			{
+				readClassNames(resources.nextElement(), classNames);
+			}
+		}
+		catch (final IOException e)
+		{
+			logger.warn("Failed to look up registered TypeIntrospectors", e);
+		}
+		return classNames;
+	}
+
+	private static void readClassNames(final URL resource, final Set<String> classNames) throws IOException
+	{
+		final InputStream inputStream = resource.openStream();
+		try
+		{
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+			String line;
+			while ((line = reader.readLine()) != null)
+			{
+				final int commentStart = line.indexOf('#');
+				final String className = (commentStart >= 0 ? line.substring(0, commentStart) : line).trim();
+				if (className.length() > 0)
+				{
+					classNames.add(className);
+				}
+			}
+		}
+		finally
+		{
+			inputStream.close();
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2012 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import de.danielbechler.diff.path.NodePath;
+
+/**
+ * Receives the results of a comparison while it is still running, as an alternative to the {@link DiffNode} tree
+ * returned by {@link de.danielbechler.diff.ObjectDiffer#compare(Object, Object)}. Nodes that have been reported are
+ * not retained, so the memory needed for the comparison only grows with the depth of the object graph, not with
+ * its size.
+ *
+ * @author Daniel Bechler
+ * @see de.danielbechler.diff.ObjectDiffer#compare(Object, Object, DiffListener)
+ */
+public interface DiffListener
+{
+	/**
+	 * Called before the values at the given path get compared.
+	 */
+	void onEnter(NodePath path, Class<?> type);
+
+	/**
+	 * Called for every returnable node that has been added, removed, changed or moved, once its state is known.
+	 * Parents are reported after their children, since their state may depend on them.
+	 */
+	void onChange(NodePath path, DiffNode.State state, Object working, Object base);
+
+	/**
+	 * Called after the values at the given path have been compared.
+	 */
+	void onLeave(NodePath path);
+}
@@ -32,13 +32,13 @@ import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
 
 import java.lang.annotation.Annotation;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import static java.util.Collections.unmodifiableSet;
 
@@ -58,7 +58,9 @@ public class DiffNode
 	public static final DiffNode ROOT = null;
 
 	private final Accessor accessor;
-	private final Map<ElementSelector, DiffNode> children = new LinkedHashMap<ElementSelector, DiffNode>(10);
+	private Map<Object, DiffNode> children;
+	private boolean attached;
+	private int[] descendantStateCounts;
 
 	private State state = State.UNTOUCHED;
 	private DiffNode parentNode;
@@ -67,6 +69,7 @@ public class DiffNode
 	private Class<?> valueType;
 	private TypeInfo valueTypeInfo;
 	private IdentityStrategy childIdentityStrategy;
+	private NodePath path;
 
 	public void setChildIdentityStrategy(final IdentityStrategy identityStrategy)
 	{
@@ -118,7 +121,28 @@ public class DiffNode
 	public void setState(final State state)
 	{
 		Assert.notNull(state, "state");
-		this.state = state;
+		if (this.state != state)
+		{
+			final State previousState = this.state;
+			this.state = state;
+			updateAncestors(previousState, state);
+		}
+	}
+
+	/**
+	 * Moves this node from one state to another in the descendant counters of all the nodes it has (transitively)
+	 * been added to.
+	 */
+	private void updateAncestors(final State previousState, final State state)
+	{
+		DiffNode node = this;
+		while (node.attached)
+		{
+			final DiffNode parent = node.parentNode;
+			parent.descendantStateCounts[previousState.ordinal()]--;
+			parent.descendantStateCounts[state.ordinal()]++;
+			node = parent;
+		}
 	}
 
 	public boolean matches(final NodePath path)
@@ -128,23 +152,23 @@ public class DiffNode
 
 	public boolean hasChanges()
 	{
-		if (isAdded() || isChanged() || isRemoved())
+		if (isAdded() || isChanged() || isRemoved() || isMoved())
 		{
 			return true;
 		}
-		final AtomicBoolean result = new AtomicBoolean(false);
-		visitChildren(new Visitor()
-		{
-			public void node(final DiffNode node, final Visit visit)
-			{
-				if (node.hasChanges())
-				{
-					result.set(true);
-					visit.stop();
-				}
-			}
-		});
-		return result.get();
+		return descendantCount(State.ADDED) > 0
+				|| descendantCount(State.CHANGED) > 0
+				|| descendantCount(State.REMOVED) > 0
+				|| descendantCount(State.MOVED) > 0;
+	}
+
+	/**
+	 * @return The number of nodes below this one (children, their children and so on) with the given state.
+	 */
+	public int descendantCount(final State state)
+	{
+		Assert.notNull(state, "state");
+		return descendantStateCounts != null ? descendantStateCounts[state.ordinal()] : 0;
 	}
 
 	/**
@@ -171,6 +195,14 @@ public class DiffNode
 		return state == State.REMOVED;
 	}
 
+	/**
+	 * Convenience method for <code>{@link #getState()} == {@link DiffNode.State#MOVED}</code>
+	 */
+	public final boolean isMoved()
+	{
+		return state == State.MOVED;
+	}
+
 	/**
 	 * Convenience method for <code>{@link #getState()} == {@link DiffNode.State#UNTOUCHED}</code>
 	 */
@@ -191,6 +223,15 @@ public class DiffNode
 	 * @return The absolute property path from the object root up to this node.
 	 */
 	public NodePath getPath()
+	{
+		if (path == null)
+		{
+			path = createPath();
+		}
+		return path;
+	}
+
+	private NodePath createPath()
 	{
 		if (parentNode != null)
 		{
@@ -259,12 +300,12 @@ public class DiffNode
 	 */
 	public boolean hasChildren()
 	{
-		return !children.isEmpty();
+		return children != null && !children.isEmpty();
 	}
 
 	public int childCount()
 	{
-		return children.size();
+		return children != null ? children.size() : 0;
 	}
 
 	/**
@@ -286,14 +327,32 @@ public class DiffNode
 	 */
 	public DiffNode getChild(final ElementSelector elementSelector)
 	{
-		if (elementSelector instanceof CollectionItemElementSelector && childIdentityStrategy != null)
+		if (children == null)
 		{
-			return children.get(((CollectionItemElementSelector) elementSelector).copyWithIdentityStrategy(childIdentityStrategy));
+			return null;
 		}
 		else
 		{
-			return children.get(elementSelector);
+			return children.get(childKey(elementSelector));
+		}
+	}
+
+	/**
+	 * Collection items are looked up via the child identity strategy. As their selectors all share the same hash
+	 * code, they get wrapped in a key that hashes them via the strategy.
+	 */
+	private Object childKey(final ElementSelector elementSelector)
+	{
+		if (elementSelector instanceof CollectionItemElementSelector)
+		{
+			final CollectionItemElementSelector collectionItemElementSelector = (CollectionItemElementSelector) elementSelector;
+			if (childIdentityStrategy != null)
+			{
+				return new CollectionItemKey(collectionItemElementSelector.copyWithIdentityStrategy(childIdentityStrategy));
+			}
+			return new CollectionItemKey(collectionItemElementSelector);
 		}
+		return elementSelector;
 	}
 
 	/**
@@ -381,10 +440,57 @@ public class DiffNode
 		{
 			node.setParentNode(this);
 		}
-		children.put(node.getElementSelector(), node);
+		if (children == null)
+		{
+			// most nodes never get any children, so the map is only created when it is actually needed
+			children = new LinkedHashMap<Object, DiffNode>(10);
+		}
+		final DiffNode replacedNode = children.put(childKey(node.getElementSelector()), node);
+		if (replacedNode != node)
+		{
+			if (replacedNode != null)
+			{
+				replacedNode.attached = false;
+				addToDescendantStateCounts(replacedNode, -1);
+			}
+			node.attached = true;
+			addToDescendantStateCounts(node, 1);
+		}
 		if (state == State.UNTOUCHED && node.hasChanges())
 		{
-			state = State.CHANGED;
+			setState(State.CHANGED);
+		}
+	}
+
+	/**
+	 * Adds (or with a negative sign subtracts) the given node and all of its descendants to the descendant counters
+	 * of this node and all the nodes it has (transitively) been added to.
+	 */
+	private void addToDescendantStateCounts(final DiffNode node, final int sign)
+	{
+		DiffNode ancestor = this;
+		while (true)
+		{
+			if (ancestor.descendantStateCounts == null)
+			{
+				ancestor.descendantStateCounts = new int[State.values().length];
+			}
+			if (node.state != null)
+			{
+				ancestor.descendantStateCounts[node.state.ordinal()] += sign;
+			}
+			if (node.descendantStateCounts != null)
+			{
+				for (int i = 0; i < node.descendantStateCounts.length; i++)
+				{
+					ancestor.descendantStateCounts[i] += sign * node.descendantStateCounts[i];
+				}
+			}
+			if (!ancestor.attached)
+			{
+				return;
+			}
+			ancestor = ancestor.parentNode;
 		}
 	}
 
@@ -395,34 +501,24 @@ public class DiffNode
 	 */
 	public final void visit(final Visitor visitor)
 	{
-		final Visit visit = new Visit();
-		try
-		{
-			visit(visitor, visit);
-		}
-		catch (final StopVisitationException ignored)
-		{
-		}
+		visit(visitor, new Visit());
+	}
+
+	/**
+	 * Visit this and all child nodes in the given order.
+	 *
+	 * @param visitor The visitor to use.
+	 * @param order   The order in which the nodes should be visited.
+	 */
+	public final void visit(final Visitor visitor, final TraversalOrder order)
+	{
+		Assert.notNull(order, "order");
+		NodeTraversal.traverse(this, visitor, new Visit(), order, true);
 	}
 
 	protected final void visit(final Visitor visitor, final Visit visit)
 	{
-		try
-		{
-			visitor.node(this, visit);
-		}
-		catch (final StopVisitationException e)
-		{
-			visit.stop();
-		}
-		if (visit.isAllowedToGoDeeper() && hasChildren())
-		{
-			visitChildren(visitor);
-		}
-		if (visit.isStopped())
-		{
-			throw new StopVisitationException();
-		}
+		NodeTraversal.traverse(this, visitor, visit, TraversalOrder.PRE_ORDER, true);
 	}
 
 	/**
@@ -432,30 +528,34 @@ public class DiffNode
 	 */
 	public final void visitChildren(final Visitor visitor)
 	{
-		for (final DiffNode child : children.values())
+		if (hasChildren())
 		{
-			try
-			{
-				child.visit(visitor);
-			}
-			catch (final StopVisitationException e)
-			{
-				return;
-			}
+			NodeTraversal.traverse(this, visitor, new Visit(), TraversalOrder.PRE_ORDER, false);
 		}
 	}
 
 	public final void visitParents(final Visitor visitor)
 	{
 		final Visit visit = new Visit();
-		if (parentNode != null)
+		DiffNode node = parentNode;
+		while (node != null)
 		{
-			visitor.node(parentNode, visit);
-			if (!visit.isStopped())
+			visitor.node(node, visit);
+			if (visit.isStopped())
 			{
-				parentNode.visitParents(visitor);
+				return;
 			}
+			node = node.parentNode;
+		}
+	}
+
+	Collection<DiffNode> getChildren()
+	{
+		if (children == null)
+		{
+			return Collections.emptyList();
 		}
+		return children.values();
 	}
 
 	/**
@@ -612,6 +712,7 @@ public class DiffNode
 			throw new IllegalStateException("The parent of a node cannot be changed, once it's set.");
 		}
 		this.parentNode = parentNode;
+		this.path = null;
 	}
 
 	public Object get(final Object target)
@@ -767,7 +868,8 @@ public class DiffNode
 		UNTOUCHED("The value is identical in the working and base object"),
 		CIRCULAR("Special state to mark circular references"),
 		IGNORED("The value has not been looked at and has been ignored"),
-		INACCESSIBLE("When a comparison was not possible because the underlying value was not accessible");
+		INACCESSIBLE("When a comparison was not possible because the underlying value was not accessible"),
+		MOVED("The value has been moved to another position of an ordered collection");
 
 		private final String reason;
 
@@ -789,4 +891,28 @@ public class DiffNode
 	{
 		void node(DiffNode node, Visit visit);
 	}
+
+	private static final class CollectionItemKey
+	{
+		private final CollectionItemElementSelector elementSelector;
+		private final int hashCode;
+
+		CollectionItemKey(final CollectionItemElementSelector elementSelector)
+		{
+			this.elementSelector = elementSelector;
+			this.hashCode = elementSelector.identityStrategyHashCode();
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			return this == o || o instanceof CollectionItemKey && elementSelector.equals(((CollectionItemKey) o).elementSelector);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+	}
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Walks a tree of {@link DiffNode DiffNodes} with an explicit stack (or queue) instead of recursion, so that the
+ * depth of the tree is only limited by the available heap. Stopping the visit or skipping the children of a node is
+ * signaled via the {@link Visit}, so neither requires an exception.
+ *
+ * @author Daniel Bechler
+ */
+final class NodeTraversal
+{
+	private NodeTraversal()
+	{
+	}
+
+	/**
+	 * @param includeStartNode Whether the given node itself should be passed to the visitor or only its
+	 *                         descendants.
+	 */
+	static void traverse(final DiffNode startNode,
+						 final DiffNode.Visitor visitor,
+						 final Visit visit,
+						 final TraversalOrder order,
+						 final boolean includeStartNode)
+	{
+		switch (order)
+		{
+			case PRE_ORDER:
+				traversePreOrder(startNode, visitor, visit, includeStartNode);
+				break;
+			case POST_ORDER:
+				traversePostOrder(startNode, visitor, visit, includeStartNode);
+				break;
+			case BREADTH_FIRST:
+				traverseBreadthFirst(startNode, visitor, visit, includeStartNode);
+				break;
+			default:
+				throw new IllegalArgumentException("Unsupported traversal order: " + order);
+		}
+	}
+
+	private static void traversePreOrder(final DiffNode startNode,
+										 final DiffNode.Visitor visitor,
+										 final Visit visit,
+										 final boolean includeStartNode)
+	{
+		if (includeStartNode && !visitAndCheckDescent(startNode, visitor, visit))
+		{
+			return;
+		}
+		final List<Iterator<DiffNode>> stack = new ArrayList<Iterator<DiffNode>>();
+		stack.add(childrenOf(startNode));
+		while (!stack.isEmpty())
+		{
+			final Iterator<DiffNode> children = stack.get(stack.size() - 1);
+			if (children.hasNext())
+			{
+				final DiffNode child = children.next();
+				if (visitAndCheckDescent(child, visitor, visit))
+				{
+					stack.add(childrenOf(child));
+				}
+				else if (visit.isStopped())
+				{
+					return;
+				}
+			}
+			else
+			{
+				stack.remove(stack.size() - 1);
+			}
+		}
+	}
+
+	private static void traversePostOrder(final DiffNode startNode,
+										  final DiffNode.Visitor visitor,
+										  final Visit visit,
+										  final boolean includeStartNode)
+	{
+		final List<DiffNode> nodes = new ArrayList<DiffNode>();
+		final List<Iterator<DiffNode>> stack = new ArrayList<Iterator<DiffNode>>();
+		nodes.add(startNode);
+		stack.add(childrenOf(startNode));
+		while (!stack.isEmpty())
+		{
+			final int top = stack.size() - 1;
+			final Iterator<DiffNode> children = stack.get(top);
+			if (children.hasNext())
+			{
+				final DiffNode child = children.next();
+				nodes.add(child);
+				stack.add(childrenOf(child));
+			}
+			else
+			{
+				stack.remove(top);
+				final DiffNode node = nodes.remove(top);
+				if (node != startNode || includeStartNode)
+				{
+					visitor.node(node, visit);
+					if (visit.isStopped())
+					{
+						return;
+					}
+					visit.resume();
+				}
+			}
+		}
+	}
+
+	private static void traverseBreadthFirst(final DiffNode startNode,
+											 final DiffNode.Visitor visitor,
+											 final Visit visit,
+											 final boolean includeStartNode)
+	{
+		final LinkedList<DiffNode> queue = new LinkedList<DiffNode>();
+		if (includeStartNode)
+		{
+			queue.add(startNode);
+		}
+		else
+		{
+			addChildren(startNode, queue);
+		}
+		while (!queue.isEmpty())
+		{
+			final DiffNode node = queue.removeFirst();
+			if (visitAndCheckDescent(node, visitor, visit))
+			{
+				addChildren(node, queue);
+			}
+			else if (visit.isStopped())
+			{
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return <code>true</code> if the children of the given node should be visited as well.
+	 */
+	private static boolean visitAndCheckDescent(final DiffNode node, final DiffNode.Visitor visitor, final Visit visit)
+	{
+		visitor.node(node, visit);
+		if (visit.isStopped())
+		{
+			return false;
+		}
+		final boolean descend = visit.isAllowedToGoDeeper();
+		visit.resume();
+		return descend;
+	}
+
+	private static Iterator<DiffNode> childrenOf(final DiffNode node)
+	{
+		if (node.hasChildren())
+		{
+			return node.getChildren().iterator();
+		}
+		return Collections.<DiffNode>emptyList().iterator();
+	}
+
+	private static void addChildren(final DiffNode node, final LinkedList<DiffNode> queue)
+	{
+		if (node.hasChildren())
+		{
+			queue.addAll(node.getChildren());
+		}
+	}
+}
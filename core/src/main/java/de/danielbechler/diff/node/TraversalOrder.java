@@ -0,0 +1,42 @@
+/*
+ * Copyright 2012 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.node;
+
+/**
+ * The order in which {@link DiffNode#visit(DiffNode.Visitor, TraversalOrder)} passes the nodes of a tree to a
+ * {@link DiffNode.Visitor}.
+ *
+ * @author Daniel Bechler
+ */
+public enum TraversalOrder
+{
+	/**
+	 * Every node is visited before its children. This is the order used by {@link DiffNode#visit(DiffNode.Visitor)}.
+	 */
+	PRE_ORDER,
+
+	/**
+	 * Every node is visited after its children. Since the children have already been visited by then, {@link
+	 * Visit#dontGoDeeper()} has no effect.
+	 */
+	POST_ORDER,
+
+	/**
+	 * The nodes are visited level by level, starting with the ones closest to the node the visit started at.
+	 */
+	BREADTH_FIRST
+}
@@ -49,4 +49,15 @@ public final class Visit
 	{
 		return state == State.CONTINUE;
 	}
+
+	/**
+	 * Allows the next node to go deeper again, unless the visit has been stopped.
+	 */
+	void resume()
+	{
+		if (state == State.CONTINUE_BUT_DO_NOT_GO_DEEPER)
+		{
+			state = State.CONTINUE;
+		}
+	}
 }
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.parallel;
+
+import de.danielbechler.diff.ObjectDifferBuilder;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Allows to compare large object graphs on multiple threads. By default everything is compared on the calling
+ * thread. Once an {@link Executor} has been configured, the items of collections and maps get compared in parallel,
+ * whenever there are at least as many of them as the configured threshold. The properties of beans are only compared
+ * in parallel, if that has been enabled explicitly, since most beans have far too few properties for the effort of
+ * forking to pay off.
+ * <p/>
+ * The resulting node tree is exactly the same as it would be without parallelism. The children of every node keep
+ * their order and circular references are detected along each path, no matter on which thread it gets compared.
+ * Custom comparison strategies, differs and introspectors must be thread-safe in order to use this feature.
+ *
+ * @author Daniel Bechler
+ */
+public interface ParallelismConfigurer
+{
+	/**
+	 * Enables parallel comparison using the given executor. Passing <code>null</code> disables it again.
+	 */
+	ParallelismConfigurer useExecutor(Executor executor);
+
+	/**
+	 * Sets the minimum number of items or entries a collection or map needs to have for them to be compared in
+	 * parallel. Defaults to {@value ParallelismService#DEFAULT_FORK_THRESHOLD}.
+	 */
+	ParallelismConfigurer forkWhenAtLeast(int elementCount);
+
+	/**
+	 * Enables the parallel comparison of bean properties for beans with at least the given number of properties. By
+	 * default the properties of beans are always compared sequentially.
+	 */
+	ParallelismConfigurer forkBeansWhenAtLeast(int propertyCount);
+
+	/**
+	 * Sets the maximum number of partitions the children of a single node get split into. Defaults to the number of
+	 * available processors.
+	 */
+	ParallelismConfigurer splitIntoAtMost(int partitionCount);
+
+	ObjectDifferBuilder and();
+}
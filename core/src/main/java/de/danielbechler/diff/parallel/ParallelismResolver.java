@@ -0,0 +1,42 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.parallel;
+
+import java.util.concurrent.Executor;
+
+/**
+ * @author Daniel Bechler
+ */
+public interface ParallelismResolver
+{
+	/**
+	 * @return The executor to compare child nodes with or <code>null</code> if they should be compared sequentially.
+	 */
+	Executor getExecutor();
+
+	/**
+	 * @return The minimum number of items or entries a collection or map needs to have for them to be compared in
+	 * parallel.
+	 */
+	int getForkThreshold();
+
+	/**
+	 * @return The minimum number of properties a bean needs to have for them to be compared in parallel.
+	 */
+	int getBeanForkThreshold();
+
+	int getMaxPartitionCount();
+}
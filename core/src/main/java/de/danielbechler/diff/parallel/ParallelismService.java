@@ -0,0 +1,119 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.parallel;
+
+import de.danielbechler.diff.ObjectDifferBuilder;
+import de.danielbechler.util.Assert;
+
+import java.util.concurrent.Executor;
+
+/**
+ * @author Daniel Bechler
+ */
+public class ParallelismService implements ParallelismConfigurer, ParallelismResolver
+{
+	public static final int DEFAULT_FORK_THRESHOLD = 256;
+
+	private final ObjectDifferBuilder objectDifferBuilder;
+	private volatile Executor executor;
+	private volatile int forkThreshold = DEFAULT_FORK_THRESHOLD;
+	private volatile int beanForkThreshold = Integer.MAX_VALUE;
+	private volatile int maxPartitionCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+	public ParallelismService(final ObjectDifferBuilder objectDifferBuilder)
+	{
+		Assert.notNull(objectDifferBuilder, "objectDifferBuilder");
+		this.objectDifferBuilder = objectDifferBuilder;
+	}
+
+	private ParallelismService(final ParallelismService parallelismService)
+	{
+		this.objectDifferBuilder = parallelismService.objectDifferBuilder;
+		this.executor = parallelismService.executor;
+		this.forkThreshold = parallelismService.forkThreshold;
+		this.beanForkThreshold = parallelismService.beanForkThreshold;
+		this.maxPartitionCount = parallelismService.maxPartitionCount;
+	}
+
+	/**
+	 * @return A copy of the current configuration, which is unaffected by any further changes to this service.
+	 */
+	public ParallelismService snapshot()
+	{
+		return new ParallelismService(this);
+	}
+
+	public ParallelismConfigurer useExecutor(final Executor executor)
+	{
+		this.executor = executor;
+		return this;
+	}
+
+	public ParallelismConfigurer forkWhenAtLeast(final int elementCount)
+	{
+		if (elementCount < 2)
+		{
+			throw new IllegalArgumentException("elementCount must be at least 2");
+		}
+		this.forkThreshold = elementCount;
+		return this;
+	}
+
+	public ParallelismConfigurer forkBeansWhenAtLeast(final int propertyCount)
+	{
+		if (propertyCount < 2)
+		{
+			throw new IllegalArgumentException("propertyCount must be at least 2");
+		}
+		this.beanForkThreshold = propertyCount;
+		return this;
+	}
+
+	public ParallelismConfigurer splitIntoAtMost(final int partitionCount)
+	{
+		if (partitionCount < 2)
+		{
+			throw new IllegalArgumentException("partitionCount must be at least 2");
+		}
+		this.maxPartitionCount = partitionCount;
+		return this;
+	}
+
+	public ObjectDifferBuilder and()
+	{
+		return objectDifferBuilder;
+	}
+
+	public Executor getExecutor()
+	{
+		return executor;
+	}
+
+	public int getForkThreshold()
+	{
+		return forkThreshold;
+	}
+
+	public int getBeanForkThreshold()
+	{
+		return beanForkThreshold;
+	}
+
+	public int getMaxPartitionCount()
+	{
+		return maxPartitionCount;
+	}
+}
@@ -23,58 +23,103 @@ import de.danielbechler.diff.selector.MapKeyElementSelector;
 import de.danielbechler.diff.selector.RootElementSelector;
 import de.danielbechler.util.Assert;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
+ * An immutable path from the root of an object graph to one of its nodes. Every path links to the path of its parent,
+ * so appending an element is cheap and paths of sibling nodes share their common prefix. The hash code is computed
+ * once, when the path gets created.
+ *
  * @author Daniel Bechler
  */
 public final class NodePath implements Comparable<NodePath>
 {
-	private final List<ElementSelector> elementSelectors;
+	private static final NodePath ROOT = new NodePath(null, RootElementSelector.getInstance());
+
+	private final NodePath parentPath;
+	private final ElementSelector elementSelector;
+	private final int depth;
+	private final int hashCode;
+	private volatile List<ElementSelector> elementSelectors;
 
-	private NodePath(final List<ElementSelector> elementSelectors)
+	private NodePath(final NodePath parentPath, final ElementSelector elementSelector)
 	{
-		this.elementSelectors = Collections.unmodifiableList(elementSelectors);
+		this.parentPath = parentPath;
+		this.elementSelector = elementSelector;
+		if (parentPath != null)
+		{
+			this.depth = parentPath.depth + 1;
+			this.hashCode = 31 * parentPath.hashCode + elementSelector.hashCode();
+		}
+		else
+		{
+			this.depth = 1;
+			this.hashCode = 31 + elementSelector.hashCode();
+		}
 	}
 
 	public boolean isParentOf(final NodePath nodePath)
 	{
-		final List<ElementSelector> otherElementSelectors = nodePath.getElementSelectors();
-		if (elementSelectors.size() < otherElementSelectors.size())
-		{
-			return otherElementSelectors.subList(0, elementSelectors.size()).equals(elementSelectors);
-		}
-		return false;
+		return depth < nodePath.depth && equals(nodePath.ancestorWithDepth(depth));
 	}
 
+	/**
+	 * @return A view of the element selectors from the root up to the last element of this path. It gets
+	 * materialized on first access.
+	 */
 	public List<ElementSelector> getElementSelectors()
 	{
+		List<ElementSelector> elementSelectors = this.elementSelectors;
+		if (elementSelectors == null)
+		{
+			elementSelectors = new ElementSelectorList(this);
+			this.elementSelectors = elementSelectors;
+		}
 		return elementSelectors;
 	}
 
 	public boolean isChildOf(final NodePath nodePath)
 	{
-		final List<ElementSelector> otherElementSelectors = nodePath.getElementSelectors();
-		if (elementSelectors.size() > otherElementSelectors.size())
-		{
-			return elementSelectors.subList(0, otherElementSelectors.size()).equals(otherElementSelectors);
-		}
-		return false;
+		return depth > nodePath.depth && ancestorWithDepth(nodePath.depth).equals(nodePath);
 	}
 
 	public ElementSelector getLastElementSelector()
 	{
-		return elementSelectors.get(elementSelectors.size() - 1);
+		return elementSelector;
+	}
+
+	/**
+	 * @return The path this one has been built on or <code>null</code>, if this is the root path.
+	 */
+	NodePath getParentPath()
+	{
+		return parentPath;
+	}
+
+	/**
+	 * @return The number of elements of this path, including the root element.
+	 */
+	int getDepth()
+	{
+		return depth;
+	}
+
+	NodePath ancestorWithDepth(final int depth)
+	{
+		NodePath ancestor = this;
+		while (ancestor.depth > depth)
+		{
+			ancestor = ancestor.parentPath;
+		}
+		return ancestor;
 	}
 
 	@Override
 	public int hashCode()
 	{
-		return elementSelectors.hashCode();
+		return hashCode;
 	}
 
 	@Override
@@ -89,13 +134,21 @@ public final class NodePath implements Comparable<NodePath>
 			return false;
 		}
 
-		final NodePath that = (NodePath) o;
-
-		if (!elementSelectors.equals(that.elementSelectors))
+		NodePath path = this;
+		NodePath otherPath = (NodePath) o;
+		if (path.hashCode != otherPath.hashCode || path.depth != otherPath.depth)
 		{
 			return false;
 		}
-
+		while (path != otherPath)
+		{
+			if (!path.elementSelector.equals(otherPath.elementSelector))
+			{
+				return false;
+			}
+			path = path.parentPath;
+			otherPath = otherPath.parentPath;
+		}
 		return true;
 	}
 
@@ -103,7 +156,7 @@ public final class NodePath implements Comparable<NodePath>
 	public String toString()
 	{
 		final StringBuilder sb = new StringBuilder();
-		final Iterator<ElementSelector> iterator = elementSelectors.iterator();
+		final Iterator<ElementSelector> iterator = getElementSelectors().iterator();
 		ElementSelector previousElementSelector = null;
 		while (iterator.hasNext())
 		{
@@ -132,7 +185,7 @@ public final class NodePath implements Comparable<NodePath>
 
 	public int compareTo(final NodePath that)
 	{
-		final int distance = getElementSelectors().size() - that.getElementSelectors().size();
+		final int distance = depth - that.depth;
 		if (distance == 0)
 		{
 			return matches(that) ? 0 : 1;
@@ -155,7 +208,7 @@ public final class NodePath implements Comparable<NodePath>
 	public static AppendableBuilder startBuildingFrom(final NodePath nodePath)
 	{
 		Assert.notNull(nodePath, "propertyPath");
-		return new AppendableBuilderImpl(new ArrayList<ElementSelector>(nodePath.getElementSelectors()));
+		return new AppendableBuilderImpl(nodePath);
 	}
 
 	public static NodePath with(final String propertyName, final String... additionalPropertyNames)
@@ -165,14 +218,12 @@ public final class NodePath implements Comparable<NodePath>
 
 	public static AppendableBuilder startBuilding()
 	{
-		final List<ElementSelector> elementSelectors1 = new LinkedList<ElementSelector>();
-		elementSelectors1.add(RootElementSelector.getInstance());
-		return new AppendableBuilderImpl(elementSelectors1);
+		return new AppendableBuilderImpl(ROOT);
 	}
 
 	public static NodePath withRoot()
 	{
-		return startBuilding().build();
+		return ROOT;
 	}
 
 	public static interface AppendableBuilder
@@ -190,73 +241,91 @@ public final class NodePath implements Comparable<NodePath>
 
 	private static final class AppendableBuilderImpl implements AppendableBuilder
 	{
-		private final List<ElementSelector> elementSelectors;
+		private NodePath nodePath;
+		private boolean multipleRootElements;
 
-		public AppendableBuilderImpl(final List<ElementSelector> elementSelectors)
+		public AppendableBuilderImpl(final NodePath nodePath)
 		{
-			Assert.notEmpty(elementSelectors, "elementSelectors");
-			this.elementSelectors = new LinkedList<ElementSelector>(elementSelectors);
+			this.nodePath = nodePath;
 		}
 
 		public AppendableBuilder element(final ElementSelector elementSelector)
 		{
 			Assert.notNull(elementSelector, "elementSelector");
-			elementSelectors.add(elementSelector);
+			append(elementSelector);
 			return this;
 		}
 
 		public AppendableBuilder propertyName(final String name, final String... names)
 		{
-			elementSelectors.add(new BeanPropertyElementSelector(name));
+			append(new BeanPropertyElementSelector(name));
 			for (final String s : names)
 			{
-				elementSelectors.add(new BeanPropertyElementSelector(s));
+				append(new BeanPropertyElementSelector(s));
 			}
 			return this;
 		}
 
 		public <T> AppendableBuilder collectionItem(final T item)
 		{
-			elementSelectors.add(new CollectionItemElementSelector(item));
+			append(new CollectionItemElementSelector(item));
 			return this;
 		}
 
 		public <K> AppendableBuilder mapKey(final K key)
 		{
 			Assert.notNull(key, "key");
-			elementSelectors.add(new MapKeyElementSelector(key));
+			append(new MapKeyElementSelector(key));
 			return this;
 		}
 
-		public NodePath build()
+		private void append(final ElementSelector elementSelector)
 		{
-			if (elementSelectors.isEmpty())
-			{
-				throw new IllegalStateException("A property path cannot be empty");
-			}
-			else if (!(elementSelectors.get(0) instanceof RootElementSelector))
+			if (elementSelector instanceof RootElementSelector)
 			{
-				throw new IllegalStateException("A property path must start with a root element");
+				multipleRootElements = true;
 			}
-			else if (elementCount(RootElementSelector.class) > 1)
+			nodePath = new NodePath(nodePath, elementSelector);
+		}
+
+		public NodePath build()
+		{
+			if (multipleRootElements)
 			{
 				throw new IllegalStateException("A property path cannot contain multiple root elements");
 			}
-			return new NodePath(elementSelectors);
+			return nodePath;
 		}
+	}
 
-		private int elementCount(final Class<? extends ElementSelector> type)
+	/**
+	 * Read-only list view of the element selectors of a path, which gets copied into an array once it's created.
+	 */
+	private static final class ElementSelectorList extends AbstractList<ElementSelector>
+	{
+		private final ElementSelector[] elementSelectors;
+
+		ElementSelectorList(final NodePath nodePath)
 		{
-			assert type != null : "Type must not be null";
-			int count = 0;
-			for (final ElementSelector elementSelector : elementSelectors)
+			elementSelectors = new ElementSelector[nodePath.depth];
+			NodePath path = nodePath;
+			for (int i = elementSelectors.length - 1; i >= 0; i--)
 			{
-				if (type.isAssignableFrom(elementSelector.getClass()))
-				{
-					count++;
-				}
+				elementSelectors[i] = path.elementSelector;
+				path = path.parentPath;
 			}
-			return count;
+		}
+
+		@Override
+		public ElementSelector get(final int index)
+		{
+			return elementSelectors[index];
+		}
+
+		@Override
+		public int size()
+		{
+			return elementSelectors.length;
 		}
 	}
 }
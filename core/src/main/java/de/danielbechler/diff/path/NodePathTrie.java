@@ -0,0 +1,170 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.path;
+
+import de.danielbechler.diff.selector.ElementSelector;
+import de.danielbechler.util.Assert;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Collections.emptyMap;
+import static java.util.Collections.unmodifiableMap;
+
+/**
+ * An immutable trie compiled from the {@link ValueNode ValueNodes} that hold the {@link NodePath} based parts of the
+ * configuration. Every node stores the precomputed answer for its own path and the answer for all the paths below it,
+ * that have no node of their own. Lookups therefore never modify the trie and don't allocate, since they follow the
+ * parent links of the {@link NodePath} instead of materializing its elements, which makes a compiled trie safe to
+ * share between threads.
+ * <p>
+ * Compiling a trie walks all the rules, so the services holding NodePath based configuration only compile it once
+ * the configuration is used, instead of after every single change, and pass the compiled trie on to their snapshots.
+ *
+ * @author Daniel Bechler
+ */
+public final class NodePathTrie<T>
+{
+	private static final NodePathTrie<?> EMPTY = new NodePathTrie<Object>(1, null, null, NodePathTrie.<Object>noChildren());
+
+	private final int depth;
+	private final T value;
+	private final T valueBelow;
+	private final Map<ElementSelector, NodePathTrie<T>> children;
+
+	private NodePathTrie(final int depth,
+						 final T value,
+						 final T valueBelow,
+						 final Map<ElementSelector, NodePathTrie<T>> children)
+	{
+		this.depth = depth;
+		this.value = value;
+		this.valueBelow = valueBelow;
+		this.children = children;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static <T> NodePathTrie<T> empty()
+	{
+		return (NodePathTrie<T>) EMPTY;
+	}
+
+	/**
+	 * Compiles a trie that returns the value of the rule registered for exactly the given path and
+	 * <code>null</code> for all other paths.
+	 */
+	public static <T> NodePathTrie<T> compile(final ValueNode<T> rules)
+	{
+		return compile(rules, new Compiler<T, T>()
+		{
+			public T valueFor(final ValueNode<T> rule)
+			{
+				return rule.getValue();
+			}
+
+			public T valueBelow(final ValueNode<T> rule)
+			{
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Compiles a trie whose answers are computed once per rule by the given {@link Compiler}.
+	 *
+	 * @param rules The root of the rules to compile.
+	 */
+	public static <V, T> NodePathTrie<T> compile(final ValueNode<V> rules, final Compiler<V, T> compiler)
+	{
+		Assert.notNull(rules, "rules");
+		Assert.notNull(compiler, "compiler");
+		return compileNode(rules, compiler, 1);
+	}
+
+	private static <V, T> NodePathTrie<T> compileNode(final ValueNode<V> rule,
+													  final Compiler<V, T> compiler,
+													  final int depth)
+	{
+		final Collection<ValueNode<V>> childRules = rule.getChildren();
+		final Map<ElementSelector, NodePathTrie<T>> children;
+		if (childRules.isEmpty())
+		{
+			children = noChildren();
+		}
+		else
+		{
+			final Map<ElementSelector, NodePathTrie<T>> compiledChildren = new HashMap<ElementSelector, NodePathTrie<T>>(childRules.size() * 2);
+			for (final ValueNode<V> childRule : childRules)
+			{
+				compiledChildren.put(childRule.getElementSelector(), compileNode(childRule, compiler, depth + 1));
+			}
+			children = unmodifiableMap(compiledChildren);
+		}
+		return new NodePathTrie<T>(depth, compiler.valueFor(rule), compiler.valueBelow(rule), children);
+	}
+
+	private static <T> Map<ElementSelector, NodePathTrie<T>> noChildren()
+	{
+		return emptyMap();
+	}
+
+	/**
+	 * @return The answer for the given path. The first element of the path is expected to be the root element, just
+	 * like the root of the compiled {@link ValueNode ValueNodes} stands for it.
+	 */
+	public T valueForNodePath(final NodePath nodePath)
+	{
+		final NodePathTrie<T> node = children.isEmpty() ? this : deepestNodeFor(nodePath);
+		return node.depth == nodePath.getDepth() ? node.value : node.valueBelow;
+	}
+
+	/**
+	 * @return The node of the longest prefix of the given path, that is covered by this trie.
+	 */
+	private NodePathTrie<T> deepestNodeFor(final NodePath nodePath)
+	{
+		final NodePath parentPath = nodePath.getParentPath();
+		if (parentPath == null)
+		{
+			return this;
+		}
+		final NodePathTrie<T> parentNode = deepestNodeFor(parentPath);
+		if (parentNode.depth < parentPath.getDepth())
+		{
+			return parentNode;
+		}
+		final NodePathTrie<T> child = parentNode.children.get(nodePath.getLastElementSelector());
+		return child != null ? child : parentNode;
+	}
+
+	/**
+	 * Computes the answers a {@link NodePathTrie} returns for the paths of the compiled rules.
+	 */
+	public interface Compiler<V, T>
+	{
+		/**
+		 * @return The answer for the path of the given rule.
+		 */
+		T valueFor(ValueNode<V> rule);
+
+		/**
+		 * @return The answer for every path below the given rule, that isn't covered by a more specific rule.
+		 */
+		T valueBelow(ValueNode<V> rule);
+	}
+}
@@ -14,16 +14,18 @@
  * limitations under the License.
  */
 
-package de.danielbechler.diff.inclusion;
+package de.danielbechler.diff.path;
 
-import de.danielbechler.diff.path.NodePath;
 import de.danielbechler.diff.selector.ElementSelector;
 import de.danielbechler.diff.selector.RootElementSelector;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import static java.util.Collections.unmodifiableCollection;
+
 /**
  * INTERNAL CLASS. DON'T USE UNLESS YOU ARE READY TO DEAL WITH API CHANGES
  */
@@ -45,6 +47,28 @@ public class ValueNode<V>
 		this.parent = parent;
 	}
 
+	/**
+	 * @return A deep copy of this node and its children, which is unaffected by any further changes to this one.
+	 * The copy has no parent, so it should be made from a root node.
+	 */
+	public ValueNode<V> copy()
+	{
+		final ValueNode<V> copy = new ValueNode<V>(elementSelector, null);
+		copyInto(copy);
+		return copy;
+	}
+
+	private void copyInto(final ValueNode<V> copy)
+	{
+		copy.value = value;
+		for (final Map.Entry<ElementSelector, ValueNode<V>> child : children.entrySet())
+		{
+			final ValueNode<V> childCopy = copy.newNode(child.getKey());
+			copy.children.put(child.getKey(), childCopy);
+			child.getValue().copyInto(childCopy);
+		}
+	}
+
 	public ElementSelector getElementSelector()
 	{
 		return elementSelector;
@@ -105,6 +129,14 @@ public class ValueNode<V>
 		}
 	}
 
+	/**
+	 * @return A read-only view of the children of this node.
+	 */
+	public Collection<ValueNode<V>> getChildren()
+	{
+		return unmodifiableCollection(children.values());
+	}
+
 	public boolean hasChild(final ElementSelector childSelector)
 	{
 		return children.get(childSelector) != null;
@@ -17,6 +17,7 @@
 package de.danielbechler.diff.selector;
 
 import de.danielbechler.diff.identity.EqualsIdentityStrategy;
+import de.danielbechler.diff.identity.HashingIdentityStrategy;
 import de.danielbechler.diff.identity.IdentityStrategy;
 import de.danielbechler.util.Assert;
 import de.danielbechler.util.Strings;
@@ -96,10 +97,32 @@ public final class CollectionItemElementSelector extends ElementSelector
 		return true;
 	}
 
+	/**
+	 * The hash code must not depend on the {@linkplain IdentityStrategy}, because selectors with different strategies
+	 * can still be equal. (E.g. the selectors of a configured {@link de.danielbechler.diff.path.NodePath} and the ones
+	 * of the actual nodes.) There is no way to tell which items a custom strategy considers equal, so all selectors
+	 * share the same hash code.
+	 *
+	 * @see #identityStrategyHashCode()
+	 */
 	@Override
 	public int hashCode()
 	{
 		return 31;
 	}
 
+	/**
+	 * Computes a hash code via the {@linkplain IdentityStrategy}, if it is a {@linkplain HashingIdentityStrategy}.
+	 * Unlike {@linkplain #hashCode()} it is only consistent with {@linkplain #equals(Object)} for selectors sharing the
+	 * same strategy, like the ones of the items of a single collection.
+	 */
+	public int identityStrategyHashCode()
+	{
+		if (item != null && identityStrategy instanceof HashingIdentityStrategy)
+		{
+			return ((HashingIdentityStrategy) identityStrategy).hashCode(item);
+		}
+		return 31;
+	}
+
 }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2012 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.selector;
+
+/**
+ * Selects an item of an ordered list by its position. Since the position of an item may differ between the base
+ * and the working version of the list, the selector carries both. A missing position means the item doesn't exist
+ * in that version.
+ *
+ * @author Daniel Bechler
+ */
+public final class ListItemElementSelector extends ElementSelector
+{
+	public static final int NO_INDEX = -1;
+
+	private final int baseIndex;
+	private final int workingIndex;
+	private final boolean moved;
+
+	public ListItemElementSelector(final int baseIndex, final int workingIndex, final boolean moved)
+	{
+		if (baseIndex < NO_INDEX || workingIndex < NO_INDEX || (baseIndex == NO_INDEX && workingIndex == NO_INDEX))
+		{
+			throw new IllegalArgumentException("Invalid positions: base=" + baseIndex + ", working=" + workingIndex);
+		}
+		this.baseIndex = baseIndex;
+		this.workingIndex = workingIndex;
+		this.moved = moved;
+	}
+
+	/**
+	 * @return The position of the item in the base list or {@link #NO_INDEX} if it has been inserted.
+	 */
+	public int getBaseIndex()
+	{
+		return baseIndex;
+	}
+
+	/**
+	 * @return The position of the item in the working list or {@link #NO_INDEX} if it has been deleted.
+	 */
+	public int getWorkingIndex()
+	{
+		return workingIndex;
+	}
+
+	/**
+	 * @return <code>true</code> if the item has been moved to another position, as opposed to items that just
+	 * shifted because of insertions or deletions before them.
+	 */
+	public boolean isMoved()
+	{
+		return moved;
+	}
+
+	public boolean isInserted()
+	{
+		return baseIndex == NO_INDEX;
+	}
+
+	public boolean isDeleted()
+	{
+		return workingIndex == NO_INDEX;
+	}
+
+	@Override
+	public String toHumanReadableString()
+	{
+		if (isInserted())
+		{
+			return "[+" + workingIndex + "]";
+		}
+		else if (isDeleted())
+		{
+			return "[-" + baseIndex + "]";
+		}
+		else if (moved)
+		{
+			return "[" + baseIndex + "->" + workingIndex + "]";
+		}
+		return "[" + workingIndex + "]";
+	}
+
+	@Override
+	public boolean equals(final Object o)
+	{
+		if (this == o)
+		{
+			return true;
+		}
+		if (o == null || getClass() != o.getClass())
+		{
+			return false;
+		}
+
+		final ListItemElementSelector that = (ListItemElementSelector) o;
+
+		return baseIndex == that.baseIndex && workingIndex == that.workingIndex;
+	}
+
+	@Override
+	public int hashCode()
+	{
+		return 31 * baseIndex + workingIndex;
+	}
+}
@@ -20,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Constructor;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -43,6 +44,13 @@ public final class Classes
 	private static final Logger logger = LoggerFactory.getLogger(Classes.class);
 	private static final Set<Class<?>> PRIMITIVE_WRAPPER_TYPES = getPrimitiveWrapperTypes();
 	private static final Collection<Class<?>> PRIMITIVE_NUMERIC_TYPES = getPrimitiveNumericTypes();
+	private static final int SIMPLE = 1;
+	private static final int COMPARABLE = 1 << 1;
+	private static final int INTROSPECTABLE = 1 << 2;
+	private static final int PRIMITIVE_WRAPPER = 1 << 3;
+	private static final WeakIdentityMap<Class<?>, Integer> CLASSIFICATIONS = new WeakIdentityMap<Class<?>, Integer>();
+	private static final WeakReference<Class<?>> NO_SHARED_TYPE = new WeakReference<Class<?>>(null);
+	private static final WeakIdentityMap<Class<?>, WeakIdentityMap<Class<?>, WeakReference<Class<?>>>> SHARED_TYPES = new WeakIdentityMap<Class<?>, WeakIdentityMap<Class<?>, WeakReference<Class<?>>>>();
 	//	private static final List<?> COMPARABLE_TYPES = Arrays.asList(
 	//			// The Extendables
 	//			// since Java 1.8
@@ -123,20 +131,65 @@ public final class Classes
 
 	public static boolean isComparableType(final Class<?> clazz)
 	{
-		return Comparable.class.isAssignableFrom(clazz);
+		return is(clazz, COMPARABLE);
 	}
 
 	public static boolean isSimpleType(final Class<?> clazz)
 	{
-		if (clazz == null)
+		return is(clazz, SIMPLE);
+	}
+
+	/**
+	 * @return <code>false</code> for types that don't have any properties worth introspecting, like primitives,
+	 * their wrappers, enums and arrays.
+	 */
+	public static boolean isIntrospectableType(final Class<?> clazz)
+	{
+		return is(clazz, INTROSPECTABLE);
+	}
+
+	private static boolean is(final Class<?> clazz, final int classification)
+	{
+		return clazz != null && (classificationOf(clazz) & classification) != 0;
+	}
+
+	/**
+	 * The classification of a type never changes, so it's determined only once and then looked up from a cache, that
+	 * can be read without locking. Concurrent classifications of the same type yield the same value, so it doesn't
+	 * matter which one ends up in the cache. The cache only holds weak references to the types, so it doesn't keep
+	 * their class loaders alive.
+	 */
+	private static int classificationOf(final Class<?> clazz)
+	{
+		final Integer cachedClassification = CLASSIFICATIONS.get(clazz);
+		if (cachedClassification != null)
 		{
-			return false;
+			return cachedClassification;
 		}
-		else if (isPrimitiveType(clazz))
+		int classification = 0;
+		if (isSimple(clazz))
 		{
-			return true;
+			classification |= SIMPLE;
+		}
+		if (Comparable.class.isAssignableFrom(clazz))
+		{
+			classification |= COMPARABLE;
+		}
+		if (PRIMITIVE_WRAPPER_TYPES.contains(clazz))
+		{
+			classification |= PRIMITIVE_WRAPPER;
+		}
+		else if (!clazz.isPrimitive() && !clazz.isEnum() && !clazz.isArray())
+		{
+			classification |= INTROSPECTABLE;
 		}
-		else if (isPrimitiveWrapperType(clazz))
+		CLASSIFICATIONS.put(clazz, classification);
+		return classification;
+	}
+
+	private static boolean isSimple(final Class<?> clazz)
+	{
+		if (clazz.isPrimitive() || PRIMITIVE_WRAPPER_TYPES.contains(clazz))
 		{
 			return true;
 		}
@@ -164,7 +217,7 @@ public final class Classes
 
 	public static boolean isPrimitiveWrapperType(final Class<?> clazz)
 	{
-		return clazz != null && PRIMITIVE_WRAPPER_TYPES.contains(clazz);
+		return is(clazz, PRIMITIVE_WRAPPER);
 	}
 
 	public static <T> T freshInstanceOf(final Class<T> clazz)
@@ -262,6 +315,43 @@ public final class Classes
 		return sharedTypes.iterator().next();
 	}
 
+	/**
+	 * Works like {@link #mostSpecificSharedType(Collection)}, but remembers the result for each pair of types, so
+	 * it only needs to be computed once. The remembered results can be read without locking. All types are only
+	 * referenced weakly, since the shared type may well be one of the given types.
+	 */
+	public static Class<?> mostSpecificSharedType(final Class<?> type, final Class<?> otherType)
+	{
+		WeakIdentityMap<Class<?>, WeakReference<Class<?>>> sharedTypes = SHARED_TYPES.get(type);
+		if (sharedTypes == null)
+		{
+			final WeakIdentityMap<Class<?>, WeakReference<Class<?>>> newSharedTypes = new WeakIdentityMap<Class<?>, WeakReference<Class<?>>>();
+			sharedTypes = SHARED_TYPES.putIfAbsent(type, newSharedTypes);
+			if (sharedTypes == null)
+			{
+				sharedTypes = newSharedTypes;
+			}
+		}
+		final WeakReference<Class<?>> cachedSharedType = sharedTypes.get(otherType);
+		if (cachedSharedType == NO_SHARED_TYPE)
+		{
+			return null;
+		}
+		else if (cachedSharedType != null)
+		{
+			// a supertype can't be collected before its subtypes, but better safe than sorry
+			final Class<?> sharedType = cachedSharedType.get();
+			if (sharedType != null)
+			{
+				return sharedType;
+			}
+		}
+		final Collection<Class<?>> types = new HashSet<Class<?>>(asList(type, otherType));
+		final Class<?> sharedType = mostSpecificSharedType(types);
+		sharedTypes.put(otherType, sharedType != null ? new WeakReference<Class<?>>(sharedType) : NO_SHARED_TYPE);
+		return sharedType;
+	}
+
 	private static Collection<Class<?>> superclassesOf(final Iterable<Class<?>> types)
 	{
 		final Collection<Class<?>> superclasses = new HashSet<Class<?>>();
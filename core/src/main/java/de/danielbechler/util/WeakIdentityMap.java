@@ -0,0 +1,188 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread-safe map that compares its keys by identity and only holds weak references to them. Entries disappear
+ * once their key has been garbage collected, so caching something per class (or per any other object) doesn't keep
+ * that object or its class loader alive. Reads are lock-free, just like the ones of the underlying {@link
+ * ConcurrentHashMap}.
+ * <p/>
+ * The values are held strongly, so they must not reference their keys. Otherwise the keys would never become
+ * unreachable.
+ *
+ * @author Daniel Bechler
+ */
+public final class WeakIdentityMap<K, V>
+{
+	private final ConcurrentMap<Object, V> entries = new ConcurrentHashMap<Object, V>();
+	private final ReferenceQueue<K> queue = new ReferenceQueue<K>();
+
+	public V get(final Object key)
+	{
+		expungeStaleEntries();
+		if (key == null)
+		{
+			return null;
+		}
+		return entries.get(new LookupKey(key));
+	}
+
+	public V put(final K key, final V value)
+	{
+		Assert.notNull(key, "key");
+		expungeStaleEntries();
+		return entries.put(new WeakKey<K>(key, queue), value);
+	}
+
+	public V putIfAbsent(final K key, final V value)
+	{
+		Assert.notNull(key, "key");
+		expungeStaleEntries();
+		return entries.putIfAbsent(new WeakKey<K>(key, queue), value);
+	}
+
+	public boolean replace(final K key, final V oldValue, final V newValue)
+	{
+		Assert.notNull(key, "key");
+		expungeStaleEntries();
+		return entries.replace(new LookupKey(key), oldValue, newValue);
+	}
+
+	public V remove(final Object key)
+	{
+		expungeStaleEntries();
+		if (key == null)
+		{
+			return null;
+		}
+		return entries.remove(new LookupKey(key));
+	}
+
+	public boolean remove(final Object key, final Object value)
+	{
+		expungeStaleEntries();
+		if (key == null)
+		{
+			return false;
+		}
+		return entries.remove(new LookupKey(key), value);
+	}
+
+	public void clear()
+	{
+		entries.clear();
+		expungeStaleEntries();
+	}
+
+	/**
+	 * @return The number of entries whose keys haven't been garbage collected yet, as far as the map knows.
+	 */
+	public int size()
+	{
+		expungeStaleEntries();
+		return entries.size();
+	}
+
+	/**
+	 * @return A weakly consistent view of the values, as provided by the {@link ConcurrentHashMap}.
+	 */
+	public Collection<V> values()
+	{
+		expungeStaleEntries();
+		return entries.values();
+	}
+
+	private void expungeStaleEntries()
+	{
+		Reference<? extends K> reference;
+		while ((reference = queue.poll()) != null)
+		{
+			entries.remove(reference);
+		}
+	}
+
+	private static Object referentOf(final Object key)
+	{
+		if (key instanceof WeakKey)
+		{
+			return ((WeakKey<?>) key).get();
+		}
+		else if (key instanceof LookupKey)
+		{
+			return ((LookupKey) key).key;
+		}
+		return null;
+	}
+
+	private static final class WeakKey<K> extends WeakReference<K>
+	{
+		private final int hashCode;
+
+		WeakKey(final K key, final ReferenceQueue<K> queue)
+		{
+			super(key, queue);
+			this.hashCode = System.identityHashCode(key);
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			if (this == o)
+			{
+				return true;
+			}
+			final Object referent = get();
+			return referent != null && referent == referentOf(o);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+	}
+
+	private static final class LookupKey
+	{
+		private final Object key;
+
+		LookupKey(final Object key)
+		{
+			this.key = key;
+		}
+
+		@Override
+		public boolean equals(final Object o)
+		{
+			return this == o || key == referentOf(o);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return System.identityHashCode(key);
+		}
+	}
+}
@@ -16,6 +16,8 @@
 
 package de.danielbechler.diff.access
 
+import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import de.danielbechler.diff.identity.HashingIdentityStrategy
 import de.danielbechler.diff.mock.ObjectWithIdentityAndValue
 import de.danielbechler.diff.selector.CollectionItemElementSelector
 import spock.lang.Specification
@@ -69,6 +71,80 @@ public class CollectionItemAccessorTest extends Specification {
 		  accessor.get(['some-item']) == null
 	}
 
+	def 'get: should look up item in index instead of scanning the target collection'() {
+		given:
+		  def identityStrategy = Mock(HashingIdentityStrategy)
+		  identityStrategy.hashCode(_) >> { Object item -> item.hashCode() }
+		  def accessor = new CollectionItemAccessor('c', identityStrategy, new CollectionItemIndex(identityStrategy))
+		when:
+		  def item = accessor.get(['a', 'b', 'c'])
+		then:
+		  1 * identityStrategy.equals('c', 'c') >> true
+		  0 * identityStrategy.equals(_, _)
+		and:
+		  item == 'c'
+	}
+
+	def 'get: should rebuild index once target collection changed its size'() {
+		given:
+		  def collection = [new ObjectWithIdentityAndValue('foo', 'bar')]
+		  def itemIndex = new CollectionItemIndex(EqualsIdentityStrategy.instance)
+		  itemIndex.index(collection)
+		  def accessor = new CollectionItemAccessor(new ObjectWithIdentityAndValue('foo'), EqualsIdentityStrategy.instance, itemIndex)
+		when:
+		  collection.clear()
+		then:
+		  accessor.get(collection) == null
+	}
+
+	def 'get: should rebuild index once it has been invalidated'() {
+		given:
+		  def collection = [new ObjectWithIdentityAndValue('foo', 'bar')]
+		  def itemIndex = new CollectionItemIndex(EqualsIdentityStrategy.instance)
+		  itemIndex.index(collection)
+		  def accessor = new CollectionItemAccessor(new ObjectWithIdentityAndValue('foo'), EqualsIdentityStrategy.instance, itemIndex)
+		when:
+		  collection.set(0, new ObjectWithIdentityAndValue('other'))
+		  itemIndex.invalidate(collection)
+		then:
+		  accessor.get(collection) == null
+	}
+
+	@Unroll
+	def 'unset: should remove item from collection and its index (#collectionType)'() {
+		given:
+		  def collection = collectionType.newInstance()
+		  collection.addAll([new ObjectWithIdentityAndValue('foo', 'bar'), new ObjectWithIdentityAndValue('baz')])
+		  def itemIndex = new CollectionItemIndex(EqualsIdentityStrategy.instance)
+		  def accessor = new CollectionItemAccessor(new ObjectWithIdentityAndValue('foo'), EqualsIdentityStrategy.instance, itemIndex)
+		when:
+		  accessor.unset(collection)
+		then:
+		  collection == collectionType.newInstance([new ObjectWithIdentityAndValue('baz')])
+		  itemIndex.index(collection).size() == 1
+		  accessor.get(collection) == null
+		where:
+		  collectionType << [ArrayList, HashSet]
+	}
+
+	@Unroll
+	def 'set: should replace item in collection and its index (#collectionType)'() {
+		given:
+		  def collection = collectionType.newInstance()
+		  collection.add(new ObjectWithIdentityAndValue('foo', 'bar'))
+		  def itemIndex = new CollectionItemIndex(EqualsIdentityStrategy.instance)
+		  def item = new ObjectWithIdentityAndValue('foo', 'baz')
+		  def accessor = new CollectionItemAccessor(item, EqualsIdentityStrategy.instance, itemIndex)
+		when:
+		  accessor.set(collection, item)
+		then:
+		  collection.size() == 1
+		  itemIndex.index(collection).size() == 1
+		  accessor.get(collection).is item
+		where:
+		  collectionType << [ArrayList, HashSet]
+	}
+
 	def 'get: should fail with exception if target object is not a collection'() {
 		given:
 		  def accessor = new CollectionItemAccessor(ANY_REFERENCE_ITEM)
@@ -16,6 +16,9 @@
 
 package de.danielbechler.diff.access
 
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
+import de.danielbechler.diff.differ.DiffContext
+import de.danielbechler.diff.mock.ObjectWithString
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -204,6 +207,36 @@ class InstancesTest extends Specification {
 		  type << [Boolean, Short, Integer, Character, Long, Double, Float, Byte]
 	}
 
+	def 'getType: resolves the type only once'() {
+		given:
+		  def typeAwareAccessor = Mock TypeAwareAccessor
+		  def instances = Instances.of(typeAwareAccessor, 'working', 'base')
+		when:
+		  def types = [instances.getType(), instances.getType(), instances.withContext(null).getType()]
+		then:
+		  1 * typeAwareAccessor.getType() >> Object
+		and:
+		  types == [String, String, String]
+	}
+
+	def 'access: should not read the fresh value until it is needed'() {
+		given:
+		  def accessor = Mock Accessor
+		  def instances = Instances.of(new ObjectWithString('working'), new ObjectWithString('base'))
+		when:
+		  def accessedInstances = instances.access(accessor)
+		then:
+		  1 * accessor.get({ it.value == 'working' }) >> 'working'
+		  1 * accessor.get({ it.value == 'base' }) >> 'base'
+		  0 * accessor.get(_)
+		when:
+		  accessedInstances.getFresh()
+		  accessedInstances.getFresh()
+		then:
+		  1 * accessor.get({ it.value == null }) >> 'fresh'
+		  0 * accessor.get(_)
+	}
+
 	def 'areSame: should return true when working and base are the same object'() {
 		given:
 		  def object = new Object()
@@ -284,4 +317,70 @@ class InstancesTest extends Specification {
 		  accessedInstances.fresh == 'fresh2'
 		  accessedInstances.sourceAccessor.is accessor
 	}
+
+	def 'access: passes the context on to the accessed instances'() {
+		given:
+		  def context = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		  def instances = Instances.of('working', 'base').withContext(context)
+		expect:
+		  instances.access(Stub(Accessor)).context.is context
+	}
+
+	def 'withContext: returns a copy that belongs to the given context'() {
+		given:
+		  def context = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		  def instances = new Instances(RootAccessor.instance, 'working', 'base', 'fresh')
+		when:
+		  def contextualInstances = instances.withContext(context)
+		then:
+		  instances.context == null
+		  contextualInstances.context.is context
+		  contextualInstances.working == 'working'
+		  contextualInstances.base == 'base'
+		  contextualInstances.fresh == 'fresh'
+	}
+
+	def 'getFresh: creates the fresh instance once per context'() {
+		given:
+		  def accessor = Stub(Accessor) {
+			  get(_) >> { args -> args[0]?.value }
+		  }
+		  def context = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		  def otherContext = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		  def instances = Instances.of(new ObjectWithString('working'), new ObjectWithString('base'))
+		when:
+		  instances.withContext(context).access(accessor).getFresh()
+		  instances.withContext(otherContext).access(accessor).getFresh()
+		then:
+		  context.freshInstanceOf(ObjectWithString).is context.freshInstanceOf(ObjectWithString)
+		  !context.freshInstanceOf(ObjectWithString).is(otherContext.freshInstanceOf(ObjectWithString))
+	}
+
+	def 'withContext: resolves the fresh value of accessed instances again for another context'() {
+		given:
+		  def accessor = Mock Accessor
+		  def context = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		  def otherContext = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		  def accessedInstances = Instances.of(new ObjectWithString('working'), new ObjectWithString('base'))
+				  .withContext(context)
+				  .access(accessor)
+		when:
+		  accessedInstances.getFresh()
+		  accessedInstances.withContext(otherContext).getFresh()
+		then:
+		  1 * accessor.get({ it.is context.freshInstanceOf(ObjectWithString) }) >> 'fresh'
+		  1 * accessor.get({ it.is otherContext.freshInstanceOf(ObjectWithString) }) >> 'other fresh'
+	}
+
+	def 'withContext: keeps reading the fresh value of accessed instances from an explicitly given fresh root'() {
+		given:
+		  def accessor = Stub(Accessor) {
+			  get(_) >> { args -> args[0]?.value }
+		  }
+		  def context = new DiffContext(Stub(CircularReferenceDetectorFactory))
+		  def instances = new Instances(RootAccessor.instance, new ObjectWithString('working'), new ObjectWithString('base'), new ObjectWithString('fresh'))
+		expect:
+		  instances.access(accessor).withContext(context).fresh == 'fresh'
+		  instances.withContext(context).access(accessor).fresh == 'fresh'
+	}
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.access
+
+import de.danielbechler.diff.selector.ListItemElementSelector
+import spock.lang.Specification
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class ListItemAccessorTest extends Specification {
+
+	def working = ['a', 'x', 'b']
+	def base = ['b', 'a']
+
+	def 'get reads from each compared list at the position of the item in that list'() {
+		given:
+		  def accessor = new ListItemAccessor(working, base, new ListItemElementSelector(1, 0, false))
+		expect:
+		  accessor.get(working) == 'a'
+		  accessor.get(base) == 'a'
+	}
+
+	def 'get returns null when the item does not exist in the target list'() {
+		given:
+		  def accessor = new ListItemAccessor(working, base, new ListItemElementSelector(NO_INDEX, 1, false))
+		expect:
+		  accessor.get(base) == null
+		  accessor.get(null) == null
+		  accessor.get([]) == null
+	}
+
+	def 'get throws IllegalArgumentException for targets that are not lists'() {
+		when:
+		  new ListItemAccessor(working, base, new ListItemElementSelector(0, 0, false)).get('foo')
+		then:
+		  thrown(IllegalArgumentException)
+	}
+
+	def 'set replaces existing items and inserts missing ones at their working position'() {
+		given:
+		  def target = ['a', 'b']
+		when:
+		  new ListItemAccessor(working, base, new ListItemElementSelector(NO_INDEX, 1, false)).set(target, 'x')
+		  new ListItemAccessor(working, base, new ListItemElementSelector(1, 0, false)).set(target, 'A')
+		then:
+		  target == ['A', 'x', 'b']
+	}
+
+	def 'unset removes the item at its position'() {
+		given:
+		  def target = ['b', 'a']
+		when:
+		  new ListItemAccessor(working, target, new ListItemElementSelector(0, NO_INDEX, false)).unset(target)
+		then:
+		  target == ['a']
+	}
+
+	def 'getType returns the type of the working item and falls back to the base item'() {
+		expect:
+		  new ListItemAccessor(working, base, new ListItemElementSelector(0, NO_INDEX, false)).type == String
+		  new ListItemAccessor(working, [], new ListItemElementSelector(NO_INDEX, 5, false)).type == null
+	}
+}
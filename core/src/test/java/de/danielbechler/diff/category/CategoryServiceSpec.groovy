@@ -15,6 +15,7 @@
  */
 
 package de.danielbechler.diff.category
+import de.danielbechler.diff.ObjectDifferBuilder
 import de.danielbechler.diff.access.PropertyAwareAccessor
 import de.danielbechler.diff.node.DiffNode
 import de.danielbechler.diff.path.NodePath
@@ -24,7 +25,7 @@ import spock.lang.Specification
  * @author Daniel Bechler
  */
 class CategoryServiceSpec extends Specification {
-	def categoryService = new CategoryService()
+	def categoryService = new CategoryService(Stub(ObjectDifferBuilder))
 	def accessor = Mock(PropertyAwareAccessor)
 	def nodePath = NodePath.with("foo")
 	def nodeType = Alliance
@@ -94,6 +95,36 @@ class CategoryServiceSpec extends Specification {
 		  categoryService.resolveCategories(node) == [] as Set
 	}
 
+	def "snapshot: should not be affected by further changes to the service"() {
+		given:
+		  categoryService.ofNode(nodePath).toBe("Stark")
+		  categoryService.ofType(nodeType).toBe("Lannister")
+		  def snapshot = categoryService.snapshot()
+
+		when:
+		  categoryService.ofNode(nodePath).toBe("Targaryen")
+		  categoryService.ofType(nodeType).toBe("Baratheon")
+
+		then:
+		  snapshot.resolveCategories(node) == ["Stark", "Lannister"] as Set
+		  categoryService.resolveCategories(node) == ["Targaryen", "Baratheon"] as Set
+	}
+
+	def "ofNode: should compile the configured categories only once they are needed"() {
+		when:
+		  categoryService.ofNode(nodePath).toBe("Stark")
+		  categoryService.ofNode(NodePath.with("bar")).toBe("Lannister")
+		then:
+		  categoryService.@nodePathCategories == null
+
+		when:
+		  def snapshot = categoryService.snapshot()
+		then:
+		  categoryService.@nodePathCategories != null
+		  snapshot.@nodePathCategories.is categoryService.@nodePathCategories
+		  snapshot.resolveCategories(node) == ["Stark"] as Set
+	}
+
 	class Alliance {
 	}
 }
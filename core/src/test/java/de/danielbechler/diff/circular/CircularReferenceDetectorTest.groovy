@@ -27,7 +27,11 @@ import static de.danielbechler.diff.circular.CircularReferenceDetector.Reference
 
 class CircularReferenceDetectorTest extends Specification {
 
-	CircularReferenceDetector circularReferenceDetector = new CircularReferenceDetector(EQUALITY_OPERATOR)
+	CircularReferenceDetector circularReferenceDetector = createCircularReferenceDetector(EQUALITY_OPERATOR)
+
+	protected CircularReferenceDetector createCircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode matchingMode) {
+		return new CircularReferenceDetector(matchingMode)
+	}
 
 	def 'push: does nothing with null object'() {
 		when:
@@ -57,6 +61,28 @@ class CircularReferenceDetectorTest extends Specification {
 
 	}
 
+	def 'copyTo: copies known objects in the order they have been pushed'() {
+		given:
+		  def copy = createCircularReferenceDetector(EQUALITY_OPERATOR)
+		  circularReferenceDetector.push("foo", NodePath.withRoot())
+		  circularReferenceDetector.push("bar", NodePath.with("bar"))
+		when:
+		  circularReferenceDetector.copyTo(copy)
+		then:
+		  copy.size() == 2
+		when:
+		  copy.push("bar", NodePath.with("bar", "baz"))
+		then:
+		  CircularReferenceException ex = thrown CircularReferenceException
+		  ex.nodePath == NodePath.with("bar")
+		when:
+		  copy.remove("bar")
+		  copy.remove("foo")
+		then:
+		  copy.size() == 0
+		  circularReferenceDetector.size() == 2
+	}
+
 	def 'remove: does nothing with null object'() {
 		expect:
 		  circularReferenceDetector.size() == 0
@@ -116,7 +142,7 @@ class CircularReferenceDetectorTest extends Specification {
 	@Unroll
 	def 'matchingMode #matchingMode'() {
 		given:
-		  circularReferenceDetector = new CircularReferenceDetector(matchingMode)
+		  circularReferenceDetector = createCircularReferenceDetector(matchingMode)
 
 		expect: 'sanity check'
 		  internalInstance.is(externalInstance) == equalByOperator
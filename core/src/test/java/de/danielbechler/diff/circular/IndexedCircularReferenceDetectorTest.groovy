@@ -0,0 +1,67 @@
+/*
+ * Copyright 2015 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.circular
+
+import de.danielbechler.diff.path.NodePath
+
+import static de.danielbechler.diff.circular.CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR
+import static de.danielbechler.diff.circular.CircularReferenceDetector.ReferenceMatchingMode.EQUALS_METHOD
+
+class IndexedCircularReferenceDetectorTest extends CircularReferenceDetectorTest {
+
+	@Override
+	protected CircularReferenceDetector createCircularReferenceDetector(CircularReferenceDetector.ReferenceMatchingMode matchingMode) {
+		return new IndexedCircularReferenceDetector(matchingMode)
+	}
+
+	def 'remove: throws IllegalArgumentException when nothing has been pushed'() {
+		when:
+		  circularReferenceDetector.remove 'foo'
+		then:
+		  thrown IllegalArgumentException
+	}
+
+	def 'push: reports the path of the outermost occurrence in deep graphs'() {
+		given:
+		  def path = NodePath.withRoot()
+		  10000.times { circularReferenceDetector.push(new Object(), NodePath.with("level$it")) }
+		  def instance = new Object()
+		  circularReferenceDetector.push(instance, path)
+		  10000.times { circularReferenceDetector.push(new Object(), NodePath.with("level$it")) }
+		when:
+		  circularReferenceDetector.push(instance, NodePath.with('foo'))
+		then:
+		  CircularReferenceDetector.CircularReferenceException ex = thrown()
+		  ex.nodePath == path
+		  circularReferenceDetector.size() == 20001
+	}
+
+	def 'knows: distinguishes equal instances in EQUALITY_OPERATOR mode'() {
+		given:
+		  circularReferenceDetector = createCircularReferenceDetector(EQUALITY_OPERATOR)
+		  circularReferenceDetector.push(new String('foo'), null)
+		expect:
+		  !circularReferenceDetector.knows(new String('foo'))
+	}
+
+	def 'knows: matches equal instances in EQUALS_METHOD mode'() {
+		given:
+		  circularReferenceDetector = createCircularReferenceDetector(EQUALS_METHOD)
+		  circularReferenceDetector.push(new String('foo'), null)
+		expect:
+		  circularReferenceDetector.knows(new String('foo'))
+	}
+}
@@ -17,6 +17,8 @@
 package de.danielbechler.diff.comparison
 
 import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.introspection.ObjectDiffProperty
 import de.danielbechler.diff.node.DiffNode
 import de.danielbechler.diff.path.NodePath
 import spock.lang.Specification
@@ -83,6 +85,7 @@ class ComparisonServiceSpec extends Specification {
 		  node.valueType >> type
 		  node.path >> NodePath.with('any')
 		  node.getPropertyAnnotation(_ as Class) >> null
+		  node.getFieldAnnotation(_ as Class) >> null
 
 		expect:
 		  comparisonService.resolveComparisonStrategy(node) == null
@@ -91,6 +94,48 @@ class ComparisonServiceSpec extends Specification {
 		  type << [CustomComparable]
 	}
 
+	def 'resolveComparisonStrategy: should honor equalsOnly of an ObjectDiffProperty annotation on the backing field'() {
+		given:
+		  def node = Stub(DiffNode)
+		  node.valueType >> CustomComparable
+		  node.path >> NodePath.with('any')
+		  node.getPropertyAnnotation(_ as Class) >> null
+		  node.getFieldAnnotation(ObjectDiffProperty) >> Stub(ObjectDiffProperty, {
+			  equalsOnly() >> true
+			  equalsOnlyValueProviderMethod() >> ''
+		  })
+
+		expect:
+		  comparisonService.resolveComparisonStrategy(node) instanceof EqualsOnlyComparisonStrategy
+	}
+
+	def 'resolvePropertyComparisonStrategy: should honor an ObjectDiffProperty annotation on the getter before the one on the field'() {
+		given:
+		  def accessor = Stub(PropertyAwareAccessor)
+		  accessor.getReadMethodAnnotation(ObjectDiffProperty) >> Stub(ObjectDiffProperty, {
+			  equalsOnly() >> true
+			  equalsOnlyValueProviderMethod() >> ''
+		  })
+		  accessor.getFieldAnnotation(ObjectDiffProperty) >> Stub(ObjectDiffProperty)
+
+		expect:
+		  comparisonService.resolvePropertyComparisonStrategy(CustomComparable, accessor) instanceof EqualsOnlyComparisonStrategy
+	}
+
+	def 'resolvePropertyComparisonStrategy: should ignore the strategies configured for node paths'() {
+		given:
+		  def node = Stub(DiffNode)
+		  node.path >> NodePath.with('value')
+		  comparisonService.ofNode(NodePath.with('value')).toUseEqualsMethod()
+		  def accessor = Stub(PropertyAwareAccessor)
+		  accessor.getReadMethodAnnotation(_ as Class) >> null
+		  accessor.getFieldAnnotation(_ as Class) >> null
+
+		expect:
+		  comparisonService.resolveNodePathComparisonStrategy(node) instanceof EqualsOnlyComparisonStrategy
+		  comparisonService.resolvePropertyComparisonStrategy(CustomComparable, accessor) == null
+	}
+
 	public static class CustomComparable implements Comparable<CustomComparable> {
 		@Override
 		int compareTo(CustomComparable o) {
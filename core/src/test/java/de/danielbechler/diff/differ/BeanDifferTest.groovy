@@ -20,7 +20,9 @@ import de.danielbechler.diff.access.PropertyAwareAccessor
 import de.danielbechler.diff.access.RootAccessor
 import de.danielbechler.diff.comparison.ComparisonStrategy
 import de.danielbechler.diff.comparison.ComparisonStrategyResolver
+import de.danielbechler.diff.comparison.PropertyComparisonStrategyResolver
 import de.danielbechler.diff.filtering.IsReturnableResolver
+import de.danielbechler.diff.inclusion.PropertyInclusionResolver
 import de.danielbechler.diff.instantiation.TypeInfo
 import de.danielbechler.diff.introspection.IsIntrospectableResolver
 import de.danielbechler.diff.introspection.TypeInfoResolver
@@ -130,7 +132,7 @@ class BeanDifferTest extends Specification {
 		when:
 		  def rootNode = beanDiffer.compare(DiffNode.ROOT, instances)
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor) >> propertyNode
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, { PropertyStep step -> step.accessor.is(accessor) }) >> propertyNode
 		and:
 		  rootNode.childCount() == 1
 		  rootNode.getChild(propertyNode.elementSelector) == propertyNode
@@ -152,7 +154,7 @@ class BeanDifferTest extends Specification {
 		when:
 		  def node = beanDiffer.compare(DiffNode.ROOT, instances)
 		then:
-		  1 * differDispatcher.dispatch(_ as DiffNode, instances, accessor) >> propertyNode
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, { PropertyStep step -> step.accessor.is(accessor) }) >> propertyNode
 		and:
 		  !node.hasChildren()
 	}
@@ -173,13 +175,86 @@ class BeanDifferTest extends Specification {
 		and:
 		  1 * typeInfoResolver.typeInfoForNode({ DiffNode node -> node.isRootNode() }) >> typeInfo
 		and:
-		  1 * differDispatcher.dispatch({ DiffNode node -> node.isRootNode() }, instances, propertyAccessor) >> propertyNode
+		  1 * differDispatcher.dispatch({ DiffNode node -> node.isRootNode() }, instances, { PropertyStep step -> step.accessor.is(propertyAccessor) }) >> propertyNode
 		and:
 		  1 * returnableResolver.isReturnable(propertyNode) >> false
 		and:
 		  rootNode.valueTypeInfo == typeInfo
 	}
 
+	def 'passes the inclusion resolved once per type on to the DifferDispatcher'() {
+		given:
+		  def propertyInclusionResolver = Mock(PropertyInclusionResolver)
+		  beanDiffer = new BeanDiffer(differDispatcher, introspectableResolver, returnableResolver, comparisonStrategyResolver, typeInfoResolver, propertyInclusionResolver)
+		  introspectableResolver.isIntrospectable(_) >> true
+		and:
+		  def includedAccessor = Mock(PropertyAwareAccessor)
+		  def ignoredAccessor = Mock(PropertyAwareAccessor)
+		  def typeInfo = new TypeInfo(Object)
+		  typeInfo.addPropertyAccessor(includedAccessor)
+		  typeInfo.addPropertyAccessor(ignoredAccessor)
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfo
+		when:
+		  beanDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  1 * propertyInclusionResolver.resolveIgnoredProperties(typeInfo) >> ([false, true] as boolean[])
+		  1 * differDispatcher.dispatch(_, instances, { PropertyStep step -> step.accessor.is(includedAccessor) && step.ignored == false }) >> Mock(DiffNode)
+		  1 * differDispatcher.dispatch(_, instances, { PropertyStep step -> step.accessor.is(ignoredAccessor) && step.ignored == true }) >> Mock(DiffNode)
+	}
+
+	def 'lets the DifferDispatcher resolve the inclusion if it cannot be resolved per type'() {
+		given:
+		  def propertyInclusionResolver = Mock(PropertyInclusionResolver)
+		  beanDiffer = new BeanDiffer(differDispatcher, introspectableResolver, returnableResolver, comparisonStrategyResolver, typeInfoResolver, propertyInclusionResolver)
+		  introspectableResolver.isIntrospectable(_) >> true
+		and:
+		  def accessor = Mock(PropertyAwareAccessor)
+		  def typeInfo = new TypeInfo(Object)
+		  typeInfo.addPropertyAccessor(accessor)
+		  typeInfoResolver.typeInfoForNode(_) >> typeInfo
+		when:
+		  beanDiffer.compare(DiffNode.ROOT, instances)
+		then:
+		  1 * propertyInclusionResolver.resolveIgnoredProperties(typeInfo) >> null
+		  1 * differDispatcher.dispatch(_, instances, { PropertyStep step -> step.accessor.is(accessor) && step.ignored == null }) >> Mock(DiffNode)
+	}
+
+	def 'keeps the plan of each type info, even if they belong to the same type'() {
+		given:
+		  introspectableResolver.isIntrospectable(_) >> true
+		  def typeInfos = [new TypeInfo(Object), new TypeInfo(Object)]
+		  typeInfos.each { it.addPropertyAccessor(Mock(PropertyAwareAccessor)) }
+		  typeInfoResolver.typeInfoForNode(_) >>> [typeInfos[0], typeInfos[1], typeInfos[0], typeInfos[1]]
+		  def dispatchedSteps = []
+		  differDispatcher.dispatch(_, instances, _ as PropertyStep) >> { DiffNode node, Instances i, PropertyStep step ->
+			  dispatchedSteps << step
+			  return Mock(DiffNode)
+		  }
+		when:
+		  4.times { beanDiffer.compare(DiffNode.ROOT, instances) }
+		then:
+		  dispatchedSteps.size() == 4
+		  dispatchedSteps[0].is(dispatchedSteps[2])
+		  dispatchedSteps[1].is(dispatchedSteps[3])
+		  !dispatchedSteps[0].is(dispatchedSteps[1])
+	}
+
+	def 'resolves the comparison strategy of a planned property only once per value type'() {
+		given:
+		  comparisonStrategyResolver = Mock(PropertyComparisonStrategyResolver)
+		  beanDiffer = new BeanDiffer(differDispatcher, introspectableResolver, returnableResolver, comparisonStrategyResolver, typeInfoResolver)
+		  def accessor = Mock(PropertyAwareAccessor)
+		  def step = new PropertyStep(accessor, false)
+		  instances.getType() >> Date
+		when:
+		  3.times { beanDiffer.compare(DiffNode.ROOT, instances, step) }
+		then:
+		  3 * comparisonStrategyResolver.resolveNodePathComparisonStrategy(_ as DiffNode) >> null
+		  1 * comparisonStrategyResolver.resolvePropertyComparisonStrategy(Date, accessor) >> comparisonStrategy
+		  0 * comparisonStrategyResolver.resolveComparisonStrategy(_)
+		  3 * comparisonStrategy.compare(_ as DiffNode, Date, 'any', 'any')
+	}
+
 	@Unroll
 	@FailsWith(IllegalArgumentException)
 	def 'construction fails with IllegalArgumentException'() {
@@ -277,6 +277,34 @@ public class CollectionDifferShould
 		verifyNoMoreInteractions(differDispatcher);
 	}
 
+	@Test
+	public void delegate_all_items_to_dispatcher_when_identity_strategy_does_not_support_hashing()
+	{
+		collectionDiffer = new CollectionDiffer(differDispatcher, comparisonStrategyResolver, new IdentityStrategyResolver()
+		{
+			public IdentityStrategy resolveIdentityStrategy(final DiffNode node)
+			{
+				return new IdentityStrategy()
+				{
+					public boolean equals(final Object working, final Object base)
+					{
+						return working.equals(base);
+					}
+				};
+			}
+		});
+		given_instance_has_added_item("added");
+		given_instance_has_removed_item("removed");
+		given_instance_has_known_item("known");
+
+		node = collectionDiffer.compare(DiffNode.ROOT, instances);
+
+		verify(differDispatcher).dispatch(node(NodePath.withRoot()), same(instances), collectionItemAccessor("added"));
+		verify(differDispatcher).dispatch(node(NodePath.withRoot()), same(instances), collectionItemAccessor("removed"));
+		verify(differDispatcher).dispatch(node(NodePath.withRoot()), same(instances), collectionItemAccessor("known"));
+		verifyNoMoreInteractions(differDispatcher);
+	}
+
 	private void given_instance_has_known_item(final String item)
 	{
 		baseCollection.add(item);
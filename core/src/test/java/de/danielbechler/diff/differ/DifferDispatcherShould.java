@@ -76,8 +76,11 @@ public class DifferDispatcherShould
 		initMocks(this);
 
 		when(circularReferenceDetectorFactory.createCircularReferenceDetector()).thenReturn(circularReferenceDetector);
+		final DiffContext context = new DiffContext(circularReferenceDetectorFactory);
+		when(instances.getContext()).thenReturn(context);
 		when(instances.access(any(Accessor.class))).thenReturn(accessedInstances);
 		when(accessedInstances.getSourceAccessor()).thenReturn(accessor);
+		when(accessedInstances.getContext()).thenReturn(context);
 
 		differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, ignoredResolver, returnableResolver, propertyAccessExceptionHandlerResolver);
 	}
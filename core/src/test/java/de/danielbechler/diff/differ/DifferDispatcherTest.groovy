@@ -0,0 +1,451 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.access.*
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.circular.CircularReferenceDetector
+import de.danielbechler.diff.circular.CircularReferenceDetectorFactory
+import de.danielbechler.diff.circular.CircularReferenceExceptionHandler
+import de.danielbechler.diff.filtering.IsReturnableResolver
+import de.danielbechler.diff.inclusion.IsIgnoredResolver
+import de.danielbechler.diff.introspection.PropertyAccessExceptionHandler
+import de.danielbechler.diff.introspection.PropertyAccessExceptionHandlerResolver
+import de.danielbechler.diff.introspection.PropertyReadException
+import de.danielbechler.diff.mock.ObjectWithString
+import de.danielbechler.diff.node.DiffListener
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.parallel.ParallelismResolver
+import de.danielbechler.diff.parallel.ParallelismService
+import de.danielbechler.diff.path.NodePath
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import de.danielbechler.diff.selector.ListItemElementSelector
+import spock.lang.Ignore
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.Executor
+
+import static de.danielbechler.diff.circular.CircularReferenceDetector.ReferenceMatchingMode.EQUALITY_OPERATOR
+
+/**
+ * Created by Daniel Bechler.
+ */
+@Subject(DifferDispatcher)
+//@Ignore("Man, this class is a pain in the ass to test. Need to find a better way to do it.")
+class DifferDispatcherTest extends Specification {
+
+	def differ = Stub Differ
+	def differProvider = Stub DifferProvider, {
+		retrieveDifferForType(_ as Class<?>) >> differ
+	}
+	def circularReferenceDetectorFactory = Stub CircularReferenceDetectorFactory, {
+		createCircularReferenceDetector() >> { new CircularReferenceDetector(EQUALITY_OPERATOR) }
+	}
+	def circularReferenceExceptionHandler = Stub(CircularReferenceExceptionHandler)
+	def isIgnoredResolver = Stub IsIgnoredResolver, {
+		isIgnored(_ as DiffNode) >> false
+	}
+	def isReturnableResolver = Stub IsReturnableResolver, {
+		isReturnable(_ as DiffNode) >> true
+	}
+	def propertyAccessExceptionHandlerResolver = Mock PropertyAccessExceptionHandlerResolver
+	def differDispatcher = new DifferDispatcher(
+			differProvider,
+			circularReferenceDetectorFactory,
+			circularReferenceExceptionHandler,
+			isIgnoredResolver,
+			isReturnableResolver,
+			propertyAccessExceptionHandlerResolver)
+
+	@Ignore
+	def "when a circular reference is detected"() {
+		given:
+		  def accessor = Stub Accessor
+		  def accessedInstances = Mock Instances, {
+			  areNull() >> false
+			  getBase() >> new Object()
+			  getWorking() >> new Object()
+		  }
+		  def instances = Mock Instances, {
+			  access(_ as Accessor) >> accessedInstances
+			  getSourceAccessor() >> accessor
+		  }
+		  def node = DiffNode.newRootNode()
+
+		when:
+		  differDispatcher.dispatch(node, instances, accessor)
+
+		then:
+		  differDispatcher.workingCircularReferenceDetector.size() == 1
+		  differDispatcher.baseCircularReferenceDetector.size() == 1
+	}
+
+	def 'should delegate property read exception to exception handler'() {
+		def propertyExceptionHandler = Mock PropertyAccessExceptionHandler
+		def propertyAccessor = Mock(PropertyAwareAccessor) {
+			getPropertyName() >> 'foo'
+		}
+		def propertyAccessException = new PropertyReadException('foo', Date, new RuntimeException())
+		def instances = Mock Instances, {
+			access(propertyAccessor) >> { throw propertyAccessException }
+			getType() >> Date
+			getContext() >> differDispatcher.newDiffContext()
+		}
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, instances, propertyAccessor)
+		then:
+		  1 * propertyAccessExceptionHandlerResolver.resolvePropertyAccessExceptionHandler(Date, 'foo') >> propertyExceptionHandler
+		and:
+		  1 * propertyExceptionHandler.onPropertyReadException(propertyAccessException, _ as DiffNode)
+	}
+
+	def 'should change node state to INACESSIBLE when reading a property value caused an exception'() {
+		def propertyAccessor = Mock(PropertyAwareAccessor)
+		def instances = Mock Instances, {
+			access(propertyAccessor) >> {
+				throw new PropertyReadException('foo', Date, new RuntimeException())
+			}
+			getContext() >> differDispatcher.newDiffContext()
+		}
+		when:
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, instances, propertyAccessor)
+		then:
+		  node.state == DiffNode.State.INACCESSIBLE
+	}
+
+	def 'should share the instance memory of the calling thread between instances without context until it gets reset'() {
+		given:
+		  def contexts = []
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances instances ->
+			  contexts << instances.context
+			  return new DiffNode(node, instances.sourceAccessor, String)
+		  }
+		  def accessor = Stub(Accessor) {
+			  get(_) >> { args -> args[0] }
+			  getElementSelector() >> new BeanPropertyElementSelector('value')
+		  }
+		  def parentNode = DiffNode.newRootNode()
+		when:
+		  differDispatcher.dispatch(parentNode, Instances.of('working', 'base'), accessor)
+		  differDispatcher.dispatch(parentNode, Instances.of('working', 'base'), accessor)
+		  differDispatcher.resetInstanceMemory()
+		  differDispatcher.dispatch(parentNode, Instances.of('working', 'base'), accessor)
+		then:
+		  contexts.size() == 3
+		  contexts[0].is(contexts[1])
+		  !contexts[1].is(contexts[2])
+	}
+
+	def 'should still call the deprecated hooks overridden by subclasses'() {
+		given:
+		  def calls = []
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory,
+				  circularReferenceExceptionHandler, isIgnoredResolver, isReturnableResolver,
+				  propertyAccessExceptionHandlerResolver) {
+			  @Override
+			  protected void rememberInstances(DiffNode parentNode, Instances instances) {
+				  calls << 'remember'
+				  super.rememberInstances(parentNode, instances)
+			  }
+
+			  @Override
+			  protected void forgetInstances(DiffNode parentNode, Instances instances) {
+				  calls << 'forget'
+				  super.forgetInstances(parentNode, instances)
+			  }
+		  }
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances instances ->
+			  assert instances.context.workingCircularReferenceDetector.knows('working')
+			  return new DiffNode(node, instances.sourceAccessor, String)
+		  }
+		  def instances = Instances.of('working', 'base').withContext(differDispatcher.newDiffContext())
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.instance)
+		then:
+		  calls == ['remember', 'forget']
+		  !instances.context.workingCircularReferenceDetector.knows('working')
+	}
+
+	def 'should start a new context for instances that do not belong to a comparison yet'() {
+		given:
+		  def detectedInstances = []
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances instances ->
+			  detectedInstances << instances
+			  return new DiffNode(node, instances.sourceAccessor, String)
+		  }
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of('working', 'base'), RootAccessor.instance)
+		then:
+		  detectedInstances.size() == 1
+		  detectedInstances[0].context != null
+	}
+
+	def 'should keep track of circular references per context'() {
+		given:
+		  def instances = Instances.of('working', 'base')
+		  def otherContext = differDispatcher.newDiffContext()
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  assert !otherContext.workingCircularReferenceDetector.knows('working')
+			  assert accessedInstances.context.workingCircularReferenceDetector.knows('working')
+			  return new DiffNode(node, accessedInstances.sourceAccessor, String)
+		  }
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.instance)
+		then:
+		  noExceptionThrown()
+	}
+
+	def 'should stop dispatching once the first difference has been found'() {
+		given:
+		  def context = differDispatcher.newDiffContext(true)
+		  def instances = Instances.of('working', 'base').withContext(context)
+		  def comparisons = 0
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  comparisons++
+			  def changedNode = new DiffNode(node, accessedInstances.sourceAccessor, String)
+			  changedNode.state = DiffNode.State.CHANGED
+			  return changedNode
+		  }
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.instance)
+		  def skippedNode = differDispatcher.dispatch(DiffNode.ROOT, instances, RootAccessor.instance)
+		then:
+		  comparisons == 1
+		  context.stopped
+		  context.firstDifference == NodePath.withRoot()
+		  skippedNode.state == DiffNode.State.UNTOUCHED
+	}
+
+	def 'should not stop dispatching at untouched nodes'() {
+		given:
+		  def context = differDispatcher.newDiffContext(true)
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  return new DiffNode(node, accessedInstances.sourceAccessor, String)
+		  }
+		when:
+		  differDispatcher.dispatch(DiffNode.ROOT, Instances.of('working', 'base').withContext(context), RootAccessor.instance)
+		then:
+		  !context.stopped
+		  context.firstDifference == null
+	}
+
+	def 'should pass the results to the listener of the context instead of adding nodes to their parents'() {
+		given:
+		  def listener = Mock DiffListener
+		  def context = differDispatcher.newDiffContext(listener)
+		  def parentNode = DiffNode.newRootNodeWithType(List)
+		  def accessor = new CollectionItemAccessor('foo')
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  def changedNode = new DiffNode(node, accessedInstances.sourceAccessor, String)
+			  changedNode.state = DiffNode.State.ADDED
+			  return changedNode
+		  }
+		  def path = NodePath.startBuilding().collectionItem('foo').build()
+		when:
+		  differDispatcher.dispatch(parentNode, Instances.of(['foo'], []).withContext(context), accessor)
+		then:
+		  1 * listener.onEnter(path, String)
+		then:
+		  1 * listener.onChange(path, DiffNode.State.ADDED, 'foo', null)
+		then:
+		  1 * listener.onLeave(path)
+		and:
+		  !parentNode.hasChildren()
+		  parentNode.state == DiffNode.State.CHANGED
+	}
+
+	def 'should report moved list items as MOVED before leaving them'() {
+		given:
+		  def listener = Mock DiffListener
+		  def context = differDispatcher.newDiffContext(listener)
+		  def parentNode = DiffNode.newRootNodeWithType(List)
+		  def working = ['b', 'a']
+		  def base = ['a', 'b']
+		  def elementSelector = new ListItemElementSelector(1, 0, true)
+		  def accessor = new ListItemAccessor(working, base, elementSelector)
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  return new DiffNode(node, accessedInstances.sourceAccessor, String)
+		  }
+		  def path = NodePath.startBuildingFrom(NodePath.withRoot()).element(elementSelector).build()
+		when:
+		  def node = differDispatcher.dispatch(parentNode, Instances.of(working, base).withContext(context), accessor)
+		then:
+		  1 * listener.onEnter(path, String)
+		then:
+		  1 * listener.onChange(path, DiffNode.State.MOVED, 'b', 'b')
+		then:
+		  1 * listener.onLeave(path)
+		and:
+		  node.state == DiffNode.State.MOVED
+		  parentNode.state == DiffNode.State.CHANGED
+	}
+
+	def 'should not resolve the inclusion again if the caller already knows that the node is ignored'() {
+		given:
+		  def ignoredResolver = Mock IsIgnoredResolver
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, ignoredResolver, isReturnableResolver, propertyAccessExceptionHandlerResolver)
+		  def accessor = Stub(PropertyAwareAccessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('value')
+		  }
+		when:
+		  def node = differDispatcher.dispatch(DiffNode.ROOT, Instances.of('working', 'base'), new PropertyStep(accessor, true))
+		then:
+		  node.state == DiffNode.State.IGNORED
+		  0 * ignoredResolver.isIgnored(_)
+	}
+
+	def 'should remember the differ of a planned property once the provider has been frozen'() {
+		given:
+		  differProvider = Mock(DifferProvider)
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, isIgnoredResolver, isReturnableResolver, propertyAccessExceptionHandlerResolver)
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  return new DiffNode(node, accessedInstances.sourceAccessor, String)
+		  }
+		  def accessor = Stub(PropertyAwareAccessor) {
+			  get('working') >> 'foo'
+			  get('base') >> 'bar'
+			  getElementSelector() >> new BeanPropertyElementSelector('value')
+			  getType() >> String
+		  }
+		  def step = new PropertyStep(accessor, false)
+		when:
+		  3.times { differDispatcher.dispatch(DiffNode.ROOT, Instances.of('working', 'base'), step) }
+		then:
+		  1 * differProvider.retrieveDifferForType(String) >> differ
+		  1 * differProvider.isFrozen() >> true
+	}
+
+	def 'should cancel the remaining partitions if a forked partition fails'() {
+		given:
+		  def submittedTasks = []
+		  def parallelismResolver = Stub ParallelismResolver, {
+			  getExecutor() >> ({ Runnable task -> submittedTasks << task } as Executor)
+			  getForkThreshold() >> 2
+			  getMaxPartitionCount() >> 3
+		  }
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, isIgnoredResolver, isReturnableResolver, propertyAccessExceptionHandlerResolver, parallelismResolver)
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  return new DiffNode(node, accessedInstances.sourceAccessor, String)
+		  }
+		  def throwingGetter = Stub(Accessor) {
+			  get(_) >> { throw new IllegalStateException('getter failed') }
+			  getElementSelector() >> new BeanPropertyElementSelector('failing')
+		  }
+		  def parentNode = DiffNode.newRootNodeWithType(List)
+		  def instances = Instances.of(['a', 'b', 'c'], ['a', 'b', 'c']).withContext(differDispatcher.newDiffContext())
+		  def accessors = [throwingGetter, new CollectionItemAccessor('b'), new CollectionItemAccessor('c')] as Accessor[]
+		when:
+		  differDispatcher.dispatchForked(parentNode, instances, accessors)
+		then:
+		  def exception = thrown(IllegalStateException)
+		  exception.message == 'getter failed'
+		and:
+		  submittedTasks.size() == 2
+		  submittedTasks[0].done
+		  submittedTasks[1].cancelled
+		  !parentNode.hasChildren()
+	}
+
+	def 'should compare forked partitions in their own context and attach the resulting nodes in order'() {
+		given:
+		  def executedTasks = []
+		  def parallelismResolver = Stub ParallelismResolver, {
+			  getExecutor() >> ({ Runnable task -> executedTasks << task; task.run() } as Executor)
+			  getForkThreshold() >> 2
+			  getMaxPartitionCount() >> 2
+		  }
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, isIgnoredResolver, isReturnableResolver, propertyAccessExceptionHandlerResolver, parallelismResolver)
+		  def context = differDispatcher.newDiffContext()
+		  def usedContexts = []
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  usedContexts << accessedInstances.context
+			  return new DiffNode(node, accessedInstances.sourceAccessor, String)
+		  }
+		  def parentNode = DiffNode.newRootNodeWithType(List)
+		  def instances = Instances.of(['a', 'b', 'c'], ['a', 'b', 'c']).withContext(context)
+		  def accessors = ['a', 'b', 'c'].collect { new CollectionItemAccessor(it) } as Accessor[]
+		expect:
+		  differDispatcher.isForkable(instances, 3)
+		when:
+		  def nodes = differDispatcher.dispatchForked(parentNode, instances, accessors)
+		then:
+		  executedTasks.size() == 1
+		  usedContexts.size() == 3
+		  !usedContexts[0].is(context)
+		  usedContexts[2].is(context)
+		and:
+		  nodes*.path*.lastElementSelector*.item == ['a', 'b', 'c']
+		  parentNode.childCount() == 3
+	}
+
+	def 'should by default only fork large collections and maps, but never beans'() {
+		given:
+		  def parallelismService = new ParallelismService(Stub(ObjectDifferBuilder))
+		  parallelismService.useExecutor(Stub(Executor)).splitIntoAtMost(4)
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, isIgnoredResolver, isReturnableResolver, propertyAccessExceptionHandlerResolver, parallelismService)
+		  def instances = Instances.of(new Object(), new Object()).withContext(differDispatcher.newDiffContext())
+		expect:
+		  !differDispatcher.isBeanForkable(instances, 8)
+		  !differDispatcher.isBeanForkable(instances, 1000)
+		  !differDispatcher.isForkable(instances, 8)
+		  differDispatcher.isForkable(instances, ParallelismService.DEFAULT_FORK_THRESHOLD)
+		when:
+		  parallelismService.forkBeansWhenAtLeast(8)
+		then:
+		  !differDispatcher.isBeanForkable(instances, 7)
+		  differDispatcher.isBeanForkable(instances, 8)
+	}
+
+	def 'should resolve the fresh values of forked partitions in their own context'() {
+		given:
+		  def parallelismResolver = Stub ParallelismResolver, {
+			  getExecutor() >> ({ Runnable task -> task.run() } as Executor)
+			  getForkThreshold() >> 2
+			  getMaxPartitionCount() >> 2
+		  }
+		  differDispatcher = new DifferDispatcher(differProvider, circularReferenceDetectorFactory, circularReferenceExceptionHandler, isIgnoredResolver, isReturnableResolver, propertyAccessExceptionHandlerResolver, parallelismResolver)
+		  def context = differDispatcher.newDiffContext()
+		  def freshValues = [:]
+		  differ.compare(_, _ as Instances) >> { DiffNode node, Instances accessedInstances ->
+			  freshValues[accessedInstances.sourceAccessor.elementSelector] = accessedInstances.fresh
+			  return new DiffNode(node, accessedInstances.sourceAccessor, ObjectWithString)
+		  }
+		  def accessors = ['a', 'b'].collect { name ->
+			  Stub(Accessor) {
+				  get(_) >> { args -> args[0] }
+				  getElementSelector() >> new BeanPropertyElementSelector(name)
+			  }
+		  } as Accessor[]
+		  def instances = Instances.of(new ObjectWithString('working'), new ObjectWithString('base')).withContext(context)
+		when:
+		  differDispatcher.dispatchForked(DiffNode.newRootNodeWithType(ObjectWithString), instances, accessors)
+		then:
+		  def forkedFresh = freshValues[new BeanPropertyElementSelector('a')]
+		  def callingThreadFresh = freshValues[new BeanPropertyElementSelector('b')]
+		  forkedFresh instanceof ObjectWithString
+		  callingThreadFresh.is context.freshInstanceOf(ObjectWithString)
+		  !forkedFresh.is(callingThreadFresh)
+	}
+
+	def 'should not fork if no executor has been configured'() {
+		given:
+		  def instances = Instances.of(['a', 'b', 'c'], []).withContext(differDispatcher.newDiffContext())
+		expect:
+		  !differDispatcher.isForkable(instances, 1000)
+	}
+}
@@ -24,6 +24,8 @@ import org.testng.annotations.Test;
 import java.util.Date;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -74,6 +76,37 @@ public class DifferProviderShould
 		differProvider.retrieveDifferForType(Date.class);
 	}
 
+	@Test
+	public void resolve_the_differ_for_a_type_only_once()
+	{
+		final Differ differ = given_differ_accepting_type(String.class);
+
+		differProvider.retrieveDifferForType(String.class);
+		differProvider.retrieveDifferForType(String.class);
+
+		verify(differ, times(1)).accepts(String.class);
+	}
+
+	@Test
+	public void resolve_the_differ_again_after_another_differ_has_been_pushed()
+	{
+		given_differ_accepting_type(String.class);
+		differProvider.retrieveDifferForType(String.class);
+		final Differ differ2 = given_differ_accepting_type(String.class);
+
+		final Differ retrievedDiffer = differProvider.retrieveDifferForType(String.class);
+
+		Assertions.assertThat(retrievedDiffer).is(sameAs(differ2));
+	}
+
+	@Test(expectedExceptions = IllegalStateException.class)
+	public void throw_IllegalStateException_when_pushing_differ_after_freeze()
+	{
+		differProvider.freeze();
+
+		differProvider.push(mock(Differ.class));
+	}
+
 	private Differ given_differ_accepting_type(final Class<String> type)
 	{
 		final Differ differ = mock(Differ.class);
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.NodeQueryService
+import de.danielbechler.diff.ObjectDiffer
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.identity.IdentityStrategy
+import de.danielbechler.diff.mock.ObjectWithString
+import de.danielbechler.diff.path.NodePath
+import de.danielbechler.diff.selector.ListItemElementSelector
+import spock.lang.Specification
+
+import static de.danielbechler.diff.node.DiffNode.State.*
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class ListDifferTest extends Specification {
+
+	ObjectDiffer objectDiffer = ObjectDifferBuilder.startBuilding()
+			.differs().register(new ListDifferFactory())
+			.build()
+
+	def 'accepts lists only'() {
+		given:
+		  def listDiffer = new ListDiffer(Mock(DifferDispatcher), Mock(NodeQueryService))
+		expect:
+		  listDiffer.accepts(ArrayList)
+		  listDiffer.accepts(LinkedList)
+		  !listDiffer.accepts(HashSet)
+	}
+
+	def 'reports no changes for equal lists'() {
+		when:
+		  def node = objectDiffer.compare(['a', 'b'], ['a', 'b'])
+		then:
+		  node.untouched
+		  !node.hasChildren()
+	}
+
+	def 'reports inserted items with their position in the working list'() {
+		when:
+		  def node = objectDiffer.compare(['a', 'x', 'b'], ['a', 'b'])
+		then:
+		  node.changed
+		  node.childCount() == 1
+		  node.getChild(new ListItemElementSelector(NO_INDEX, 1, false)).state == ADDED
+	}
+
+	def 'reports deleted items with their position in the base list'() {
+		when:
+		  def node = objectDiffer.compare(['a', 'b'], ['a', 'x', 'b'])
+		then:
+		  node.changed
+		  node.childCount() == 1
+		  node.getChild(new ListItemElementSelector(1, NO_INDEX, false)).state == REMOVED
+	}
+
+	def 'reports items that changed their position as moved'() {
+		when:
+		  def node = objectDiffer.compare(['c', 'a', 'b'], ['a', 'b', 'c'])
+		then:
+		  node.changed
+		  node.childCount() == 1
+		  node.getChild(new ListItemElementSelector(2, 0, true)).state == MOVED
+	}
+
+	def 'does not report items that only shifted because of insertions before them'() {
+		when:
+		  def node = objectDiffer.compare(['x', 'y', 'a', 'b'], ['a', 'b'])
+		then:
+		  node.childCount() == 2
+		  node.getChild(new ListItemElementSelector(NO_INDEX, 0, false)).added
+		  node.getChild(new ListItemElementSelector(NO_INDEX, 1, false)).added
+	}
+
+	def 'compares the properties of matched items'() {
+		given:
+		  def working = [new ObjectWithString('foo')]
+		  def base = [new ObjectWithString('bar')]
+		  objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .identity().ofCollectionItems(NodePath.withRoot()).via({ a, b -> true } as IdentityStrategy)
+				  .and().differs().register(new ListDifferFactory())
+				  .build()
+		when:
+		  def node = objectDiffer.compare(working, base)
+		then:
+		  def itemNode = node.getChild(new ListItemElementSelector(0, 0, false))
+		  itemNode.changed
+		  itemNode.getChild('value').changed
+	}
+
+	def 'marks all items of an added list as added'() {
+		when:
+		  def node = objectDiffer.compare(['a', 'b'], null)
+		then:
+		  node.added
+		  node.getChild(new ListItemElementSelector(NO_INDEX, 0, false)).added
+		  node.getChild(new ListItemElementSelector(NO_INDEX, 1, false)).added
+	}
+
+	def 'marks all items of a removed list as removed'() {
+		when:
+		  def node = objectDiffer.compare(null, ['a'])
+		then:
+		  node.removed
+		  node.getChild(new ListItemElementSelector(0, NO_INDEX, false)).removed
+	}
+}
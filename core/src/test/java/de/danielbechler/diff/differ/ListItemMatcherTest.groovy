@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.differ
+
+import de.danielbechler.diff.identity.EqualsIdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategy
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class ListItemMatcherTest extends Specification {
+
+	@Unroll
+	def 'matches #matches items of #base and #working'() {
+		when:
+		  def matcher = new ListItemMatcher(base, working, EqualsIdentityStrategy.instance)
+		then:
+		  matchedPairs(matcher, base, working) == matches
+		where:
+		  base                 | working              || matches
+		  []                   | []                   || []
+		  ['a']                | []                   || []
+		  []                   | ['a']                || []
+		  ['a', 'b', 'c']      | ['a', 'b', 'c']      || [[0, 0], [1, 1], [2, 2]]
+		  ['a', 'b', 'c']      | ['a', 'x', 'b', 'c'] || [[0, 0], [1, 2], [2, 3]]
+		  ['a', 'b', 'c']      | ['a', 'c']           || [[0, 0], [2, 1]]
+		  ['a', 'b', 'c', 'd'] | ['x', 'b', 'y', 'd'] || [[1, 1], [3, 3]]
+	}
+
+	def 'reports items that have been matched outside of the longest common subsequence as moved'() {
+		given:
+		  def base = ['a', 'b', 'c', 'd']
+		  def working = ['d', 'a', 'b', 'c']
+		when:
+		  def matcher = new ListItemMatcher(base, working, EqualsIdentityStrategy.instance)
+		then:
+		  matchedPairs(matcher, base, working) == [[0, 1], [1, 2], [2, 3], [3, 0]]
+		  (0..2).every { !matcher.isMoved(it) }
+		  matcher.isMoved(3)
+	}
+
+	def 'matches duplicate items one by one'() {
+		given:
+		  def base = ['a', 'a', 'b']
+		  def working = ['b', 'a']
+		when:
+		  def matcher = new ListItemMatcher(base, working, EqualsIdentityStrategy.instance)
+		then:
+		  matcher.baseIndexOf(0) == 2
+		  matcher.baseIndexOf(1) != NO_INDEX
+		  (0..2).count { matcher.workingIndexOf(it) == NO_INDEX } == 1
+	}
+
+	def 'uses the given identity strategy to compare items'() {
+		given:
+		  def identityStrategy = Stub(IdentityStrategy) {
+			  equals(_, _) >> { working, base -> working.equalsIgnoreCase(base) }
+		  }
+		when:
+		  def matcher = new ListItemMatcher(['a', 'b'], ['B', 'A'], identityStrategy)
+		then:
+		  matcher.baseIndexOf(0) == 1
+		  matcher.baseIndexOf(1) == 0
+	}
+
+	def 'finds the longest common subsequence of random lists'() {
+		given:
+		  def random = new Random(42)
+		expect:
+		  200.times {
+			  def base = randomList(random)
+			  def working = randomList(random)
+			  def matcher = new ListItemMatcher(base, working, EqualsIdentityStrategy.instance)
+			  def inOrder = matchedPairs(matcher, base, working).findAll { !matcher.isMoved(it[0]) }
+			  assert inOrder.every { base[it[0]] == working[it[1]] }
+			  assert inOrder.collect { it[1] } == inOrder.collect { it[1] }.sort()
+			  assert inOrder.size() == longestCommonSubsequenceLength(base, working)
+		  }
+	}
+
+	private static List<List<Integer>> matchedPairs(ListItemMatcher matcher, List base, List working) {
+		def pairs = []
+		base.eachWithIndex { item, baseIndex ->
+			def workingIndex = matcher.workingIndexOf(baseIndex)
+			if (workingIndex != NO_INDEX) {
+				assert matcher.baseIndexOf(workingIndex) == baseIndex
+				pairs << [baseIndex, workingIndex]
+			}
+		}
+		return pairs
+	}
+
+	private static List randomList(Random random) {
+		def size = random.nextInt(20)
+		return (0..<size).collect { (char) ('a' as char) + random.nextInt(5) }
+	}
+
+	private static int longestCommonSubsequenceLength(List base, List working) {
+		def lengths = new int[base.size() + 1][working.size() + 1]
+		for (int i = 1; i <= base.size(); i++) {
+			for (int j = 1; j <= working.size(); j++) {
+				if (base[i - 1] == working[j - 1]) {
+					lengths[i][j] = lengths[i - 1][j - 1] + 1
+				} else {
+					lengths[i][j] = Math.max(lengths[i - 1][j], lengths[i][j - 1])
+				}
+			}
+		}
+		return lengths[base.size()][working.size()]
+	}
+}
@@ -137,6 +137,85 @@ public class MapDifferTest extends Specification {
 		  1 * comparisonStrategy.compare(_ as DiffNode, instances.getType(), instances.getWorking(Map), instances.getBase(Map))
 	}
 
+	def "resolve the comparison strategy only once"() {
+		when:
+		  mapDiffer.compare(DiffNode.ROOT, instances)
+
+		then:
+		  1 * comparisonStrategyResolver.resolveComparisonStrategy(_ as DiffNode) >> comparisonStrategy
+	}
+
+	def "dispatch added, removed and known entries in that order"() {
+		given:
+		  working.putAll(known: 'a', added: 'b')
+		  base.putAll(known: 'c', removed: 'd')
+
+		when:
+		  mapDiffer.compare(DiffNode.ROOT, instances)
+
+		then:
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('added'))
+
+		then:
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('removed'))
+
+		then:
+		  1 * differDispatcher.dispatch(_ as DiffNode, instances, new MapEntryAccessor('known'))
+	}
+
+	def "partition sorted maps with compatible order by walking both key sets side by side"() {
+		given:
+		  def comparator = String.CASE_INSENSITIVE_ORDER
+		  def sortedWorking = new TreeMap(comparator)
+		  sortedWorking.putAll(a: 1, C: 2, d: 3)
+		  def sortedBase = new TreeMap(comparator)
+		  sortedBase.putAll(A: 1, b: 2, d: 4)
+		  def sortedInstances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Map) >> sortedWorking
+			  getBase(Map) >> sortedBase
+		  }
+		  def dispatchedKeys = []
+
+		when:
+		  mapDiffer.compare(DiffNode.ROOT, sortedInstances)
+
+		then:
+		  4 * differDispatcher.dispatch(_ as DiffNode, sortedInstances, _ as MapEntryAccessor) >> { DiffNode node, Instances i, MapEntryAccessor accessor ->
+			  dispatchedKeys << accessor.elementSelector.key
+			  childNode
+		  }
+		  dispatchedKeys == ['C', 'b', 'a', 'd']
+	}
+
+	def "partition sorted maps without dropping the keys following a null key"() {
+		given:
+		  def nullsFirst = { x, y -> x == null ? (y == null ? 0 : -1) : (y == null ? 1 : x <=> y) } as Comparator
+		  def sortedWorking = new TreeMap(nullsFirst)
+		  sortedWorking.putAll([(null): 1, a: 2, b: 3])
+		  def sortedBase = new TreeMap(nullsFirst)
+		  sortedBase.putAll([(null): 1, c: 4])
+		  def sortedInstances = Mock(Instances) {
+			  getSourceAccessor() >> RootAccessor.instance
+			  getWorking(Map) >> sortedWorking
+			  getBase(Map) >> sortedBase
+		  }
+		  def dispatchedKeys = []
+
+		when:
+		  mapDiffer.compare(DiffNode.ROOT, sortedInstances)
+
+		then:
+		  3 * differDispatcher.dispatch(_ as DiffNode, sortedInstances, _ as MapEntryAccessor) >> { DiffNode node, Instances i, MapEntryAccessor accessor ->
+			  dispatchedKeys << accessor.elementSelector.key
+			  childNode
+		  }
+		  dispatchedKeys == ['a', 'b', 'c']
+
+		and: 'the known null key gets rejected just like for any other map'
+		  thrown(IllegalArgumentException)
+	}
+
 	def "do not add unreturnable child nodes"() {
 		given:
 		  working.put("foo", "bar")
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.identity
+
+import spock.lang.Specification
+
+class IdentityIndexTest extends Specification {
+
+	def 'contains returns true for indexed items'() {
+		given:
+		  def index = new IdentityIndex(['foo', 'bar', null], EqualsIdentityStrategy.instance)
+		expect:
+		  index.contains('foo')
+		  index.contains('bar')
+		  index.contains(null)
+		  !index.contains('baz')
+	}
+
+	def 'find returns the matching indexed item'() {
+		given:
+		  def item = new StringBuilder('foo')
+		  def index = new IdentityIndex([item], new CaseInsensitiveIdentityStrategy())
+		expect:
+		  index.find('FOO').is(item)
+		  index.find('bar') == null
+	}
+
+	def 'find checks all items sharing the same hash code'() {
+		given:
+		  def identityStrategy = Mock(HashingIdentityStrategy) {
+			  hashCode(_) >> 42
+			  equals(_, _) >> { working, base -> working == base }
+		  }
+		  def index = new IdentityIndex(['foo', 'bar', 'baz'], identityStrategy)
+		expect:
+		  index.find('baz') == 'baz'
+		  !index.contains('qux')
+	}
+
+	def 'find passes the needle as first argument to the identity strategy'() {
+		given:
+		  def identityStrategy = Mock(HashingIdentityStrategy)
+		  def index = new IdentityIndex(['indexed'], identityStrategy)
+		when:
+		  index.find('needle')
+		then:
+		  1 * identityStrategy.hashCode('needle') >> 0
+		  1 * identityStrategy.equals('needle', 'indexed') >> false
+	}
+
+	def 'never passes null items to the identity strategy'() {
+		given:
+		  def index = new IdentityIndex(['foo', null], new CaseInsensitiveIdentityStrategy())
+		expect:
+		  index.find('FOO') == 'foo'
+		  index.find(null) == null
+		  index.contains(null)
+		  !index.contains('bar')
+	}
+
+	def 'add and remove keep the index in sync with the indexed collection'() {
+		given:
+		  def item = new StringBuilder('foo')
+		  def index = new IdentityIndex([item, null], new CaseInsensitiveIdentityStrategy())
+		when:
+		  index.add('bar')
+		  index.remove(item)
+		  index.remove(null)
+		then:
+		  index.size() == 1
+		  index.find('BAR') == 'bar'
+		  index.find('foo') == null
+		  !index.contains(null)
+	}
+
+	def 'remove only removes the given instance'() {
+		given:
+		  def index = new IdentityIndex(['foo'], EqualsIdentityStrategy.instance)
+		expect:
+		  !index.remove(new String('foo'))
+		  index.size() == 1
+	}
+
+	static class CaseInsensitiveIdentityStrategy implements HashingIdentityStrategy {
+		int hashCode(Object item) {
+			return item.toString().toLowerCase().hashCode()
+		}
+
+		boolean equals(Object working, Object base) {
+			return working.toString().equalsIgnoreCase(base.toString())
+		}
+	}
+}
@@ -18,6 +18,9 @@ package de.danielbechler.diff.inclusion
 
 import de.danielbechler.diff.ObjectDifferBuilder
 import de.danielbechler.diff.category.CategoryResolver
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.introspection.StandardIntrospector
+import de.danielbechler.diff.mock.ObjectWithNestedObject
 import de.danielbechler.diff.node.DiffNode
 import de.danielbechler.diff.path.NodePath
 import spock.lang.Specification
@@ -226,4 +229,90 @@ class InclusionServiceTest extends Specification {
 			  inclusionResolvers[5] instanceof NodePathInclusionResolver
 		  }
 	}
+
+	def 'resolveIgnoredProperties: resolves the inclusion of every property of a type'() {
+		given:
+		  inclusionService = new InclusionService(categoryResolver, rootConfiguration)
+		  inclusionService.exclude().type(ObjectWithNestedObject)
+		  def typeInfo = new StandardIntrospector().introspect(ObjectWithNestedObject)
+		when:
+		  def ignoredProperties = inclusionService.resolveIgnoredProperties(typeInfo)
+		then:
+		  ignoredProperties.length == typeInfo.accessors.size()
+		  typeInfo.accessors.collect { it.propertyName } == ['id', 'object']
+		  ignoredProperties as List == [false, true]
+	}
+
+	def 'resolveIgnoredProperties: caches the result per type info until the configuration changes'() {
+		given:
+		  inclusionService = new InclusionService(categoryResolver, rootConfiguration)
+		  def typeInfo = new StandardIntrospector().introspect(ObjectWithNestedObject)
+		  def ignoredProperties = inclusionService.resolveIgnoredProperties(typeInfo)
+		expect:
+		  inclusionService.resolveIgnoredProperties(typeInfo).is ignoredProperties
+		when:
+		  inclusionService.exclude().propertyNameOfType(ObjectWithNestedObject, 'id')
+		then:
+		  inclusionService.resolveIgnoredProperties(typeInfo) as List == [true, false]
+	}
+
+	def 'resolveIgnoredProperties: keeps the result of each type info, even if they belong to the same type'() {
+		given:
+		  inclusionService = new InclusionService(categoryResolver, rootConfiguration)
+		  def typeInfo = new StandardIntrospector().introspect(ObjectWithNestedObject)
+		  def otherTypeInfo = new StandardIntrospector().introspect(ObjectWithNestedObject)
+		  def ignoredProperties = inclusionService.resolveIgnoredProperties(typeInfo)
+		  def otherIgnoredProperties = inclusionService.resolveIgnoredProperties(otherTypeInfo)
+		expect:
+		  inclusionService.resolveIgnoredProperties(typeInfo).is ignoredProperties
+		  inclusionService.resolveIgnoredProperties(otherTypeInfo).is otherIgnoredProperties
+	}
+
+	def 'resolveIgnoredProperties: returns null if inclusion depends on the position of a node'() {
+		given:
+		  inclusionService = new InclusionService(categoryResolver, rootConfiguration)
+		  configure(inclusionService)
+		expect:
+		  inclusionService.resolveIgnoredProperties(new TypeInfo(ObjectWithNestedObject)) == null
+		where:
+		  configure << [
+				  { InclusionService service -> service.exclude().node(NodePath.with('foo')) },
+				  { InclusionService service -> service.exclude().category('foo') },
+				  { InclusionService service -> service.exclude().propertyName('foo') },
+				  { InclusionService service -> service.resolveUsing(Stub(InclusionResolver)) }
+		  ]
+	}
+
+	def 'snapshot: preserves the order of the inclusion resolvers'() {
+		given:
+		  inclusionService = new InclusionService(categoryResolver, rootConfiguration)
+		  def customInclusionResolver = Stub(InclusionResolver)
+		  inclusionService
+				  .include().propertyName('foo').also()
+				  .resolveUsing(customInclusionResolver)
+				  .include().node(NodePath.with('foo'))
+		when:
+		  def snapshot = inclusionService.snapshot(categoryResolver)
+		then:
+		  snapshot.inclusionResolvers.size() == 4
+		  snapshot.inclusionResolvers[0] instanceof TypePropertyAnnotationInclusionResolver
+		  snapshot.inclusionResolvers[1] instanceof PropertyNameInclusionResolver
+		  snapshot.inclusionResolvers[2].is customInclusionResolver
+		  snapshot.inclusionResolvers[3] instanceof NodePathInclusionResolver
+	}
+
+	def 'snapshot: is unaffected by further changes to the service'() {
+		given:
+		  inclusionService = new InclusionService(categoryResolver, rootConfiguration)
+		  inclusionService.exclude().propertyNameOfType(ObjectWithNestedObject, 'id')
+		  def typeInfo = new StandardIntrospector().introspect(ObjectWithNestedObject)
+		  def snapshot = inclusionService.snapshot(categoryResolver)
+		when:
+		  inclusionService
+				  .include().propertyNameOfType(ObjectWithNestedObject, 'id').also()
+				  .exclude().type(ObjectWithNestedObject)
+		then:
+		  snapshot.resolveIgnoredProperties(typeInfo) as List == [true, false]
+		  inclusionService.resolveIgnoredProperties(typeInfo) as List == [false, true]
+	}
 }
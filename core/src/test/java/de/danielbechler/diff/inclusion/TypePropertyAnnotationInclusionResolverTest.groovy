@@ -32,10 +32,14 @@ class TypePropertyAnnotationInclusionResolverTest extends Specification {
 	def inclusionResolver = new TypePropertyAnnotationInclusionResolver()
 	def node = Stub DiffNode, {
 		getPropertyAnnotation(ObjectDiffProperty) >> null
+		getFieldAnnotation(ObjectDiffProperty) >> null
 		getParentNode() >> Stub(DiffNode, {
 			getValueTypeInfo() >> Stub(TypeInfo, {
 				getAccessors() >> [
-						Stub(PropertyAwareAccessor, { getReadMethodAnnotation(ObjectDiffProperty) >> null })
+						Stub(PropertyAwareAccessor, {
+							getReadMethodAnnotation(ObjectDiffProperty) >> null
+							getFieldAnnotation(ObjectDiffProperty) >> null
+						})
 				]
 			})
 		})
@@ -112,6 +116,31 @@ class TypePropertyAnnotationInclusionResolverTest extends Specification {
 		  result == EXCLUDED
 	}
 
+	def 'should return the inclusion annotated on the field, if the getter is not annotated'() {
+		when:
+		  def result = inclusionResolver.getInclusion(node)
+		then:
+		  node.getFieldAnnotation(ObjectDiffProperty) >> Stub(ObjectDiffProperty, {
+			  inclusion() >> EXCLUDED
+		  })
+		and:
+		  result == EXCLUDED
+	}
+
+	def 'should return EXCLUDED when node is not explicitly included but the field of any of its siblings is'() {
+		when:
+		  def result = inclusionResolver.getInclusion(node)
+		then:
+		  node.parentNode.valueTypeInfo.accessors >> [Stub(PropertyAwareAccessor, {
+			  getReadMethodAnnotation(ObjectDiffProperty) >> null
+			  getFieldAnnotation(ObjectDiffProperty) >> Stub(ObjectDiffProperty, {
+				  inclusion() >> INCLUDED
+			  })
+		  })]
+		and:
+		  result == EXCLUDED
+	}
+
 	def 'should return DEFAULT when node is not explicitly included but any of its siblings is excluded'() {
 		when:
 		  def result = inclusionResolver.getInclusion(node)
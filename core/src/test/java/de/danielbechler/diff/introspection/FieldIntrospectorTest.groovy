@@ -0,0 +1,149 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.node.DiffNode
+import de.danielbechler.diff.path.NodePath
+import spock.lang.Specification
+
+/**
+ * @author Daniel Bechler
+ */
+class FieldIntrospectorTest extends Specification {
+
+	def introspector = new FieldIntrospector()
+
+	private Map<String, PropertyAwareAccessor> introspect(Class<?> type) {
+		introspector.introspect(type).accessors.collectEntries {
+			accessor -> [accessor.propertyName, accessor]
+		}
+	}
+
+	def 'should return accessors for the declared fields of the whole class hierarchy'() {
+		when:
+		  def accessors = introspect(ChildType)
+		then:
+		  accessors.keySet() == ['child', 'shadowed', 'parent'] as Set
+	}
+
+	def 'should prefer fields of subclasses over equally named fields of superclasses'() {
+		when:
+		  def accessor = introspect(ChildType).get('shadowed')
+		then:
+		  accessor.type == Integer
+	}
+
+	def 'should skip static, transient and synthetic fields'() {
+		when:
+		  def accessors = introspect(ChildType)
+		then:
+		  !accessors.containsKey('CONSTANT')
+		  !accessors.containsKey('cache')
+		  !accessors.containsKey('metaClass')
+	}
+
+	def 'accessor should read and write the field directly'() {
+		given:
+		  def accessor = introspect(ChildType).get('parent')
+		  def target = new ChildType()
+		when:
+		  accessor.set(target, 'foo')
+		then:
+		  accessor.get(target) == 'foo'
+	}
+
+	def 'accessor should not write final fields'() {
+		given:
+		  def accessor = introspect(TypeWithFinalField).get('value')
+		  def target = new TypeWithFinalField()
+		when:
+		  accessor.set(target, 'bar')
+		then:
+		  accessor.get(target) == 'foo'
+	}
+
+	def 'accessor should return null when reading from null target'() {
+		expect:
+		  introspect(ChildType).get('child').get(null) == null
+	}
+
+	def 'accessor should wrap exceptions thrown while writing in PropertyWriteException'() {
+		given:
+		  def accessor = introspect(TypeWithPrimitiveField).get('value')
+		when:
+		  accessor.set(new TypeWithPrimitiveField(), null)
+		then:
+		  def exception = thrown(PropertyWriteException)
+		  exception.propertyName == 'value'
+		  exception.targetType == TypeWithPrimitiveField
+	}
+
+	def 'accessor should honour ObjectDiffProperty annotation on field'() {
+		when:
+		  def accessor = introspect(TypeWithAnnotatedField).get('value')
+		then:
+		  accessor.excludedByAnnotation == true
+		  accessor.categoriesFromAnnotation == ['bar', 'foo'] as Set
+		  accessor.getReadMethodAnnotation(ObjectDiffProperty) != null
+		  accessor.getFieldAnnotation(ObjectDiffProperty) != null
+		  accessor.readMethodAnnotations.size() == 1
+		  accessor.fieldAnnotations.size() == 1
+	}
+
+	def 'should be usable for selected types via IntrospectionConfigurer'() {
+		given:
+		  def objectDiffer = ObjectDifferBuilder.startBuilding()
+				  .introspection().ofType(TypeWithAnnotatedField).toUse(introspector).and()
+				  .build()
+		when:
+		  def working = new TypeWithAnnotatedField(value: 'foo', other: 'foo')
+		  def base = new TypeWithAnnotatedField(value: 'bar', other: 'bar')
+		  def node = objectDiffer.compare(working, base)
+		then:
+		  node.getChild('value') == null
+		  node.getChild('other').state == DiffNode.State.CHANGED
+		  node.getChild('other').path == NodePath.with('other')
+	}
+
+	public static class ParentType {
+		private String parent
+		private String shadowed
+	}
+
+	public static class ChildType extends ParentType {
+		private static final String CONSTANT = 'constant'
+		private transient String cache
+		private String child
+		private Integer shadowed
+	}
+
+	public static class TypeWithFinalField {
+		private final String value = 'foo'
+	}
+
+	public static class TypeWithPrimitiveField {
+		private int value
+	}
+
+	public static class TypeWithAnnotatedField {
+		@ObjectDiffProperty(excluded = true, categories = ['foo', 'bar'])
+		private String value
+		private String other
+	}
+}
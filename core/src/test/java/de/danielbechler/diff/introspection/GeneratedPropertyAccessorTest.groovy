@@ -0,0 +1,190 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.mock.ObjectDiffTest
+import de.danielbechler.diff.mock.ObjectWithAnnotatedProperty
+import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import spock.lang.Specification
+
+/**
+ * @author Daniel Bechler
+ */
+class GeneratedPropertyAccessorTest extends Specification {
+
+	def accessor = new ValueAccessor()
+
+	def 'get reads the property'() {
+		expect:
+		  accessor.get(new ObjectWithAnnotatedProperty('foo')) == 'foo'
+	}
+
+	def 'get returns null for null target'() {
+		expect:
+		  accessor.get(null) == null
+	}
+
+	def 'get wraps exceptions in PropertyReadException'() {
+		given:
+		  accessor = new FailingAccessor()
+		when:
+		  accessor.get(new ObjectWithAnnotatedProperty())
+		then:
+		  def exception = thrown(PropertyReadException)
+		  exception.propertyName == 'value'
+		  exception.targetType == ObjectWithAnnotatedProperty
+	}
+
+	def 'set writes the property'() {
+		given:
+		  def target = new ObjectWithAnnotatedProperty('foo')
+		when:
+		  accessor.set(target, 'bar')
+		then:
+		  target.value == 'bar'
+	}
+
+	def 'set does nothing if the property has no write method'() {
+		given:
+		  accessor = new FailingAccessor()
+		  def target = new ObjectWithAnnotatedProperty('foo')
+		when:
+		  accessor.set(target, 'bar')
+		then:
+		  target.value == 'foo'
+	}
+
+	def 'set replaces the content of collections without write method'() {
+		given:
+		  def target = new ObjectWithReadOnlyContainers()
+		  target.items.add('foo')
+		  accessor = new ItemsAccessor()
+		when:
+		  accessor.set(target, ['bar', 'baz'])
+		then:
+		  target.items == ['bar', 'baz']
+	}
+
+	def 'set replaces the content of maps without write method'() {
+		given:
+		  def target = new ObjectWithReadOnlyContainers()
+		  target.entries.put('foo', 'foo')
+		  accessor = new EntriesAccessor()
+		when:
+		  accessor.set(target, [bar: 'bar'])
+		then:
+		  target.entries == [bar: 'bar']
+	}
+
+	def 'set wraps exceptions in PropertyWriteException'() {
+		given:
+		  accessor = new ValueAccessor() {
+			  @Override
+			  protected void write(Object target, Object value) {
+				  throw new UnsupportedOperationException()
+			  }
+		  }
+		when:
+		  accessor.set(new ObjectWithAnnotatedProperty(), 'bar')
+		then:
+		  def exception = thrown(PropertyWriteException)
+		  exception.newValue == 'bar'
+	}
+
+	def 'provides property metadata'() {
+		expect:
+		  accessor.propertyName == 'value'
+		  accessor.type == String
+		  accessor.elementSelector == new BeanPropertyElementSelector('value')
+	}
+
+	def 'resolves annotations of the read method via reflection'() {
+		expect:
+		  accessor.readMethodAnnotations.size() == 2
+		  accessor.getReadMethodAnnotation(ObjectDiffTest) != null
+		  accessor.getReadMethodAnnotation(ObjectDiffProperty).excluded()
+		  accessor.excludedByAnnotation
+		  accessor.categoriesFromAnnotation.isEmpty()
+		  accessor.fieldAnnotations.isEmpty()
+	}
+
+	private static class ValueAccessor extends GeneratedPropertyAccessor {
+		ValueAccessor() {
+			super(ObjectWithAnnotatedProperty, 'value', String, 'getValue', 'setValue')
+		}
+
+		@Override
+		protected Object read(Object target) {
+			return ((ObjectWithAnnotatedProperty) target).getValue()
+		}
+
+		@Override
+		protected void write(Object target, Object value) {
+			((ObjectWithAnnotatedProperty) target).setValue((String) value)
+		}
+	}
+
+	private static class FailingAccessor extends GeneratedPropertyAccessor {
+		FailingAccessor() {
+			super(ObjectWithAnnotatedProperty, 'value', String, 'getValue', null)
+		}
+
+		@Override
+		protected Object read(Object target) {
+			throw new IllegalStateException()
+		}
+
+		@Override
+		protected void write(Object target, Object value) {
+			throw new UnsupportedOperationException()
+		}
+	}
+
+	public static class ObjectWithReadOnlyContainers {
+		private final List<String> items = new ArrayList<String>()
+		private final Map<String, String> entries = new HashMap<String, String>()
+
+		List<String> getItems() {
+			return items
+		}
+
+		Map<String, String> getEntries() {
+			return entries
+		}
+	}
+
+	private static class ItemsAccessor extends GeneratedPropertyAccessor {
+		ItemsAccessor() {
+			super(ObjectWithReadOnlyContainers, 'items', List, 'getItems', null)
+		}
+
+		@Override
+		protected Object read(Object target) {
+			return ((ObjectWithReadOnlyContainers) target).getItems()
+		}
+	}
+
+	private static class EntriesAccessor extends GeneratedPropertyAccessor {
+		EntriesAccessor() {
+			super(ObjectWithReadOnlyContainers, 'entries', Map, 'getEntries', null)
+		}
+
+		@Override
+		protected Object read(Object target) {
+			return ((ObjectWithReadOnlyContainers) target).getEntries()
+		}
+	}
+}
@@ -19,6 +19,7 @@ import de.danielbechler.diff.ObjectDifferBuilder
 import de.danielbechler.diff.access.TypeAwareAccessor
 import de.danielbechler.diff.circular.CircularReferenceMatchingMode
 import de.danielbechler.diff.inclusion.Inclusion
+import de.danielbechler.diff.instantiation.InstanceFactory
 import de.danielbechler.diff.instantiation.TypeInfo
 import de.danielbechler.diff.mock.ObjectWithString
 import de.danielbechler.diff.node.DiffNode
@@ -191,6 +192,129 @@ class IntrospectionServiceTest extends Specification {
 		  introspectionService.introspectorForNode(rootNode) == nodeIntrospector
 	}
 
+	def 'introspectorForNode returns registered type introspector if no special configuration exists'() {
+		given:
+		  def registeredIntrospector = Mock(TypeIntrospector)
+		  def typeIntrospectorLoader = Mock(TypeIntrospectorLoader, constructorArgs: [getClass().classLoader]) {
+			  load() >> [(ObjectWithString): registeredIntrospector]
+		  }
+		  introspectionService = new IntrospectionService(objectDifferBuilder, typeIntrospectorLoader)
+		expect:
+		  introspectionService.introspectorForNode(rootNode) == registeredIntrospector
+	}
+
+	def 'introspectorForNode prefers explicitly configured introspectors over registered type introspectors'() {
+		given:
+		  def configuredIntrospector = Mock(Introspector)
+		  def typeIntrospectorLoader = Mock(TypeIntrospectorLoader, constructorArgs: [getClass().classLoader]) {
+			  load() >> [(ObjectWithString): Mock(TypeIntrospector)]
+		  }
+		  introspectionService = new IntrospectionService(objectDifferBuilder, typeIntrospectorLoader)
+		when:
+		  configure(introspectionService).toUse(configuredIntrospector)
+		then:
+		  introspectionService.introspectorForNode(rootNode) == configuredIntrospector
+		where:
+		  configure << [
+				  { IntrospectionService service -> service.ofType(ObjectWithString) },
+				  { IntrospectionService service -> service.ofNode(NodePath.withRoot()) }
+		  ]
+	}
+
+	def 'typeInfoForNode introspects each type only once'() {
+		when:
+		  def firstTypeInfo = introspectionService.typeInfoForNode(rootNode)
+		  def secondTypeInfo = introspectionService.typeInfoForNode(rootNode)
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		and:
+		  firstTypeInfo.is secondTypeInfo
+		and:
+		  introspectionService.typeInfoCacheStatistics.hitCount == 1
+		  introspectionService.typeInfoCacheStatistics.missCount == 1
+		  introspectionService.typeInfoCacheStatistics.size == 1
+	}
+
+	def 'typeInfoForNode introspects the type again after its cached type info has been invalidated'() {
+		given:
+		  defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  introspectionService.typeInfoForNode(rootNode)
+		when:
+		  introspectionService.invalidateCachedTypeInfo(ObjectWithString)
+		  introspectionService.typeInfoForNode(rootNode)
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+	}
+
+	def 'typeInfoForNode introspects the type again after all cached type infos have been invalidated'() {
+		given:
+		  defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  introspectionService.typeInfoForNode(rootNode)
+		when:
+		  introspectionService.invalidateCachedTypeInfos()
+		  introspectionService.typeInfoForNode(rootNode)
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		and:
+		  introspectionService.typeInfoCacheStatistics.size == 1
+	}
+
+	def 'typeInfoForNode caches type infos per introspector'() {
+		given:
+		  def typeIntrospector = Mock(Introspector)
+		  defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  introspectionService.typeInfoForNode(rootNode)
+		when:
+		  introspectionService.ofType(ObjectWithString).toUse(typeIntrospector)
+		  introspectionService.typeInfoForNode(rootNode)
+		then:
+		  0 * defaultIntrospector.introspect(_)
+		  1 * typeIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+	}
+
+	def 'changing the instance factory invalidates all cached type infos'() {
+		given:
+		  def instanceFactory = Mock(InstanceFactory)
+		  defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  introspectionService.typeInfoForNode(rootNode)
+		when:
+		  introspectionService.setInstanceFactory(instanceFactory)
+		  introspectionService.typeInfoForNode(rootNode).newInstance()
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  1 * instanceFactory.newInstanceOfType(ObjectWithString) >> new ObjectWithString()
+	}
+
+	def 'snapshot shares the type info cache, so invalidations and statistics apply to it'() {
+		given:
+		  defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		  def snapshot = introspectionService.snapshot()
+		  snapshot.typeInfoForNode(rootNode)
+		when:
+		  introspectionService.invalidateCachedTypeInfo(ObjectWithString)
+		  snapshot.typeInfoForNode(rootNode)
+		  snapshot.typeInfoForNode(rootNode)
+		then:
+		  1 * defaultIntrospector.introspect(ObjectWithString) >> new TypeInfo(ObjectWithString)
+		and:
+		  introspectionService.typeInfoCacheStatistics.hitCount == 1
+		  introspectionService.typeInfoCacheStatistics.missCount == 2
+	}
+
+	def 'snapshots with different instance factories do not share their type infos'() {
+		given:
+		  def instanceFactory = Mock(InstanceFactory)
+		  defaultIntrospector.introspect(ObjectWithString) >> { new TypeInfo(ObjectWithString) }
+		  def snapshot = introspectionService.snapshot()
+		  introspectionService.setInstanceFactory(instanceFactory)
+		  def snapshotWithInstanceFactory = introspectionService.snapshot()
+		when:
+		  snapshotWithInstanceFactory.typeInfoForNode(rootNode).newInstance()
+		  snapshot.typeInfoForNode(rootNode).newInstance()
+		then:
+		  1 * instanceFactory.newInstanceOfType(ObjectWithString) >> new ObjectWithString()
+	}
+
 	def 'and() returns original ObjectDifferBuilder'() {
 		given:
 		  objectDifferBuilder = Mock(ObjectDifferBuilder)
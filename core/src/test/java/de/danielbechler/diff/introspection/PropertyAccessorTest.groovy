@@ -16,6 +16,7 @@
 
 package de.danielbechler.diff.introspection
 
+import de.danielbechler.diff.ObjectDifferBuilder
 import de.danielbechler.diff.mock.ObjectWithAnnotatedProperty
 import de.danielbechler.diff.mock.ObjectWithHashCodeAndEquals
 import de.danielbechler.diff.mock.ObjectWithStringAndUnsupportedWriteMethod
@@ -224,4 +225,79 @@ public class PropertyAccessorTest extends Specification {
 		expect:
 		  propertyAccessor.excludedByAnnotation == false
 	}
+
+	def 'getCategoriesFromAnnotation and isExcludedByAnnotation fall back to the annotation of the field'() {
+		given:
+		  propertyAccessor = PropertyAccessorBuilder.forPropertyOf(TypeWithAnnotatedField)
+				  .property('value', String)
+				  .readOnly(true)
+				  .build()
+		expect:
+		  propertyAccessor.categoriesFromAnnotation == ['A', 'B'] as Set
+		  propertyAccessor.excludedByAnnotation == true
+	}
+
+	def 'ObjectDiffProperty on a field is honored when comparing via getters'() {
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(
+				  new TypeWithAnnotatedField(value: 'foo', equalsOnly: new ObjectWithHashCodeAndEquals('a', 'x')),
+				  new TypeWithAnnotatedField(value: 'bar', equalsOnly: new ObjectWithHashCodeAndEquals('a', 'y')))
+		then:
+		  node.untouched
+	}
+
+	def 'returns annotations of the backing field'() {
+		given:
+		  propertyAccessor = PropertyAccessorBuilder.forPropertyOf(TypeWithAnnotatedField)
+				  .property('value', String)
+				  .readOnly(false)
+				  .build()
+		expect:
+		  propertyAccessor.fieldAnnotations.size() == 1
+		  propertyAccessor.getFieldAnnotation(ObjectDiffProperty).categories() == ['A', 'B'] as String[]
+		  propertyAccessor.getFieldAnnotation(Deprecated) == null
+	}
+
+	def 'wrap exceptions thrown by the getter in PropertyReadException'() {
+		given:
+		  propertyAccessor = PropertyAccessorBuilder.forPropertyOf(TypeWithFailingGetter)
+				  .property('value', String)
+				  .readOnly(true)
+				  .build()
+		when:
+		  propertyAccessor.get(new TypeWithFailingGetter())
+		then:
+		  def exception = thrown(PropertyReadException)
+		  exception.propertyName == 'value'
+		  exception.targetType == TypeWithFailingGetter
+	}
+
+	public static class TypeWithFailingGetter {
+		public String getValue() {
+			throw new UnsupportedOperationException()
+		}
+	}
+
+	public static class TypeWithAnnotatedField {
+		@ObjectDiffProperty(excluded = true, categories = ['A', 'B'])
+		private String value
+		@ObjectDiffProperty(equalsOnly = true)
+		private ObjectWithHashCodeAndEquals equalsOnly
+
+		public String getValue() {
+			return value
+		}
+
+		public void setValue(String value) {
+			this.value = value
+		}
+
+		public ObjectWithHashCodeAndEquals getEqualsOnly() {
+			return equalsOnly
+		}
+
+		public void setEqualsOnly(ObjectWithHashCodeAndEquals equalsOnly) {
+			this.equalsOnly = equalsOnly
+		}
+	}
 }
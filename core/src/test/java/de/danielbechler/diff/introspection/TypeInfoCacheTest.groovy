@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.instantiation.InstanceFactory
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.mock.ObjectWithString
+import spock.lang.Specification
+
+class TypeInfoCacheTest extends Specification {
+
+	def cache = new TypeInfoCache()
+	def introspector = Stub(Introspector)
+	def instanceFactory = Stub(InstanceFactory)
+
+	def 'get: returns the cached type info'() {
+		given:
+		  def typeInfo = new TypeInfo(ObjectWithString)
+		  cache.put(ObjectWithString, introspector, instanceFactory, typeInfo)
+		expect:
+		  cache.get(ObjectWithString, introspector, instanceFactory).is typeInfo
+		  cache.get(ObjectWithString, Stub(Introspector), instanceFactory) == null
+		  cache.hitCount == 1
+		  cache.missCount == 1
+	}
+
+	def 'put: keeps the type info that has been cached first'() {
+		given:
+		  def typeInfo = new TypeInfo(ObjectWithString)
+		  cache.put(ObjectWithString, introspector, instanceFactory, typeInfo)
+		expect:
+		  cache.put(ObjectWithString, introspector, instanceFactory, new TypeInfo(ObjectWithString)).is typeInfo
+	}
+
+	def 'getSize: only counts types whose type infos have not been cleared'() {
+		given:
+		  cache.put(ObjectWithString, introspector, instanceFactory, new TypeInfo(ObjectWithString))
+		  cache.put(Date, introspector, instanceFactory, new TypeInfo(Date))
+		when:
+		  cache.@typeInfos.get(Date).clear()
+		then:
+		  cache.size == 1
+	}
+
+	def 'purges entries whose type infos have been cleared by the garbage collector'() {
+		given:
+		  cache.put(Date, introspector, instanceFactory, new TypeInfo(Date))
+		  def reference = cache.@typeInfos.get(Date)
+		when:
+		  reference.enqueue()
+		  cache.get(ObjectWithString, introspector, instanceFactory)
+		then:
+		  cache.@typeInfos.get(Date) == null
+		  cache.size == 0
+	}
+
+	def 'get: removes the entry of a type whose type infos have been cleared'() {
+		given:
+		  cache.put(Date, introspector, instanceFactory, new TypeInfo(Date))
+		  cache.@typeInfos.get(Date).clear()
+		when:
+		  def typeInfo = cache.get(Date, introspector, instanceFactory)
+		then:
+		  typeInfo == null
+		  cache.@typeInfos.get(Date) == null
+	}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.introspection
+
+import de.danielbechler.diff.instantiation.TypeInfo
+import de.danielbechler.diff.mock.ObjectWithString
+import spock.lang.Specification
+
+/**
+ * @author Daniel Bechler
+ */
+class TypeIntrospectorLoaderTest extends Specification {
+
+	File classPathRoot
+
+	def setup() {
+		classPathRoot = File.createTempFile('type-introspector-loader', '')
+		classPathRoot.delete()
+		classPathRoot.mkdirs()
+	}
+
+	def cleanup() {
+		classPathRoot.deleteDir()
+	}
+
+	private TypeIntrospectorLoader loaderWithServiceResource(String content) {
+		def serviceResource = new File(classPathRoot, TypeIntrospectorLoader.SERVICE_RESOURCE)
+		serviceResource.parentFile.mkdirs()
+		serviceResource.setText(content, 'UTF-8')
+		def classLoader = new URLClassLoader([classPathRoot.toURI().toURL()] as URL[], getClass().classLoader)
+		return new TypeIntrospectorLoader(classLoader)
+	}
+
+	def 'load returns registered introspectors by their type'() {
+		given:
+		  def loader = loaderWithServiceResource("""
+			  # comments and blank lines are ignored
+
+			  ${ObjectWithStringIntrospector.name} # trailing comment
+		  """)
+		when:
+		  def introspectors = loader.load()
+		then:
+		  introspectors.size() == 1
+		  introspectors.get(ObjectWithString) instanceof ObjectWithStringIntrospector
+	}
+
+	def 'load skips registrations that cannot be instantiated'() {
+		given:
+		  def loader = loaderWithServiceResource("""
+			  com.example.DoesNotExist
+			  ${Object.name}
+			  ${ObjectWithStringIntrospector.name}
+		  """)
+		when:
+		  def introspectors = loader.load()
+		then:
+		  introspectors.keySet() == [ObjectWithString] as Set
+	}
+
+	def 'load returns empty map if nothing has been registered'() {
+		given:
+		  def loader = new TypeIntrospectorLoader(new URLClassLoader([] as URL[], (ClassLoader) null))
+		expect:
+		  loader.load().isEmpty()
+	}
+
+	def 'load scans the class path only once per class loader'() {
+		given:
+		  def classLoader = loaderWithServiceResource(ObjectWithStringIntrospector.name).classLoader
+		  new TypeIntrospectorLoader(classLoader).load()
+		and:
+		  new File(classPathRoot, TypeIntrospectorLoader.SERVICE_RESOURCE).setText('', 'UTF-8')
+		when:
+		  def introspectors = new TypeIntrospectorLoader(classLoader).load()
+		then:
+		  introspectors.keySet() == [ObjectWithString] as Set
+	}
+
+	public static class ObjectWithStringIntrospector implements TypeIntrospector {
+		Class<?> getType() {
+			return ObjectWithString
+		}
+
+		TypeInfo introspect(Class<?> type) {
+			return new TypeInfo(type)
+		}
+	}
+}
@@ -19,9 +19,11 @@ package de.danielbechler.diff.node
 import de.danielbechler.diff.access.Accessor
 import de.danielbechler.diff.access.CollectionItemAccessor
 import de.danielbechler.diff.access.PropertyAwareAccessor
+import de.danielbechler.diff.identity.HashingIdentityStrategy
 import de.danielbechler.diff.mock.ObjectDiffTest
 import de.danielbechler.diff.path.NodePath
 import de.danielbechler.diff.selector.BeanPropertyElementSelector
+import de.danielbechler.diff.selector.CollectionItemElementSelector
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -41,6 +43,28 @@ class DiffNodeTest extends Specification {
 		  childNodeA.getChild(NodePath.startBuilding().collectionItem('A').collectionItem('B').build()) == childNodeB
 	}
 
+	def 'getChild: finds collection item child via hashing child identity strategy'() {
+		given:
+		  def identityStrategy = new HashingIdentityStrategy() {
+			  int hashCode(Object item) {
+				  return item.toString().toLowerCase().hashCode()
+			  }
+
+			  boolean equals(Object working, Object base) {
+				  return working.toString().equalsIgnoreCase(base.toString())
+			  }
+		  }
+		  def collectionNode = DiffNode.newRootNode()
+		  collectionNode.childIdentityStrategy = identityStrategy
+		  def children = ['a', 'b', 'c'].collectEntries { item ->
+			  [item, new DiffNode(collectionNode, new CollectionItemAccessor(item, identityStrategy), String)]
+		  }
+		  children.values().each { collectionNode.addChild(it) }
+		expect:
+		  collectionNode.getChild(new CollectionItemElementSelector('B')).is children['b']
+		  collectionNode.getChild(new CollectionItemElementSelector('d')) == null
+	}
+
 	@Unroll
 	def '#stateCheckMethodName: returns true when state is #state'() {
 		given:
@@ -49,7 +73,7 @@ class DiffNodeTest extends Specification {
 		expect:
 		  node.invokeMethod stateCheckMethodName, null
 		where:
-		  state << [UNTOUCHED, IGNORED, CIRCULAR, CHANGED, REMOVED, ADDED]
+		  state << [UNTOUCHED, IGNORED, CIRCULAR, CHANGED, REMOVED, ADDED, MOVED]
 		  stateCheckMethodName = 'is' + state.name().toLowerCase().capitalize()
 	}
 
@@ -65,6 +89,7 @@ class DiffNodeTest extends Specification {
 		  ADDED     || true
 		  REMOVED   || true
 		  CHANGED   || true
+		  MOVED     || true
 		  UNTOUCHED || false
 		  IGNORED   || false
 		  CIRCULAR  || false
@@ -83,6 +108,138 @@ class DiffNodeTest extends Specification {
 		  rootNode.hasChanges() == true
 	}
 
+	def 'descendantCount: counts the states of all nodes below, including those added before their parent was attached'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def childNode = new DiffNode(rootNode, new CollectionItemAccessor('a'), String)
+		  def grandChildNode = new DiffNode(childNode, new CollectionItemAccessor('b'), String)
+		  grandChildNode.state = ADDED
+		  def otherGrandChildNode = new DiffNode(childNode, new CollectionItemAccessor('c'), String)
+		when:
+		  childNode.addChild(grandChildNode)
+		  childNode.addChild(otherGrandChildNode)
+		  rootNode.addChild(childNode)
+		then:
+		  rootNode.descendantCount(ADDED) == 1
+		  rootNode.descendantCount(UNTOUCHED) == 1
+		  rootNode.descendantCount(CHANGED) == 1
+		  childNode.descendantCount(CHANGED) == 0
+	}
+
+	def 'descendantCount: follows state changes of nodes that have already been added'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def childNode = new DiffNode(rootNode, new CollectionItemAccessor('a'), String)
+		  def grandChildNode = new DiffNode(childNode, new CollectionItemAccessor('b'), String)
+		  childNode.addChild(grandChildNode)
+		  rootNode.addChild(childNode)
+		expect:
+		  !rootNode.hasChanges()
+		when:
+		  grandChildNode.state = MOVED
+		then:
+		  rootNode.descendantCount(MOVED) == 1
+		  rootNode.descendantCount(UNTOUCHED) == 1
+		  rootNode.hasChanges()
+		  childNode.hasChanges()
+	}
+
+	def 'descendantCount: forgets about children that have been replaced'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def childNode = new DiffNode(rootNode, new CollectionItemAccessor('a'), String)
+		  childNode.state = REMOVED
+		  rootNode.addChild(childNode)
+		when:
+		  rootNode.addChild(new DiffNode(rootNode, new CollectionItemAccessor('a'), String))
+		then:
+		  rootNode.descendantCount(REMOVED) == 0
+		  rootNode.descendantCount(UNTOUCHED) == 1
+		when:
+		  childNode.state = ADDED
+		then:
+		  rootNode.descendantCount(ADDED) == 0
+	}
+
+	def 'visit: passes nodes to the visitor in #order'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def a = new DiffNode(rootNode, new CollectionItemAccessor('a'), String)
+		  def b = new DiffNode(rootNode, new CollectionItemAccessor('b'), String)
+		  def c = new DiffNode(a, new CollectionItemAccessor('c'), String)
+		  a.addChild(c)
+		  rootNode.addChild(a)
+		  rootNode.addChild(b)
+		  def names = [(rootNode): 'root', (a): 'a', (b): 'b', (c): 'c']
+		  def visited = []
+		when:
+		  rootNode.visit({ DiffNode node, Visit visit -> visited << names[node] } as DiffNode.Visitor, order)
+		then:
+		  visited == expectedNames
+		where:
+		  order                        || expectedNames
+		  TraversalOrder.PRE_ORDER     || ['root', 'a', 'c', 'b']
+		  TraversalOrder.POST_ORDER    || ['c', 'a', 'b', 'root']
+		  TraversalOrder.BREADTH_FIRST || ['root', 'a', 'b', 'c']
+	}
+
+	def 'visit: stops the whole visit as soon as the visitor says so'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def a = new DiffNode(rootNode, new CollectionItemAccessor('a'), String)
+		  a.addChild(new DiffNode(a, new CollectionItemAccessor('c'), String))
+		  rootNode.addChild(a)
+		  rootNode.addChild(new DiffNode(rootNode, new CollectionItemAccessor('b'), String))
+		  def visited = []
+		when:
+		  rootNode.visit({ DiffNode node, Visit visit ->
+			  visited << node
+			  if (node.is(a)) {
+				  visit.stop()
+			  }
+		  } as DiffNode.Visitor)
+		then:
+		  visited == [rootNode, a]
+	}
+
+	def 'visit: skips the children of nodes the visitor doesn\'t want to go deeper into'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def a = new DiffNode(rootNode, new CollectionItemAccessor('a'), String)
+		  def b = new DiffNode(rootNode, new CollectionItemAccessor('b'), String)
+		  a.addChild(new DiffNode(a, new CollectionItemAccessor('c'), String))
+		  rootNode.addChild(a)
+		  rootNode.addChild(b)
+		  def visited = []
+		when:
+		  rootNode.visit({ DiffNode node, Visit visit ->
+			  visited << node
+			  if (node.is(a)) {
+				  visit.dontGoDeeper()
+			  }
+		  } as DiffNode.Visitor)
+		then:
+		  visited == [rootNode, a, b]
+	}
+
+	def 'visit: handles trees that are too deep for recursion'() {
+		given:
+		  def rootNode = DiffNode.newRootNode()
+		  def node = rootNode
+		  10000.times {
+			  def child = new DiffNode(node, new CollectionItemAccessor(it), Integer)
+			  node.addChild(child)
+			  node = child
+		  }
+		  def count = 0
+		when:
+		  rootNode.visit({ DiffNode visitedNode, Visit visit -> count++ } as DiffNode.Visitor, order)
+		then:
+		  count == 10001
+		where:
+		  order << TraversalOrder.values()
+	}
+
 	def 'getPropertyPath: returns absolute path for root node'() {
 		given:
 		  def diffNode = DiffNode.newRootNode()
@@ -106,6 +263,18 @@ class DiffNodeTest extends Specification {
 		  diffNode.path == NodePath.with('a', 'b', 'c')
 	}
 
+	def 'getPath: returns the same instance on repeated calls'() {
+		given:
+		  def parentNode = DiffNode.newRootNodeWithType(Object)
+		  def diffNode = new DiffNode(parentNode, Mock(Accessor) {
+			  getElementSelector() >> new BeanPropertyElementSelector('a')
+		  }, Object)
+
+		expect:
+		  diffNode.path.is(diffNode.path)
+		  diffNode.path == NodePath.with('a')
+	}
+
 	def 'addChild: fails with exception when attempting to add root node'() {
 		given:
 		  def rootNode = DiffNode.newRootNode()
@@ -150,6 +319,21 @@ class DiffNodeTest extends Specification {
 		  child.parentNode.is parent
 	}
 
+	def 'node without children behaves like a node with an empty list of children'() {
+		given:
+		  def node = DiffNode.newRootNode()
+		  def visitor = Mock DiffNode.Visitor
+		when:
+		  node.visitChildren(visitor)
+		then:
+		  0 * visitor.node(*_)
+		and:
+		  !node.hasChildren()
+		  node.childCount() == 0
+		  node.getChild(new BeanPropertyElementSelector('foo')) == null
+		  !node.hasChanges()
+	}
+
 	def 'addChild: changes parent node state to CHANGED if child node has changes'() {
 		given:
 		  def parentNode = DiffNode.newRootNode()
@@ -196,6 +380,17 @@ class DiffNodeTest extends Specification {
 		  1 * accessor.getReadMethodAnnotation(ObjectDiffTest) >> annotation
 	}
 
+	def 'getPropertyAnnotation: should not fall back to the field annotation if the getter is not annotated'() {
+		given:
+		  PropertyAwareAccessor accessor = Stub(PropertyAwareAccessor) {
+			  getReadMethodAnnotation(ObjectDiffTest) >> null
+			  getFieldAnnotation(ObjectDiffTest) >> Stub(ObjectDiffTest)
+		  }
+		expect:
+		  def node = new DiffNode(DiffNode.newRootNode(), accessor)
+		  node.getPropertyAnnotation(ObjectDiffTest) == null
+	}
+
 	def 'getPropertyAnnotation: should return null if accessor is not a property aware accessor'() {
 		given:
 		  def accessor = Mock(Accessor)
@@ -245,4 +440,18 @@ class DiffNodeTest extends Specification {
 
 		  doesOrDoesNotImplement = expectedResult ? 'implements' : 'does not implement'
 	}
+
+	def 'State: keeps the ordinals of the states that existed before MOVED'() {
+		expect:
+		  DiffNode.State.values() as List == [
+				  DiffNode.State.ADDED,
+				  DiffNode.State.CHANGED,
+				  DiffNode.State.REMOVED,
+				  DiffNode.State.UNTOUCHED,
+				  DiffNode.State.CIRCULAR,
+				  DiffNode.State.IGNORED,
+				  DiffNode.State.INACCESSIBLE,
+				  DiffNode.State.MOVED
+		  ]
+	}
 }
@@ -162,4 +162,47 @@ class NodePathTest extends Specification {
 				  RootElementSelector.instance
 		  ]
 	}
-}
\ No newline at end of file
+
+	def 'hashCode matches the hashCode of the element selector list'() {
+		given:
+		  def path = NodePath.startBuilding().propertyName('a').collectionItem('b').mapKey('c').build()
+		expect:
+		  path.hashCode() == path.elementSelectors.hashCode()
+		  path.hashCode() == new ArrayList(path.elementSelectors).hashCode()
+	}
+
+	def 'paths built separately are equal when their elements are equal'() {
+		given:
+		  def path = NodePath.startBuildingFrom(NodePath.with('a')).propertyName('b').build()
+		  def samePath = NodePath.with('a', 'b')
+		expect:
+		  path == samePath
+		  path.hashCode() == samePath.hashCode()
+		  path != NodePath.with('a', 'c')
+		  path != NodePath.with('b', 'b')
+	}
+
+	def 'startBuildingFrom does not modify the original path'() {
+		given:
+		  def path = NodePath.with('a')
+		when:
+		  NodePath.startBuildingFrom(path).propertyName('b').build()
+		then:
+		  path == NodePath.with('a')
+		  path.elementSelectors.size() == 2
+	}
+
+	def 'getElementSelectors returns an unmodifiable view'() {
+		when:
+		  NodePath.with('a').elementSelectors.add(new BeanPropertyElementSelector('b'))
+		then:
+		  thrown UnsupportedOperationException
+	}
+
+	def 'build throws IllegalStateException when path contains multiple root elements'() {
+		when:
+		  NodePath.startBuilding().element(RootElementSelector.instance).build()
+		then:
+		  thrown IllegalStateException
+	}
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.path
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * @author Daniel Bechler
+ */
+class NodePathTrieTest extends Specification {
+	def rules = new ValueNode<String>()
+
+	def 'empty trie returns null for every path'() {
+		expect:
+		  NodePathTrie.empty().valueForNodePath(nodePath) == null
+		where:
+		  nodePath << [NodePath.withRoot(), NodePath.with('a', 'b')]
+	}
+
+	@Unroll
+	def 'compile: returns the value of the rule for exactly #nodePath'() {
+		given:
+		  rules.getNodeForPath(NodePath.withRoot()).value = 'root'
+		  rules.getNodeForPath(NodePath.with('a', 'b')).value = 'b'
+		  def trie = NodePathTrie.compile(rules)
+		expect:
+		  trie.valueForNodePath(nodePath) == expectedValue
+		where:
+		  nodePath                     | expectedValue
+		  NodePath.withRoot()          | 'root'
+		  NodePath.with('a')           | null
+		  NodePath.with('a', 'b')      | 'b'
+		  NodePath.with('a', 'b', 'c') | null
+		  NodePath.with('x')           | null
+	}
+
+	def 'compile: returns the precomputed answer below a rule for paths without rule of their own'() {
+		given:
+		  rules.getNodeForPath(NodePath.with('a')).value = 'a'
+		  def trie = NodePathTrie.compile(rules, new NodePathTrie.Compiler<String, String>() {
+			  String valueFor(ValueNode<String> rule) {
+				  return rule.value
+			  }
+
+			  String valueBelow(ValueNode<String> rule) {
+				  return rule.parent == null ? 'below root' : 'below ' + rule.elementSelector
+			  }
+		  })
+		expect:
+		  trie.valueForNodePath(NodePath.with('a')) == 'a'
+		  trie.valueForNodePath(NodePath.with('a', 'b', 'c')) == 'below a'
+		  trie.valueForNodePath(NodePath.with('x')) == 'below root'
+	}
+
+	def 'compile: lookups do not modify the compiled rules'() {
+		given:
+		  def trie = NodePathTrie.compile(rules)
+		when:
+		  trie.valueForNodePath(NodePath.with('a', 'b'))
+		then:
+		  rules.children.isEmpty()
+	}
+
+	def 'compile: lookups follow the parent links of the path instead of materializing its elements'() {
+		given:
+		  rules.getNodeForPath(NodePath.with('a', 'b')).value = 'b'
+		  def trie = NodePathTrie.compile(rules)
+		  def nodePath = NodePath.with('a', 'b')
+		when:
+		  def value = trie.valueForNodePath(nodePath)
+		then:
+		  value == 'b'
+		  nodePath.@elementSelectors == null
+	}
+
+	def 'compile: changes to the rules do not affect a compiled trie'() {
+		given:
+		  rules.getNodeForPath(NodePath.with('a')).value = 'a'
+		  def trie = NodePathTrie.compile(rules)
+		when:
+		  rules.getNodeForPath(NodePath.with('a')).value = 'changed'
+		then:
+		  trie.valueForNodePath(NodePath.with('a')) == 'a'
+	}
+}
@@ -0,0 +1,107 @@
+package de.danielbechler.diff.selector
+
+import de.danielbechler.diff.identity.HashingIdentityStrategy
+import de.danielbechler.diff.identity.IdentityStrategy
+import spock.lang.Specification
+/**
+ * @author Daniel Bechler
+ */
+class CollectionItemElementSelectorTest extends Specification {
+	def 'can be created with "null" item'() {
+		expect:
+		  new CollectionItemElementSelector(null) != null
+	}
+
+	def 'should equal other CollectionElement if items are equal'() {
+		setup:
+		  def element = new CollectionItemElementSelector("foo")
+		  def equalElement = new CollectionItemElementSelector("foo")
+
+		expect:
+		  element.equals(equalElement)
+	}
+
+	def 'should not equal elements of different class'() {
+		setup:
+		  def element = new CollectionItemElementSelector("foo")
+		  def mapElement = new MapKeyElementSelector("foo")
+
+		expect:
+		  !element.equals(mapElement)
+	}
+
+	def 'should not equal null'() {
+		setup:
+		  def element = new CollectionItemElementSelector("foo")
+
+		expect:
+		  !element.equals(null)
+	}
+
+	def 'should have constant hashCode'() {
+		// NOTE: Selectors with different identity strategies can be equal (e.g. the ones of a configured
+		// NodePath and the ones of the actual nodes), so the hashCode must not depend on the strategy.
+		given:
+		  def identityStrategy = Mock(HashingIdentityStrategy) {
+			  hashCode('foo') >> 42
+		  }
+
+		expect:
+		  new CollectionItemElementSelector('foo').hashCode() == 31
+		  new CollectionItemElementSelector('foo', identityStrategy).hashCode() == 31
+		  new CollectionItemElementSelector(null).hashCode() == 31
+	}
+
+	def 'identityStrategyHashCode should be computed by identity strategy if it supports hashing'() {
+		given:
+		  def identityStrategy = Mock(HashingIdentityStrategy) {
+			  hashCode('foo') >> 42
+		  }
+
+		expect:
+		  new CollectionItemElementSelector('foo', identityStrategy).identityStrategyHashCode() == 42
+	}
+
+	def 'identityStrategyHashCode should equal the hashCode of the item when using the default identity strategy'() {
+		expect:
+		  new CollectionItemElementSelector('foo').identityStrategyHashCode() == 'foo'.hashCode()
+	}
+
+	def 'identityStrategyHashCode should be constant if identity strategy does not support hashing'() {
+		given:
+		  def identityStrategy = Mock(IdentityStrategy)
+
+		expect:
+		  new CollectionItemElementSelector('foo', identityStrategy).identityStrategyHashCode() == 31
+		  new CollectionItemElementSelector('bar', identityStrategy).identityStrategyHashCode() == 31
+	}
+
+	def 'identityStrategyHashCode should be constant for null item'() {
+		expect:
+		  new CollectionItemElementSelector(null).identityStrategyHashCode() == 31
+	}
+
+	def 'copyWithIdentityStrategy should compute identityStrategyHashCode via new identity strategy'() {
+		given:
+		  def identityStrategy = Mock(HashingIdentityStrategy) {
+			  hashCode('foo') >> 42
+		  }
+
+		expect:
+		  new CollectionItemElementSelector('foo').copyWithIdentityStrategy(identityStrategy).identityStrategyHashCode() == 42
+	}
+
+	def 'should provide accessor for item'() {
+		setup:
+		  def item = "foo"
+		  def element = new CollectionItemElementSelector(item)
+
+		expect:
+		  element.getItem() == item
+	}
+
+	def 'should have proper toString() representation'() {
+		expect: "string representation of the item should be converted to single line"
+		  new CollectionItemElementSelector("foo\nbar").toString() == '[foo \\ bar]'
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.selector
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import static de.danielbechler.diff.selector.ListItemElementSelector.NO_INDEX
+
+class ListItemElementSelectorTest extends Specification {
+
+	@Unroll
+	def 'toHumanReadableString returns #expected for base index #baseIndex and working index #workingIndex'() {
+		expect:
+		  new ListItemElementSelector(baseIndex, workingIndex, moved).toHumanReadableString() == expected
+		where:
+		  baseIndex | workingIndex | moved || expected
+		  NO_INDEX  | 2            | false || '[+2]'
+		  3         | NO_INDEX     | false || '[-3]'
+		  1         | 4            | true  || '[1->4]'
+		  1         | 4            | false || '[4]'
+	}
+
+	@Unroll
+	def 'constructor rejects base index #baseIndex and working index #workingIndex'() {
+		when:
+		  new ListItemElementSelector(baseIndex, workingIndex, false)
+		then:
+		  thrown(IllegalArgumentException)
+		where:
+		  baseIndex | workingIndex
+		  NO_INDEX  | NO_INDEX
+		  -2        | 0
+		  0         | -2
+	}
+
+	def 'equals and hashCode only depend on the positions'() {
+		given:
+		  def selector = new ListItemElementSelector(1, 2, true)
+		  def sameSelector = new ListItemElementSelector(1, 2, false)
+		expect:
+		  selector == sameSelector
+		  selector.hashCode() == sameSelector.hashCode()
+		  selector != new ListItemElementSelector(2, 1, true)
+		  selector != new CollectionItemElementSelector(1)
+	}
+}
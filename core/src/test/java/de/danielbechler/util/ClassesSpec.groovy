@@ -24,6 +24,7 @@ import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.lang.ref.WeakReference
 import java.text.Collator
 import java.util.concurrent.ConcurrentSkipListMap
 
@@ -100,6 +101,83 @@ class ClassesSpec extends Specification {
 		  type << COMPLEX_TYPES
 	}
 
+	@Unroll
+	def 'isIntrospectableType: should return #expectedResult for #type'() {
+		expect:
+		  Classes.isIntrospectableType(type) == expectedResult
+		where:
+		  type          || expectedResult
+		  ArrayList     || true
+		  Object        || true
+		  Date          || true
+		  int           || false
+		  Integer       || false
+		  Thread.State  || false
+		  String[]      || false
+		  null          || false
+	}
+
+	def 'isComparableType: should return the same result for repeated calls'() {
+		expect:
+		  Classes.isComparableType(type) == expectedResult
+		  Classes.isComparableType(type) == expectedResult
+		where:
+		  type   || expectedResult
+		  String || true
+		  Object || false
+		  null   || false
+	}
+
+	def 'mostSpecificSharedType: should return the same result for pairs of types as for collections of types'() {
+		expect:
+		  Classes.mostSpecificSharedType(type, otherType) == Classes.mostSpecificSharedType([type, otherType] as Set)
+		  Classes.mostSpecificSharedType(type, otherType) == Classes.mostSpecificSharedType(type, otherType)
+		where:
+		  type       | otherType
+		  ArrayList  | LinkedList
+		  BigDecimal | Integer
+		  String     | Integer
+	}
+
+	def 'classification: should not keep classified types from being garbage collected'() {
+		given:
+		  def type = new WeakReference<Class<?>>(loadIsolatedCopyOf(ObjectWithString))
+		when:
+		  Classes.isSimpleType(type.get())
+		  Classes.mostSpecificSharedType(type.get(), type.get())
+		  for (int i = 0; i < 50 && type.get() != null; i++) {
+			  System.gc()
+			  Thread.sleep(10)
+		  }
+		then:
+		  type.get() == null
+	}
+
+	private static Class<?> loadIsolatedCopyOf(Class<?> type) {
+		def bytes = type.getResourceAsStream('/' + type.name.replace('.', '/') + '.class').bytes
+		def classLoader = new IsolatingClassLoader(type.name, bytes)
+		return classLoader.loadClass(type.name)
+	}
+
+	private static class IsolatingClassLoader extends ClassLoader {
+		private final String isolatedClassName
+		private final byte[] bytes
+
+		IsolatingClassLoader(String isolatedClassName, byte[] bytes) {
+			super(ClassesSpec.classLoader)
+			this.isolatedClassName = isolatedClassName
+			this.bytes = bytes
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) {
+			if (name == isolatedClassName) {
+				return defineClass(name, bytes, 0, bytes.length)
+			}
+			return super.loadClass(name, resolve)
+		}
+	}
+
 	def 'freshInstanceOf: should return new instance of desired type'() {
 		expect:
 		  Classes.freshInstanceOf(ObjectWithString) instanceof ObjectWithString
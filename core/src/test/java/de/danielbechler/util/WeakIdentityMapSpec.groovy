@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.util
+
+import spock.lang.Specification
+
+class WeakIdentityMapSpec extends Specification {
+
+	def map = new WeakIdentityMap<Object, String>()
+
+	def 'compares keys by identity'() {
+		given:
+		  def key = new String('key')
+		  map.put(key, 'value')
+		expect:
+		  map.get(key) == 'value'
+		  map.get(new String('key')) == null
+	}
+
+	def 'putIfAbsent keeps the existing value'() {
+		given:
+		  def key = new Object()
+		expect:
+		  map.putIfAbsent(key, 'first') == null
+		  map.putIfAbsent(key, 'second') == 'first'
+		  map.get(key) == 'first'
+	}
+
+	def 'replace only replaces the expected value'() {
+		given:
+		  def key = new Object()
+		  map.put(key, 'first')
+		expect:
+		  !map.replace(key, 'other', 'second')
+		  map.replace(key, 'first', 'second')
+		  map.get(key) == 'second'
+	}
+
+	def 'remove drops the entry of the given key'() {
+		given:
+		  def key = new Object()
+		  map.put(key, 'value')
+		expect:
+		  !map.remove(key, 'other')
+		  map.remove(key) == 'value'
+		  map.size() == 0
+	}
+
+	def 'null keys are never contained'() {
+		expect:
+		  map.get(null) == null
+		  map.remove(null) == null
+	}
+
+	def 'drops entries whose keys have been garbage collected'() {
+		given:
+		  map.put(new Object(), 'value')
+		when:
+		  for (int i = 0; i < 50 && map.size() > 0; i++) {
+			  System.gc()
+			  Thread.sleep(10)
+		  }
+		then:
+		  map.size() == 0
+		  map.values().isEmpty()
+	}
+}
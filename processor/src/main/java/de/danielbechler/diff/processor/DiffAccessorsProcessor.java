@@ -0,0 +1,337 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package de.danielbechler.diff.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates a {@link de.danielbechler.diff.introspection.TypeIntrospector} for every class annotated with {@link
+ * de.danielbechler.diff.introspection.GenerateDiffAccessors} and registers it in
+ * <code>META-INF/services/de.danielbechler.diff.introspection.TypeIntrospector</code>, so that it gets picked up by
+ * the {@link de.danielbechler.diff.introspection.IntrospectionService}. The generated accessors cover the same
+ * properties the {@link de.danielbechler.diff.introspection.StandardIntrospector} would find, but are restricted to
+ * public getters and setters.
+ *
+ * @author Daniel Bechler
+ */
+@SupportedAnnotationTypes(DiffAccessorsProcessor.ANNOTATION_TYPE)
+public class DiffAccessorsProcessor extends AbstractProcessor
+{
+	static final String ANNOTATION_TYPE = "de.danielbechler.diff.introspection.GenerateDiffAccessors";
+	static final String SERVICE_RESOURCE = "META-INF/services/de.danielbechler.diff.introspection.TypeIntrospector";
+	static final String INTROSPECTOR_SUFFIX = "DiffIntrospector";
+
+	private final Set<String> generatedIntrospectors = new LinkedHashSet<String>();
+	private final List<Element> originatingElements = new ArrayList<Element>();
+	private Elements elements;
+	private Types types;
+	private Filer filer;
+	private Messager messager;
+
+	@Override
+	public synchronized void init(final ProcessingEnvironment processingEnv)
+	{
+		super.init(processingEnv);
+		elements = processingEnv.getElementUtils();
+		types = processingEnv.getTypeUtils();
+		filer = processingEnv.getFiler();
+		messager = processingEnv.getMessager();
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion()
+	{
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv)
+	{
+		final TypeElement annotation = elements.getTypeElement(ANNOTATION_TYPE);
+		if (annotation != null)
+		{
+			for (final TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(annotation)))
+			{
+				if (isSupported(type))
+				{
+					generateIntrospector(type);
+				}
+			}
+		}
+		if (roundEnv.processingOver() && !generatedIntrospectors.isEmpty())
+		{
+			writeServiceResource();
+		}
+		return true;
+	}
+
+	private boolean isSupported(final TypeElement type)
+	{
+		if (type.getKind() != ElementKind.CLASS)
+		{
+			messager.printMessage(Diagnostic.Kind.ERROR, "@GenerateDiffAccessors is only supported on classes", type);
+			return false;
+		}
+		for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement())
+		{
+			if (element.getModifiers().contains(Modifier.PRIVATE))
+			{
+				messager.printMessage(Diagnostic.Kind.ERROR, "@GenerateDiffAccessors is not supported on private classes", type);
+				return false;
+			}
+		}
+		if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS)
+		{
+			messager.printMessage(Diagnostic.Kind.ERROR, "@GenerateDiffAccessors is not supported on local classes", type);
+			return false;
+		}
+		return true;
+	}
+
+	private void generateIntrospector(final TypeElement type)
+	{
+		final String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+		final String simpleName = introspectorSimpleName(type);
+		final String qualifiedName = packageName.length() > 0 ? packageName + "." + simpleName : simpleName;
+		final Collection<Property> properties = collectProperties(type);
+		try
+		{
+			final JavaFileObject sourceFile = filer.createSourceFile(qualifiedName, type);
+			final PrintWriter out = new PrintWriter(sourceFile.openWriter());
+			try
+			{
+				new IntrospectorWriter(out, packageName, simpleName, typeName(type.asType()), properties).write();
+			}
+			finally
+			{
+				out.close();
+			}
+			generatedIntrospectors.add(qualifiedName);
+			originatingElements.add(type);
+		}
+		catch (final IOException e)
+		{
+			messager.printMessage(Diagnostic.Kind.ERROR, "Failed to generate " + qualifiedName + ": " + e.getMessage(), type);
+		}
+	}
+
+	private static String introspectorSimpleName(final TypeElement type)
+	{
+		final StringBuilder sb = new StringBuilder(type.getSimpleName());
+		for (Element element = type.getEnclosingElement(); element instanceof TypeElement; element = element.getEnclosingElement())
+		{
+			sb.insert(0, '_').insert(0, element.getSimpleName());
+		}
+		return sb.append(INTROSPECTOR_SUFFIX).toString();
+	}
+
+	/**
+	 * Finds the public getters (and matching setters) of the given type and its supertypes, sorted by property name
+	 * just like the property descriptors of the {@link java.beans.Introspector}.
+	 */
+	private Collection<Property> collectProperties(final TypeElement type)
+	{
+		final DeclaredType declaredType = (DeclaredType) type.asType();
+		final List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+		for (final ExecutableElement method : ElementFilter.methodsIn(elements.getAllMembers(type)))
+		{
+			final Set<Modifier> modifiers = method.getModifiers();
+			if (modifiers.contains(Modifier.PUBLIC) && !modifiers.contains(Modifier.STATIC))
+			{
+				methods.add(method);
+			}
+		}
+		final Map<String, Property> properties = new TreeMap<String, Property>();
+		for (final ExecutableElement method : methods)
+		{
+			final ExecutableType methodType = (ExecutableType) types.asMemberOf(declaredType, method);
+			final String suffix = readMethodSuffix(method, methodType);
+			if (suffix == null)
+			{
+				continue;
+			}
+			final String propertyName = decapitalize(suffix);
+			if (propertyName.equals("class") || propertyName.equals("metaClass"))
+			{
+				continue;
+			}
+			final Property existingProperty = properties.get(propertyName);
+			if (existingProperty != null && existingProperty.readMethodName.startsWith("is"))
+			{
+				continue;
+			}
+			final TypeMirror propertyType = types.erasure(methodType.getReturnType());
+			final String writeMethodName = findWriteMethod(declaredType, methods, "set" + suffix, propertyType);
+			properties.put(propertyName, new Property(propertyName, typeName(propertyType),
+					method.getSimpleName().toString(), writeMethodName));
+		}
+		return properties.values();
+	}
+
+	private static String readMethodSuffix(final ExecutableElement method, final ExecutableType methodType)
+	{
+		if (!method.getParameters().isEmpty())
+		{
+			return null;
+		}
+		final String name = method.getSimpleName().toString();
+		final TypeKind returnKind = methodType.getReturnType().getKind();
+		if (name.startsWith("get") && name.length() > 3 && returnKind != TypeKind.VOID)
+		{
+			return name.substring(3);
+		}
+		if (name.startsWith("is") && name.length() > 2 && returnKind == TypeKind.BOOLEAN)
+		{
+			return name.substring(2);
+		}
+		return null;
+	}
+
+	private String findWriteMethod(final DeclaredType declaredType,
+								   final List<ExecutableElement> methods,
+								   final String name,
+								   final TypeMirror propertyType)
+	{
+		for (final ExecutableElement method : methods)
+		{
+			if (method.getSimpleName().contentEquals(name) && method.getParameters().size() == 1)
+			{
+				final ExecutableType methodType = (ExecutableType) types.asMemberOf(declaredType, method);
+				final TypeMirror parameterType = types.erasure(methodType.getParameterTypes().get(0));
+				if (types.isSameType(parameterType, propertyType))
+				{
+					return name;
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Mirrors {@link java.beans.Introspector#decapitalize(String)}.
+	 */
+	static String decapitalize(final String name)
+	{
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0)))
+		{
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private String typeName(final TypeMirror type)
+	{
+		return types.erasure(type).toString();
+	}
+
+	private void writeServiceResource()
+	{
+		final Set<String> introspectors = new LinkedHashSet<String>(readExistingServiceResource());
+		introspectors.addAll(generatedIntrospectors);
+		try
+		{
+			final FileObject resource = filer.createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_RESOURCE,
+					originatingElements.toArray(new Element[originatingElements.size()]));
+			final Writer writer = new OutputStreamWriter(resource.openOutputStream(), "UTF-8");
+			try
+			{
+				for (final String introspector : introspectors)
+				{
+					writer.write(introspector);
+					writer.write('\n');
+				}
+			}
+			finally
+			{
+				writer.close();
+			}
+		}
+		catch (final IOException e)
+		{
+			messager.printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_RESOURCE + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Keeps the registrations of previous (incremental) compilations.
+	 */
+	private Collection<String> readExistingServiceResource()
+	{
+		final Collection<String> introspectors = new ArrayList<String>();
+		try
+		{
+			final FileObject resource = filer.getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_RESOURCE);
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openInputStream(), "UTF-8"));
+			try
+			{
+				String line;
+				while ((line = reader.readLine()) != null)
+				{
+					if (line.trim().length() > 0)
+					{
+						introspectors.add(line.trim());
+					}
+				}
+			}
+			finally
+			{
+				reader.close();
+			}
+		}
+		catch (final IOException ignored)
+		{
+			// nothing has been registered yet
+		}
+		return introspectors;
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.processor;
+
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the source code of a generated {@link de.danielbechler.diff.introspection.TypeIntrospector} and its
+ * accessors.
+ *
+ * @author Daniel Bechler
+ */
+class IntrospectorWriter
+{
+	private static final Map<String, String> WRAPPER_TYPE_NAMES = new HashMap<String, String>();
+
+	static
+	{
+		WRAPPER_TYPE_NAMES.put("boolean", "java.lang.Boolean");
+		WRAPPER_TYPE_NAMES.put("byte", "java.lang.Byte");
+		WRAPPER_TYPE_NAMES.put("char", "java.lang.Character");
+		WRAPPER_TYPE_NAMES.put("short", "java.lang.Short");
+		WRAPPER_TYPE_NAMES.put("int", "java.lang.Integer");
+		WRAPPER_TYPE_NAMES.put("long", "java.lang.Long");
+		WRAPPER_TYPE_NAMES.put("float", "java.lang.Float");
+		WRAPPER_TYPE_NAMES.put("double", "java.lang.Double");
+	}
+
+	private final PrintWriter out;
+	private final String packageName;
+	private final String simpleName;
+	private final String typeName;
+	private final Collection<Property> properties;
+
+	IntrospectorWriter(final PrintWriter out,
+					   final String packageName,
+					   final String simpleName,
+					   final String typeName,
+					   final Collection<Property> properties)
+	{
+		this.out = out;
+		this.packageName = packageName;
+		this.simpleName = simpleName;
+		this.typeName = typeName;
+		this.properties = properties;
+	}
+
+	void write()
+	{
+		if (packageName.length() > 0)
+		{
+			out.println("package " + packageName + ";");
+			out.println();
+		}
+		out.println("import de.danielbechler.diff.instantiation.TypeInfo;");
+		out.println("import de.danielbechler.diff.introspection.GeneratedPropertyAccessor;");
+		out.println("import de.danielbechler.diff.introspection.TypeIntrospector;");
+		out.println();
+		out.println("/**");
+		out.println(" * Generated by " + DiffAccessorsProcessor.class.getName() + " for {@link " + typeName + "}.");
+		out.println(" */");
+		out.println("public final class " + simpleName + " implements TypeIntrospector");
+		out.println("{");
+		out.println("\tpublic Class<?> getType()");
+		out.println("\t{");
+		out.println("\t\treturn " + typeName + ".class;");
+		out.println("\t}");
+		out.println();
+		out.println("\tpublic TypeInfo introspect(final Class<?> type)");
+		out.println("\t{");
+		out.println("\t\tfinal TypeInfo typeInfo = new TypeInfo(type);");
+		for (final Property property : properties)
+		{
+			out.println("\t\ttypeInfo.addPropertyAccessor(new " + accessorName(property) + "());");
+		}
+		out.println("\t\treturn typeInfo;");
+		out.println("\t}");
+		for (final Property property : properties)
+		{
+			out.println();
+			writeAccessor(property);
+		}
+		out.println("}");
+	}
+
+	private void writeAccessor(final Property property)
+	{
+		out.println("\tprivate static final class " + accessorName(property) + " extends GeneratedPropertyAccessor");
+		out.println("\t{");
+		out.println("\t\t" + accessorName(property) + "()");
+		out.println("\t\t{");
+		out.println("\t\t\tsuper(" + typeName + ".class, \"" + property.name + "\", " + property.typeName + ".class, "
+				+ quote(property.readMethodName) + ", " + quote(property.writeMethodName) + ");");
+		out.println("\t\t}");
+		out.println();
+		out.println("\t\t@Override");
+		out.println("\t\tprotected Object read(final Object target) throws Exception");
+		out.println("\t\t{");
+		out.println("\t\t\treturn ((" + typeName + ") target)." + property.readMethodName + "();");
+		out.println("\t\t}");
+		if (property.writeMethodName != null)
+		{
+			// read-only properties are handled by GeneratedPropertyAccessor#set, just like the PropertyAccessor does
+			out.println();
+			out.println("\t\t@Override");
+			out.println("\t\t@SuppressWarnings(\"unchecked\")");
+			out.println("\t\tprotected void write(final Object target, final Object value) throws Exception");
+			out.println("\t\t{");
+			out.println("\t\t\t((" + typeName + ") target)." + property.writeMethodName + "((" + castTypeName(property) + ") value);");
+			out.println("\t\t}");
+		}
+		out.println("\t}");
+	}
+
+	private static String accessorName(final Property property)
+	{
+		return Character.toUpperCase(property.name.charAt(0)) + property.name.substring(1) + "Accessor";
+	}
+
+	private static String castTypeName(final Property property)
+	{
+		final String wrapperTypeName = WRAPPER_TYPE_NAMES.get(property.typeName);
+		return wrapperTypeName != null ? wrapperTypeName : property.typeName;
+	}
+
+	private static String quote(final String value)
+	{
+		return value != null ? "\"" + value + "\"" : "null";
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.processor;
+
+/**
+ * The bean property of an annotated type, as found by the {@link DiffAccessorsProcessor}.
+ *
+ * @author Daniel Bechler
+ */
+class Property
+{
+	final String name;
+	final String typeName;
+	final String readMethodName;
+	final String writeMethodName;
+
+	Property(final String name, final String typeName, final String readMethodName, final String writeMethodName)
+	{
+		this.name = name;
+		this.typeName = typeName;
+		this.readMethodName = readMethodName;
+		this.writeMethodName = writeMethodName;
+	}
+}
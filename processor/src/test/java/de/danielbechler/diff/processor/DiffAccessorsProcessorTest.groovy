@@ -0,0 +1,211 @@
+/*
+ * Copyright 2014 Daniel Bechler
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.danielbechler.diff.processor
+
+import de.danielbechler.diff.ObjectDifferBuilder
+import de.danielbechler.diff.introspection.GenerateDiffAccessors
+import de.danielbechler.diff.introspection.GeneratedPropertyAccessor
+import de.danielbechler.diff.introspection.PropertyReadException
+import de.danielbechler.diff.introspection.PropertyWriteException
+import de.danielbechler.diff.introspection.TypeIntrospector
+import de.danielbechler.diff.node.DiffNode
+import spock.lang.Specification
+
+import javax.tools.DiagnosticCollector
+import javax.tools.JavaFileObject
+import javax.tools.StandardLocation
+import javax.tools.ToolProvider
+
+/**
+ * @author Daniel Bechler
+ */
+class DiffAccessorsProcessorTest extends Specification {
+
+	static final String SAMPLE_BEAN = '''
+		package sample;
+
+		import de.danielbechler.diff.introspection.GenerateDiffAccessors;
+		import java.util.ArrayList;
+		import java.util.List;
+
+		@GenerateDiffAccessors
+		public class SampleBean {
+			private String name;
+			private int count;
+			private boolean active;
+			private final List<String> items = new ArrayList<String>();
+
+			public String getName() { return name; }
+			public void setName(String name) { this.name = name; }
+			public int getCount() { return count; }
+			public void setCount(int count) { this.count = count; }
+			public boolean isActive() { return active; }
+			public void setActive(boolean active) { this.active = active; }
+			public List<String> getItems() { return items; }
+		}
+	'''
+
+	static final String BEAN_WITH_CHECKED_EXCEPTIONS = '''
+		package sample;
+
+		import de.danielbechler.diff.introspection.GenerateDiffAccessors;
+		import java.io.IOException;
+
+		@GenerateDiffAccessors
+		public class BeanWithCheckedExceptions {
+			public String getValue() throws IOException { throw new IOException("read"); }
+			public void setValue(String value) throws IOException { throw new IOException("write"); }
+		}
+	'''
+
+	File sourceDirectory
+	File outputDirectory
+	URLClassLoader classLoader
+
+	def setup() {
+		sourceDirectory = createTempDirectory('diff-accessors-sources')
+		outputDirectory = createTempDirectory('diff-accessors-classes')
+		compile(writeSource('sample/SampleBean.java', SAMPLE_BEAN))
+		classLoader = new URLClassLoader([outputDirectory.toURI().toURL()] as URL[], getClass().classLoader)
+	}
+
+	def cleanup() {
+		sourceDirectory.deleteDir()
+		outputDirectory.deleteDir()
+	}
+
+	private static File createTempDirectory(String prefix) {
+		def directory = File.createTempFile(prefix, '')
+		directory.delete()
+		directory.mkdirs()
+		return directory
+	}
+
+	private File writeSource(String path, String source) {
+		def sourceFile = new File(sourceDirectory, path)
+		sourceFile.parentFile.mkdirs()
+		sourceFile.setText(source, 'UTF-8')
+		return sourceFile
+	}
+
+	private void compile(File sourceFile) {
+		def compiler = ToolProvider.getSystemJavaCompiler()
+		def diagnostics = new DiagnosticCollector<JavaFileObject>()
+		def fileManager = compiler.getStandardFileManager(diagnostics, null, null)
+		def libraryClassPath = new File(GenerateDiffAccessors.protectionDomain.codeSource.location.toURI())
+		fileManager.setLocation(StandardLocation.CLASS_PATH, [libraryClassPath])
+		fileManager.setLocation(StandardLocation.CLASS_OUTPUT, [outputDirectory])
+		def task = compiler.getTask(null, fileManager, diagnostics, null, null, fileManager.getJavaFileObjects(sourceFile))
+		task.setProcessors([new DiffAccessorsProcessor()])
+		def successful = task.call()
+		fileManager.close()
+		assert successful: diagnostics.diagnostics.join('\n')
+	}
+
+	private Class<?> sampleBeanClass() {
+		return classLoader.loadClass('sample.SampleBean')
+	}
+
+	def 'registers the generated introspector as service'() {
+		when:
+		  def serviceResource = new File(outputDirectory, DiffAccessorsProcessor.SERVICE_RESOURCE)
+		then:
+		  serviceResource.getText('UTF-8').readLines() == ['sample.SampleBeanDiffIntrospector']
+	}
+
+	def 'generates an accessor for every property'() {
+		given:
+		  def introspector = classLoader.loadClass('sample.SampleBeanDiffIntrospector').newInstance() as TypeIntrospector
+		when:
+		  def typeInfo = introspector.introspect(sampleBeanClass())
+		then:
+		  introspector.type == sampleBeanClass()
+		  typeInfo.accessors.collect { it.propertyName } == ['active', 'count', 'items', 'name']
+		  typeInfo.accessors.every { it instanceof GeneratedPropertyAccessor }
+		  typeInfo.accessors.collect { it.type } == [boolean, int, List, String]
+	}
+
+	def 'generated accessors read and write the properties'() {
+		given:
+		  def accessors = accessorsByPropertyName()
+		  def bean = sampleBeanClass().newInstance()
+		when:
+		  accessors.name.set(bean, 'foo')
+		  accessors.count.set(bean, 42)
+		  accessors.active.set(bean, true)
+		then:
+		  bean.name == 'foo'
+		  bean.count == 42
+		  bean.active
+		and:
+		  accessors.name.get(bean) == 'foo'
+		  accessors.count.get(bean) == 42
+		  accessors.active.get(bean) == true
+	}
+
+	def 'generated accessors replace the content of read-only collections'() {
+		given:
+		  def bean = sampleBeanClass().newInstance()
+		  bean.items.add('foo')
+		when:
+		  accessorsByPropertyName().items.set(bean, ['bar', 'baz'])
+		then:
+		  bean.items == ['bar', 'baz']
+	}
+
+	def 'generated introspector gets picked up by the ObjectDiffer'() {
+		given:
+		  def currentThread = Thread.currentThread()
+		  def originalContextClassLoader = currentThread.contextClassLoader
+		  currentThread.contextClassLoader = classLoader
+		  def base = sampleBeanClass().newInstance()
+		  def working = sampleBeanClass().newInstance()
+		  working.name = 'foo'
+		  working.items.add('bar')
+		when:
+		  def node = ObjectDifferBuilder.buildDefault().compare(working, base)
+		then:
+		  node.childCount() == 2
+		  node.getChild('name').state == DiffNode.State.ADDED
+		  node.getChild('items').state == DiffNode.State.CHANGED
+		cleanup:
+		  currentThread.contextClassLoader = originalContextClassLoader
+	}
+
+	def 'generated accessors wrap checked exceptions thrown by getters and setters'() {
+		given:
+		  compile(writeSource('sample/BeanWithCheckedExceptions.java', BEAN_WITH_CHECKED_EXCEPTIONS))
+		  def beanClass = classLoader.loadClass('sample.BeanWithCheckedExceptions')
+		  def introspector = classLoader.loadClass('sample.BeanWithCheckedExceptionsDiffIntrospector').newInstance() as TypeIntrospector
+		  def accessor = introspector.introspect(beanClass).accessors.first()
+		  def bean = beanClass.newInstance()
+		when:
+		  accessor.get(bean)
+		then:
+		  def readException = thrown(PropertyReadException)
+		  readException.cause instanceof IOException
+		when:
+		  accessor.set(bean, 'foo')
+		then:
+		  def writeException = thrown(PropertyWriteException)
+		  writeException.cause instanceof IOException
+	}
+
+	private Map<String, GeneratedPropertyAccessor> accessorsByPropertyName() {
+		def introspector = classLoader.loadClass('sample.SampleBeanDiffIntrospector').newInstance() as TypeIntrospector
+		return introspector.introspect(sampleBeanClass()).accessors.collectEntries { [it.propertyName, it] }
+	}
+}